@@ -0,0 +1,89 @@
+package com.aidenx11.JavaPixelPhysics.benchmarks;
+
+import java.util.Collection;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+/**
+ * Runs the benchmarks with the given JMH options and then prints the result of
+ * each one as operations per second and nanoseconds per cell. Benchmarks with
+ * rows and columns parameters work on every cell of a matrix of that size, and
+ * all other benchmarks work on a single cell.
+ *
+ * @author Aiden Schroeder
+ */
+public class BenchmarkMain {
+
+	/**
+	 * Runs the benchmarks
+	 *
+	 * @param args JMH command line options
+	 * @throws CommandLineOptionException if the options are not valid
+	 * @throws RunnerException            if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		Collection<RunResult> results = new Runner(new CommandLineOptions(args)).run();
+
+		System.out.println();
+		System.out.println(String.format("%-100s %16s %12s", "Benchmark", "ops/s", "ns/cell"));
+		for (RunResult result : results) {
+			BenchmarkParams params = result.getParams();
+			double score = result.getPrimaryResult().getScore();
+			double unitNanos = params.getTimeUnit().toNanos(1);
+
+			double nanosPerOp;
+			switch (params.getMode()) {
+			case Throughput:
+				nanosPerOp = unitNanos / score;
+				break;
+			case AverageTime:
+			case SampleTime:
+			case SingleShotTime:
+				nanosPerOp = score * unitNanos;
+				break;
+			default:
+				continue;
+			}
+
+			System.out.println(String.format("%-100s %16.1f %12.3f", getName(params), 1e9 / nanosPerOp,
+					nanosPerOp / getCells(params)));
+		}
+	}
+
+	/**
+	 * Returns the name of the benchmark followed by the values of its parameters
+	 *
+	 * @param params parameters of the benchmark
+	 * @return the name of the benchmark
+	 */
+	private static String getName(BenchmarkParams params) {
+		String name = params.getBenchmark();
+		StringBuilder builder = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+		for (String key : params.getParamsKeys()) {
+			builder.append(' ').append(key).append('=').append(params.getParam(key));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the number of cells each operation of the benchmark works on
+	 *
+	 * @param params parameters of the benchmark
+	 * @return the number of rows times the number of columns, or 1 if the
+	 *         benchmark does not have them
+	 */
+	private static long getCells(BenchmarkParams params) {
+		String rows = params.getParam("rows");
+		String columns = params.getParam("columns");
+		if (rows == null || columns == null) {
+			return 1;
+		}
+		return Math.max(Long.parseLong(rows) * Long.parseLong(columns), 1);
+	}
+
+}
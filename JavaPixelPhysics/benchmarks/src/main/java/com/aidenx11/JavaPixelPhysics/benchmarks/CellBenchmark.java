@@ -0,0 +1,115 @@
+package com.aidenx11.JavaPixelPhysics.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.elements.Element;
+
+/**
+ * Measures the operations on a single cell that elements use the most while
+ * they are updated. Each call works on the next cell of a fixed random sequence
+ * of cells, so the cells are spread over the whole matrix like they are in a
+ * real frame.
+ *
+ * @author Aiden Schroeder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellBenchmark {
+
+	/** Number of cells in the random sequence */
+	private static final int CELLS = 4096;
+
+	/** Matrix the cells are in */
+	private CellularMatrix matrix;
+
+	/** Rows of the cells in the random sequence */
+	private int[] rows;
+
+	/** Columns of the cells in the random sequence */
+	private int[] columns;
+
+	/** Index of the next cell in the random sequence */
+	private int next;
+
+	@Setup(Level.Trial)
+	public void buildScene() {
+		matrix = Scene.WATER_TANK.create(180, 263, 5);
+		for (int i = 0; i < 200; i++) {
+			matrix.tick();
+		}
+
+		// Leave a border so every cell has a cell below it and on every side
+		Random random = new Random(0);
+		rows = new int[CELLS];
+		columns = new int[CELLS];
+		for (int i = 0; i < CELLS; i++) {
+			rows[i] = 1 + random.nextInt(matrix.getRows() - 2);
+			columns[i] = 1 + random.nextInt(matrix.getColumns() - 2);
+		}
+	}
+
+	/**
+	 * Moves on to the next cell of the random sequence. The chunks are stepped
+	 * each time the sequence starts over, so activations do not only find chunks
+	 * that are already active.
+	 *
+	 * @return index of the cell in the random sequence
+	 */
+	private int nextCell() {
+		int cell = next;
+		next = (next + 1) & (CELLS - 1);
+		if (next == 0) {
+			matrix.stepChunks();
+		}
+		return cell;
+	}
+
+	/**
+	 * Swaps a cell with the cell below it, as a falling element does
+	 */
+	@Benchmark
+	public void swap() {
+		int cell = this.nextCell();
+		matrix.swap(rows[cell], columns[cell], rows[cell] - 1, columns[cell]);
+	}
+
+	/**
+	 * Activates the chunk of a cell, as every change to a cell does
+	 */
+	@Benchmark
+	public void activateChunk() {
+		int cell = this.nextCell();
+		matrix.activateChunk(rows[cell], columns[cell]);
+	}
+
+	/**
+	 * Gets the elements around a cell, as elements that react with their
+	 * neighbors do
+	 *
+	 * @return the elements around the cell
+	 */
+	@Benchmark
+	public Element[] getAdjacentElements() {
+		int cell = this.nextCell();
+		return matrix.getAdjacentElements(rows[cell], columns[cell], true, true, true);
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.aidenx11.JavaPixelPhysics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aidenx11.JavaPixelPhysics.FastRandom;
+import com.aidenx11.JavaPixelPhysics.color.ColorManager;
+import com.aidenx11.JavaPixelPhysics.color.CustomColor;
+import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
+import com.aidenx11.JavaPixelPhysics.color.Palette;
+
+/**
+ * Measures how fast colors are varied by working out a new shade each time,
+ * against picking a shade from a Palette as cells do when they are set to an
+ * element whose color varies.
+ *
+ * @author Aiden Schroeder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+
+	/** Color that is varied */
+	private final CustomColor color = new CustomColor(ColorValues.SAND_COLOR, false);
+
+	/** Red, green and blue of the color that is varied */
+	private final int[] rgb = ColorValues.SAND_COLOR.getRGB();
+
+	/** Random number generator the colors are varied with */
+	private final FastRandom random = new FastRandom(0);
+
+	/**
+	 * Varies a CustomColor, as elements did when a cell was set to them
+	 *
+	 * @return the varied color
+	 */
+	@Benchmark
+	public int[] varyColor() {
+		return ColorManager.varyColor(color, random);
+	}
+
+	/**
+	 * Varies a color given as red, green and blue, as Lava did when it changed
+	 * color with its temperature
+	 *
+	 * @return the varied color
+	 */
+	@Benchmark
+	public int[] varyColorRGB() {
+		return ColorManager.varyColor(rgb, random);
+	}
+
+	/**
+	 * Picks a random shade of a CustomColor from its palette, as elements do when
+	 * a cell is set to them
+	 *
+	 * @return the shade packed as RGBA8888
+	 */
+	@Benchmark
+	public int pickShade() {
+		return color.getPalette().getShade(random.nextInt(Palette.SHADES));
+	}
+
+}
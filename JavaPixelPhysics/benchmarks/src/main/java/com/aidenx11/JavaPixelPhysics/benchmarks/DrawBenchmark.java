@@ -0,0 +1,162 @@
+package com.aidenx11.JavaPixelPhysics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.ColorRenderer;
+import com.aidenx11.JavaPixelPhysics.FrameSnapshot;
+import com.aidenx11.JavaPixelPhysics.MatrixRenderer;
+import com.aidenx11.JavaPixelPhysics.PaletteRenderer;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGL20;
+
+/**
+ * Measures how fast a MatrixRenderer copies the pixels of the cells into its
+ * texture, either as colors or as palettes and shades, and how long it takes to
+ * capture the copy of a frame that is handed to the renderer when the
+ * simulation runs on its own thread. There is no window, so the renderer runs
+ * on the headless backend with a GL that does nothing. This measures the work
+ * done on the CPU to find and pack the changed cells, but not the upload
+ * itself. The scene is built again at the start of every iteration.
+ *
+ * @author Aiden Schroeder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawBenchmark {
+
+	/** Scene to draw */
+	@Param({ "SAND_PILE", "WATER_TANK", "LAVA_FLOW", "FOREST_FIRE", "STEEL_RUSTING" })
+	public Scene scene;
+
+	/** Number of rows of cells, the same as the game at its default size */
+	@Param({ "180" })
+	public int rows;
+
+	/** Number of columns of cells, the same as the game at its default size */
+	@Param({ "263" })
+	public int columns;
+
+	/** Number of rows and columns of cells in each chunk */
+	@Param({ "5" })
+	public int chunkSize;
+
+	/** Whether to measure a PaletteRenderer instead of a ColorRenderer */
+	@Param({ "false", "true" })
+	public boolean palette;
+
+	/** Application giving the renderer its GL */
+	private HeadlessApplication application;
+
+	/** Matrix holding the scene */
+	private CellularMatrix matrix;
+
+	/** Renderer being measured */
+	private MatrixRenderer renderer;
+
+	/** Snapshot sharing the cells of the matrix, which the renderer draws */
+	private FrameSnapshot snapshot;
+
+	/** Snapshot copying the cells of the matrix */
+	private FrameSnapshot copy;
+
+	@Setup(Level.Trial)
+	public void createApplication() {
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.updatesPerSecond = -1;
+		application = new HeadlessApplication(new ApplicationAdapter() {
+		}, config);
+		if (Gdx.gl == null) {
+			Gdx.gl = Gdx.gl20 = new MockGL20();
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void buildScene() {
+		matrix = scene.create(rows, columns, chunkSize);
+		renderer = palette ? new PaletteRenderer(matrix) : new ColorRenderer(matrix);
+		snapshot = new FrameSnapshot(matrix, true);
+		copy = new FrameSnapshot(matrix, false);
+		snapshot.capture();
+		renderer.update(snapshot);
+	}
+
+	@TearDown(Level.Iteration)
+	public void disposeRenderer() {
+		renderer.dispose();
+	}
+
+	@TearDown(Level.Trial)
+	public void exitApplication() {
+		application.exit();
+	}
+
+	/**
+	 * Uploads every cell of the matrix, as happens after the matrix is cleared or
+	 * most of it changed
+	 */
+	@Benchmark
+	public void drawAll() {
+		renderer.invalidate();
+		renderer.update(snapshot);
+	}
+
+	/**
+	 * Uploads the cells that changed in the last frame of the scene
+	 *
+	 * @param frame the scene after one more frame has been updated
+	 */
+	@Benchmark
+	public void drawFrame(Frame frame) {
+		renderer.update(snapshot);
+	}
+
+	/**
+	 * Copies every cell of the matrix into a snapshot, as the simulation thread
+	 * does after every tick
+	 *
+	 * @return the snapshot
+	 */
+	@Benchmark
+	public FrameSnapshot captureCopy() {
+		copy.capture();
+		return copy;
+	}
+
+	/**
+	 * Updates one frame of the scene before each call of drawFrame(), so that only
+	 * the drawing is measured
+	 */
+	@State(Scope.Thread)
+	public static class Frame {
+
+		@Setup(Level.Invocation)
+		public void updateFrame(DrawBenchmark benchmark) {
+			benchmark.matrix.stepChunks();
+			benchmark.matrix.updateFrame();
+			benchmark.snapshot.capture();
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.aidenx11.JavaPixelPhysics.benchmarks;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
+
+/**
+ * Canonical scenes used to benchmark the simulation. Each scene is laid out as
+ * fractions of the size of the matrix, so it looks the same at any size. Row 0
+ * is the bottom of the matrix.
+ *
+ * @author Aiden Schroeder
+ */
+public enum Scene {
+
+	/** A block of sand falling onto a stone floor and piling up */
+	SAND_PILE {
+		@Override
+		void build(CellularMatrix matrix) {
+			floor(matrix, ElementTypes.STONE);
+			fill(matrix, ElementTypes.SAND, 0.5f, 0.95f, 0.35f, 0.65f);
+		}
+	},
+
+	/** A stone tank with a block of water falling into it and sloshing around */
+	WATER_TANK {
+		@Override
+		void build(CellularMatrix matrix) {
+			floor(matrix, ElementTypes.STONE);
+			fill(matrix, ElementTypes.STONE, 0, 0.5f, 0.1f, 0.12f);
+			fill(matrix, ElementTypes.STONE, 0, 0.5f, 0.88f, 0.9f);
+			fill(matrix, ElementTypes.WATER, 0.4f, 0.9f, 0.12f, 0.5f);
+		}
+	},
+
+	/**
+	 * Lava flowing down a stone slope into a pool of water, cooling into obsidian
+	 * and boiling the water into steam
+	 */
+	LAVA_FLOW {
+		@Override
+		void build(CellularMatrix matrix) {
+			floor(matrix, ElementTypes.STONE);
+			for (int i = 0; i < 8; i++) {
+				fill(matrix, ElementTypes.STONE, 0, 0.4f - i * 0.05f, i * 0.05f, (i + 1) * 0.05f);
+			}
+			fill(matrix, ElementTypes.WATER, 0, 0.2f, 0.5f, 1);
+			fill(matrix, ElementTypes.LAVA, 0.45f, 0.75f, 0, 0.2f);
+		}
+	},
+
+	/** A row of trees on dirt that catch fire from one end */
+	FOREST_FIRE {
+		@Override
+		void build(CellularMatrix matrix) {
+			floor(matrix, ElementTypes.DIRT);
+			for (float column = 0.05f; column < 0.95f; column += 0.1f) {
+				fill(matrix, ElementTypes.WOOD, 0, 0.45f, column, column + 0.02f);
+				fill(matrix, ElementTypes.LEAF, 0.35f, 0.55f, column - 0.04f, column + 0.06f);
+			}
+			fill(matrix, ElementTypes.FIRE, 0.1f, 0.2f, 0.03f, 0.05f);
+		}
+	},
+
+	/**
+	 * A steel plate under a layer of water, rusting outwards from a few spots of
+	 * rust. Most of the plate is asleep, so this mostly measures asleep cells.
+	 */
+	STEEL_RUSTING {
+		@Override
+		void build(CellularMatrix matrix) {
+			fill(matrix, ElementTypes.STEEL, 0, 0.3f, 0, 1);
+			fill(matrix, ElementTypes.WATER, 0.3f, 0.4f, 0, 1);
+			for (float column = 0.1f; column < 1; column += 0.2f) {
+				fill(matrix, ElementTypes.RUST, 0.28f, 0.3f, column, column + 0.01f);
+			}
+		}
+	};
+
+	/**
+	 * Places the elements of this scene in the given empty matrix
+	 *
+	 * @param matrix matrix to build the scene in
+	 */
+	abstract void build(CellularMatrix matrix);
+
+	/** Seed of the matrix of every scene */
+	private static final long SEED = 0x5EED;
+
+	/**
+	 * Creates a matrix of the given size holding this scene. The matrix is always
+	 * given the same seed, so every run of a benchmark plays the scene out the same
+	 * way.
+	 *
+	 * @param rows      number of rows of cells
+	 * @param columns   number of columns of cells
+	 * @param chunkSize number of rows and columns of cells in each chunk
+	 * @return the new matrix
+	 */
+	public CellularMatrix create(int rows, int columns, int chunkSize) {
+		CellularMatrix matrix = new CellularMatrix(rows, columns, chunkSize);
+		matrix.setSeed(SEED);
+		this.build(matrix);
+		return matrix;
+	}
+
+	/**
+	 * Fills the bottom rows of the matrix with the given type
+	 *
+	 * @param matrix matrix to fill
+	 * @param type   type of element to fill with
+	 */
+	private static void floor(CellularMatrix matrix, ElementTypes type) {
+		fill(matrix, type, 0, 0.02f, 0, 1);
+	}
+
+	/**
+	 * Fills the given region of the matrix with the given type. The region is
+	 * given as fractions of the rows and columns of the matrix, and is clamped to
+	 * the matrix.
+	 *
+	 * @param matrix      matrix to fill
+	 * @param type        type of element to fill with
+	 * @param firstRow    fraction of the rows where the region starts
+	 * @param lastRow     fraction of the rows where the region ends
+	 * @param firstColumn fraction of the columns where the region starts
+	 * @param lastColumn  fraction of the columns where the region ends
+	 */
+	private static void fill(CellularMatrix matrix, ElementTypes type, float firstRow, float lastRow,
+			float firstColumn, float lastColumn) {
+		int rowStart = Math.max((int) (firstRow * matrix.getRows()), 0);
+		int rowEnd = Math.min((int) Math.ceil(lastRow * matrix.getRows()), matrix.getRows());
+		int columnStart = Math.max((int) (firstColumn * matrix.getColumns()), 0);
+		int columnEnd = Math.min((int) Math.ceil(lastColumn * matrix.getColumns()), matrix.getColumns());
+
+		for (int row = rowStart; row < rowEnd; row++) {
+			for (int column = columnStart; column < columnEnd; column++) {
+				matrix.setNewElement(row, column, type);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.aidenx11.JavaPixelPhysics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.parallel.ParallelFrameUpdater;
+
+/**
+ * Measures how many frames of each scene can be simulated per second. The
+ * scene is built again at the start of every iteration, so each iteration
+ * follows the scene from the same starting point as it evolves, the same way it
+ * would in the game.
+ *
+ * @author Aiden Schroeder
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateFrameBenchmark {
+
+	/** Scene to simulate */
+	@Param({ "SAND_PILE", "WATER_TANK", "LAVA_FLOW", "FOREST_FIRE", "STEEL_RUSTING" })
+	public Scene scene;
+
+	/** Number of rows of cells, the same as the game at its default size */
+	@Param({ "180" })
+	public int rows;
+
+	/** Number of columns of cells, the same as the game at its default size */
+	@Param({ "263" })
+	public int columns;
+
+	/** Number of rows and columns of cells in each chunk */
+	@Param({ "5" })
+	public int chunkSize;
+
+	/** Number of threads to update the matrix on */
+	@Param({ "1" })
+	public int threads;
+
+	/** Matrix holding the scene */
+	private CellularMatrix matrix;
+
+	/** Updater used when more than one thread is used */
+	private ParallelFrameUpdater frameUpdater;
+
+	@Setup(Level.Trial)
+	public void createUpdater() {
+		if (threads > 1) {
+			frameUpdater = new ParallelFrameUpdater(threads);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void buildScene() {
+		matrix = scene.create(rows, columns, chunkSize);
+		matrix.setFrameUpdater(frameUpdater);
+	}
+
+	@TearDown(Level.Trial)
+	public void disposeUpdater() {
+		if (frameUpdater != null) {
+			frameUpdater.dispose();
+		}
+	}
+
+	/**
+	 * Updates one frame of the scene and steps the chunks on to the next frame, as
+	 * the game does every frame
+	 */
+	@Benchmark
+	public void updateFrame() {
+		matrix.updateFrame();
+		matrix.stepChunks();
+	}
+
+}
@@ -0,0 +1,324 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import java.util.Arrays;
+
+/**
+ * Stores the state of every cell in a CellularMatrix. Instead of keeping one
+ * Element object per cell, each property of a cell is kept in its own flat
+ * primitive array. A cell is found in every array at the index row * columns +
+ * column, so scanning a row or a neighborhood reads contiguous memory.
+ *
+ * Properties that are the same for every cell of a given type (density,
+ * acceleration, etc.) are not stored here. They are read from the Element of
+ * that type instead.
+ *
+ * @author Aiden Schroeder
+ */
+public class CellGrid {
+
+	/** Flag set when the cell is on fire */
+	public static final byte ON_FIRE = 1;
+
+	/** Flag set when the cell has a limited lifetime */
+	public static final byte LIMITED_LIFE = 1 << 1;
+
+	/** Flag set when the cell is free falling */
+	public static final byte FREE_FALLING = 1 << 2;
+
+	/** Flag set when the cell is falling through air */
+	public static final byte FALLING_THROUGH_AIR = 1 << 3;
+
+	/** Flag set when the cell extinguishes other cells */
+	public static final byte EXTINGUISHES = 1 << 4;
+
+	/** Number of rows in the grid */
+	final int rows;
+
+	/** Number of columns in the grid */
+	final int columns;
+
+	/** Element type of each cell, stored as the ordinal of its ElementTypes */
+	final byte[] types;
+
+	/** Vertical velocity of each cell */
+	final float[] verticalVelocity;
+
+	/** Horizontal velocity of each cell */
+	final float[] horizontalVelocity;
+
+	/**
+	 * Remaining lifetime of each cell, in frames. While a cell has limited life,
+	 * this is the stamp of the last frame of its life instead, so that it does
+	 * not have to be counted down every frame.
+	 */
+	final int[] lifetime;
+
+	/** Temperature of each cell */
+	final float[] temperature;
+
+	/**
+	 * Temperature of each cell when heat last started being conducted. Heat is
+	 * conducted from these values, so the result does not depend on the order
+	 * the cells are visited in.
+	 */
+	final float[] previousTemperature;
+
+	/** Boolean state of each cell, packed as the flags defined above */
+	final byte[] flags;
+
+	/** Direction each cell is moving. -1 is left, 1 is right, 0 is neither */
+	final byte[] direction;
+
+	/**
+	 * Color of each cell, packed as RGBA8888 so it can be copied straight into a
+	 * texture. Cells that were never colored, such as Empty cells, are 0, which is
+	 * transparent.
+	 */
+	final int[] colors;
+
+	/**
+	 * Palette and shade each cell was colored with, with the id of the palette in
+	 * the high byte and the index of the shade in the low byte. Cells that were
+	 * never colored are 0.
+	 */
+	final short[] shades;
+
+	/**
+	 * Stamp of the frame each cell was last updated in. Moves along with the cell,
+	 * so a cell that moves into a part of the grid that has not been updated yet
+	 * is not updated twice in one frame.
+	 */
+	final int[] stamps;
+
+	/** Stamp of the frame being updated. Every earlier frame has a lower stamp */
+	private int stamp;
+
+	/**
+	 * Creates a grid of the given size with every cell set to the given type and
+	 * all other properties set to zero.
+	 *
+	 * @param rows      number of rows
+	 * @param columns   number of columns
+	 * @param emptyType type id to fill the grid with
+	 */
+	public CellGrid(int rows, int columns, byte emptyType) {
+		this.rows = rows;
+		this.columns = columns;
+		int size = rows * columns;
+		types = new byte[size];
+		verticalVelocity = new float[size];
+		horizontalVelocity = new float[size];
+		lifetime = new int[size];
+		temperature = new float[size];
+		previousTemperature = new float[size];
+		flags = new byte[size];
+		direction = new byte[size];
+		colors = new int[size];
+		shades = new short[size];
+		stamps = new int[size];
+		clear(emptyType);
+	}
+
+	/**
+	 * @return the number of rows in the grid
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return the number of columns in the grid
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Starts a new frame, after which no cell has been updated in the current
+	 * frame
+	 */
+	public void nextStamp() {
+		stamp++;
+	}
+
+	/**
+	 * @return the stamp of the frame being updated
+	 */
+	public int getStamp() {
+		return stamp;
+	}
+
+	/**
+	 * Saves the temperature of the given cells of a row as their previous
+	 * temperature, before heat is conducted
+	 *
+	 * @param row         row of the cells
+	 * @param firstColumn first column to save
+	 * @param lastColumn  column after the last column to save
+	 */
+	public void saveTemperatures(int row, int firstColumn, int lastColumn) {
+		int start = index(row, firstColumn);
+		System.arraycopy(temperature, start, previousTemperature, start, lastColumn - firstColumn);
+	}
+
+	/**
+	 * Returns whether the cell at the given index has not been updated yet this
+	 * frame, and marks it as updated
+	 *
+	 * @param index index of the cell
+	 * @return true if the cell had not been updated yet this frame
+	 */
+	public boolean stamp(int index) {
+		if (stamps[index] == stamp) {
+			return false;
+		}
+		stamps[index] = stamp;
+		return true;
+	}
+
+	/**
+	 * Returns the index of the given cell in each of the arrays of this grid
+	 *
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the index of the cell
+	 */
+	public int index(int row, int column) {
+		return row * columns + column;
+	}
+
+	/**
+	 * Sets every cell to the given type and resets all other properties to zero
+	 *
+	 * @param emptyType type id to fill the grid with
+	 */
+	public void clear(byte emptyType) {
+		Arrays.fill(types, emptyType);
+		Arrays.fill(verticalVelocity, 0f);
+		Arrays.fill(horizontalVelocity, 0f);
+		Arrays.fill(lifetime, 0);
+		Arrays.fill(temperature, 0f);
+		Arrays.fill(flags, (byte) 0);
+		Arrays.fill(direction, (byte) 0);
+		Arrays.fill(colors, 0);
+		Arrays.fill(shades, (short) 0);
+		Arrays.fill(stamps, stamp - 1);
+	}
+
+	/**
+	 * Resets every property of the cell at the given index to the given type with
+	 * all other properties set to zero. The new cell has not been updated yet this
+	 * frame.
+	 *
+	 * @param index index of the cell
+	 * @param type  type id to set
+	 */
+	public void reset(int index, byte type) {
+		types[index] = type;
+		verticalVelocity[index] = 0f;
+		horizontalVelocity[index] = 0f;
+		lifetime[index] = 0;
+		temperature[index] = 0f;
+		flags[index] = 0;
+		direction[index] = 0;
+		colors[index] = 0;
+		shades[index] = 0;
+		stamps[index] = stamp - 1;
+	}
+
+	/**
+	 * Swaps every property of the cells at the two given indices
+	 *
+	 * @param a index of the first cell
+	 * @param b index of the second cell
+	 */
+	public void swap(int a, int b) {
+		byte tempType = types[a];
+		types[a] = types[b];
+		types[b] = tempType;
+
+		float tempVelocity = verticalVelocity[a];
+		verticalVelocity[a] = verticalVelocity[b];
+		verticalVelocity[b] = tempVelocity;
+
+		tempVelocity = horizontalVelocity[a];
+		horizontalVelocity[a] = horizontalVelocity[b];
+		horizontalVelocity[b] = tempVelocity;
+
+		int tempLifetime = lifetime[a];
+		lifetime[a] = lifetime[b];
+		lifetime[b] = tempLifetime;
+
+		float tempTemperature = temperature[a];
+		temperature[a] = temperature[b];
+		temperature[b] = tempTemperature;
+
+		byte tempByte = flags[a];
+		flags[a] = flags[b];
+		flags[b] = tempByte;
+
+		tempByte = direction[a];
+		direction[a] = direction[b];
+		direction[b] = tempByte;
+
+		int tempColor = colors[a];
+		colors[a] = colors[b];
+		colors[b] = tempColor;
+
+		short tempShade = shades[a];
+		shades[a] = shades[b];
+		shades[b] = tempShade;
+
+		int tempStamp = stamps[a];
+		stamps[a] = stamps[b];
+		stamps[b] = tempStamp;
+	}
+
+	/**
+	 * Copies every property of a cell in another grid into a cell in this grid.
+	 * The copy has not been updated yet this frame.
+	 *
+	 * @param index       index of the cell in this grid
+	 * @param other       grid to copy from
+	 * @param otherIndex  index of the cell in the other grid
+	 */
+	public void copy(int index, CellGrid other, int otherIndex) {
+		types[index] = other.types[otherIndex];
+		verticalVelocity[index] = other.verticalVelocity[otherIndex];
+		horizontalVelocity[index] = other.horizontalVelocity[otherIndex];
+		lifetime[index] = other.lifetime[otherIndex];
+		temperature[index] = other.temperature[otherIndex];
+		flags[index] = other.flags[otherIndex];
+		direction[index] = other.direction[otherIndex];
+		colors[index] = other.colors[otherIndex];
+		shades[index] = other.shades[otherIndex];
+		stamps[index] = stamp - 1;
+	}
+
+	/**
+	 * Returns whether the given flag is set for the cell at the given index
+	 *
+	 * @param index index of the cell
+	 * @param flag  flag to check
+	 * @return true if the flag is set
+	 */
+	public boolean hasFlag(int index, byte flag) {
+		return (flags[index] & flag) != 0;
+	}
+
+	/**
+	 * Sets or clears the given flag for the cell at the given index
+	 *
+	 * @param index index of the cell
+	 * @param flag  flag to set
+	 * @param value whether the flag should be set or cleared
+	 */
+	public void setFlag(int index, byte flag, boolean value) {
+		if (value) {
+			flags[index] |= flag;
+		} else {
+			flags[index] &= ~flag;
+		}
+	}
+
+}
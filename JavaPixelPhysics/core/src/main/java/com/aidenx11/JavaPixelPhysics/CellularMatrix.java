@@ -1,6 +1,11 @@
 package com.aidenx11.JavaPixelPhysics;
 
+import java.util.Arrays;
+
+import com.aidenx11.JavaPixelPhysics.color.CustomColor;
+import com.aidenx11.JavaPixelPhysics.color.Palette;
 import com.aidenx11.JavaPixelPhysics.elements.Element;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
 import com.aidenx11.JavaPixelPhysics.elements.Empty;
 import com.aidenx11.JavaPixelPhysics.elements.Void;
 import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
@@ -21,36 +26,146 @@ import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_
 import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid.WetSand;
 import com.badlogic.gdx.graphics.Color;
 
-import space.earlygrey.shapedrawer.ShapeDrawer;
-
 /**
  * Manages the matrix that contains all elements to be drawn to the screen.
  * Keeps track of its number of rows and columns, the pixelSizeModifier, and the
- * matrix itself which is a 2D array of elements with size corresponding to the
- * number of rows and columns.
+ * grid of cells itself. The state of each cell is stored in a CellGrid, and the
+ * behavior of each cell is provided by the Element instance of its type in this
+ * matrix.
+ * 
+ * The matrix does not depend on anything being drawn. Its size is given in
+ * cells, and it can be stepped with tick() without a window or GL context, for
+ * example to run simulations on a server or to measure how fast they run.
+ * 
+ * Every random choice made while updating the matrix comes from its FastRandom.
+ * Each chunk draws from its own stream, seeded every frame from the seed of the
+ * matrix, the number of the frame and the position of the chunk. Giving the
+ * matrix a seed with setSeed() therefore makes the same cells and the same
+ * input run the same way every time, as long as the matrix is always updated
+ * the same way. Updating it on the calling thread gives different results than
+ * updating it with a ParallelFrameUpdater, which updates the chunks in phases
+ * and keeps each cell inside the window of its tile. Runs with a
+ * ParallelFrameUpdater give the same results on any number of threads.
  * 
  * @author Aiden Schroeder
  */
 public class CellularMatrix {
 
-	/** Number of rows in the matrix */
-	public static int rows;
+	/** Acceleration due to gravity. Used in movable elements */
+	public static final float GRAVITY_ACCELERATION = 0.1f;
+
+	/**
+	 * Row offsets of the adjacent cells in the order returned by
+	 * getAdjacentElements()
+	 */
+	public static final int[] adjacentRowOffsets = new int[] { 1, 1, 1, 0, 0, -1, -1, -1 };
+
+	/**
+	 * Column offsets of the adjacent cells in the order returned by
+	 * getAdjacentElements()
+	 */
+	public static final int[] adjacentColumnOffsets = new int[] { -1, 0, 1, -1, 1, -1, 0, 1 };
+
+	/** Type id of the Empty element */
+	private static final byte EMPTY = (byte) ElementTypes.EMPTY.ordinal();
+
+	/** Every element type, indexed by its type id */
+	private static final ElementTypes[] TYPES = ElementTypes.values();
+
+	/**
+	 * One Element per ElementTypes shared by every cell of this matrix, indexed by
+	 * the type's ordinal
+	 */
+	private final Element[] elements;
+
+	/**
+	 * Immutable description of each element type in this matrix, indexed by the
+	 * type's ordinal
+	 */
+	private final ElementDescriptor[] descriptors;
+
+	/** Conductivity of each element type, indexed by the type's ordinal */
+	private final float[] conductivities;
+
+	/** The state of every cell in the matrix */
+	private final CellGrid grid;
+
+	/** Keeps track of which chunks of the matrix need to be updated */
+	private final ChunkMap chunks;
+
+	/** Finds the cells that end the fall of a falling element in each column */
+	private final ColumnIndex columnIndex;
+
+	/** Frames the lives of the cells with limited life end on */
+	private final TimingWheel lifetimes;
+
+	/**
+	 * Number of cells of elements that conduct heat in each chunk, indexed by
+	 * chunk row and then chunk column. Heat is only conducted in the chunks that
+	 * have any.
+	 */
+	private final int[] conductors;
+
+	/** Pixel size modifier of the matrix, used when it is drawn */
+	private int pixelSizeModifier = 1;
+
+	/** Number of frames updated since the matrix was created or seeded */
+	private long frame;
 
-	/** Number of columns in the matrix */
-	public static int columns;
+	/** Seed of the matrix, which the stream of each chunk is seeded from */
+	private long seed;
 
-	/** Pixel size modifier of the matrix */
-	public static int pixelSizeModifier;
+	/** Updates the matrix each frame, or null to update it on the calling thread */
+	private FrameUpdater frameUpdater;
 
-	private static Chunk[][] chunkMatrix;
+	/** Source of every random number used while updating this matrix */
+	private final FastRandom random = new FastRandom();
 
-	private static int chunkSize;
+	/**
+	 * State of the random number stream of each chunk during the current frame,
+	 * indexed by chunk row and then chunk column
+	 */
+	private final long[] chunkStreams;
 
-	/** The matrix itself. Stores elements */
-	private Element[][] matrix;
+	/**
+	 * Array returned by getAdjacentElements(), reused by every call so that
+	 * looking at the cells around a cell does not allocate
+	 */
+	private final Element[] adjacentElements = new Element[8];
 
-	/** Keeps track of the direction to update each row in updateFrame() */
-	private boolean direction = true;
+	/**
+	 * Generates an empty matrix with the given rows and columns of cells. Every
+	 * matrix is its own world with its own cells, chunks and elements, so several
+	 * matrices can be updated at once on different threads.
+	 * 
+	 * @param rows      number of rows
+	 * @param columns   number of columns
+	 * @param chunkSize number of rows and columns of cells in each chunk
+	 */
+	public CellularMatrix(int rows, int columns, int chunkSize) {
+		if (rows < 0 || columns < 0) {
+			throw new IllegalArgumentException("Matrix size cannot be negative: " + rows + "x" + columns);
+		}
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be at least 1: " + chunkSize);
+		}
+		this.elements = createElements();
+		this.descriptors = createDescriptors(elements);
+		this.conductivities = new float[descriptors.length];
+		for (int i = 0; i < descriptors.length; i++) {
+			conductivities[i] = descriptors[i].getConductivity();
+		}
+		this.grid = new CellGrid(rows, columns, EMPTY);
+		this.chunks = new ChunkMap(rows, columns, chunkSize);
+		this.columnIndex = new ColumnIndex(rows, columns, chunkSize, descriptors);
+		this.indexColumns();
+		this.conductors = new int[chunks.getChunkRows() * chunks.getChunkColumns()];
+		this.countConductors();
+		this.lifetimes = new TimingWheel();
+		this.chunkStreams = new long[chunks.getChunkRows() * chunks.getChunkColumns()];
+		this.seed = random.nextLong();
+		chunks.enableAll();
+	}
 
 	/**
 	 * Generates a matrix with the given rows and columns, with a pixel size
@@ -59,248 +174,662 @@ public class CellularMatrix {
 	 * @param rows              number of rows
 	 * @param columns           number of columns
 	 * @param pixelSizeModifier size of the pixels
+	 * @param chunkSize         number of rows and columns of cells in each chunk
 	 */
 	public CellularMatrix(int rows, int columns, int pixelSizeModifier, int chunkSize) {
-		CellularMatrix.rows = rows;
-		CellularMatrix.columns = columns;
-		CellularMatrix.pixelSizeModifier = pixelSizeModifier;
-		CellularMatrix.chunkSize = pixelSizeModifier * chunkSize;
-		this.matrix = generateMatrix();
-
+		this(rows, columns, chunkSize);
+		this.pixelSizeModifier = pixelSizeModifier;
 	}
 
 	/**
-	 * Generates a matrix based on the rows and columns of this matrix and
-	 * initializes all values to empty elements.
+	 * Creates a matrix that shares the cells, chunks and elements of the given
+	 * matrix. Used by subclasses that restrict which cells can be seen while
+	 * updating part of the matrix. The new matrix has its own random number
+	 * generator, so it can be updated on a different thread than the given one.
 	 * 
-	 * @return the empty matrix
+	 * @param matrix matrix whose cells are shared
 	 */
-	private Element[][] generateMatrix() {
-
-		resetChunks();
+	protected CellularMatrix(CellularMatrix matrix) {
+		this.elements = matrix.elements;
+		this.descriptors = matrix.descriptors;
+		this.conductivities = matrix.conductivities;
+		this.grid = matrix.grid;
+		this.chunks = matrix.chunks;
+		this.columnIndex = matrix.columnIndex;
+		this.lifetimes = matrix.lifetimes;
+		this.conductors = matrix.conductors;
+		this.chunkStreams = matrix.chunkStreams;
+		this.pixelSizeModifier = matrix.pixelSizeModifier;
+	}
 
-		Element[][] array = new Element[rows][columns];
-		for (int y = 0; y < rows; y++) {
-			for (int x = 0; x < columns; x++) {
-				array[y][x] = new Empty(y, x);
+	/**
+	 * Creates the instance of each element type used by every cell of that type in
+	 * one matrix.
+	 * 
+	 * @return array of elements indexed by the ordinal of their ElementTypes
+	 */
+	private static Element[] createElements() {
+		ElementTypes[] types = ElementTypes.values();
+		Element[] array = new Element[types.length];
+
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case EMPTY:
+				array[i] = new Empty();
+				break;
+			case FIRE:
+				array[i] = new Fire();
+				break;
+			case SAND:
+				array[i] = new Sand();
+				break;
+			case SMOKE:
+				array[i] = new Smoke();
+				break;
+			case WOOD:
+				array[i] = new Wood();
+				break;
+			case WATER:
+				array[i] = new Water();
+				break;
+			case STEAM:
+				array[i] = new Steam();
+				break;
+			case WET_SAND:
+				array[i] = new WetSand();
+				break;
+			case LEAF:
+				array[i] = new Leaf();
+				break;
+			case DIRT:
+				array[i] = new Dirt();
+				break;
+			case WET_DIRT:
+				array[i] = new WetDirt();
+				break;
+			case STONE:
+				array[i] = new Stone();
+				break;
+			case LAVA:
+				array[i] = new Lava();
+				break;
+			case OBSIDIAN:
+				array[i] = new Obsidian();
+				break;
+			case STEEL:
+				array[i] = new Steel();
+				break;
+			case RUST:
+				array[i] = new Rust();
+				break;
+			case VOID:
+				array[i] = new Void();
+				break;
+			default:
+				break;
 			}
 		}
 
 		return array;
 	}
 
-	public static void resetChunks() {
-		chunkMatrix = new Chunk[PixelPhysicsGame.SCREEN_HEIGHT / chunkSize
-				+ chunkSize][(PixelPhysicsGame.SCREEN_WIDTH - PixelPhysicsGame.uiOffset) / chunkSize + chunkSize];
+	/**
+	 * Copies the properties of each element into an immutable descriptor of its
+	 * type, so the update loop can read them by type id.
+	 * 
+	 * @param elements elements indexed by the ordinal of their ElementTypes
+	 * @return array of descriptors indexed by the ordinal of their ElementTypes
+	 */
+	private static ElementDescriptor[] createDescriptors(Element[] elements) {
+		ElementDescriptor[] array = new ElementDescriptor[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			array[i] = new ElementDescriptor(elements[i]);
+		}
+		return array;
+	}
 
-		for (int i = 0; i < chunkMatrix.length; i++) {
-			for (int j = 0; j < chunkMatrix[i].length; j++) {
-				chunkMatrix[i][j] = new Chunk();
-				chunkMatrix[i][j].enableChunk();
-			}
+	/**
+	 * Returns the element shared by all cells of the given type in this matrix
+	 * 
+	 * @param type type of element
+	 * @return the element of the given type
+	 */
+	public Element getElementOfType(ElementTypes type) {
+		return elements[type.ordinal()];
+	}
+
+	/**
+	 * Returns the descriptor of the given element type
+	 * 
+	 * @param type type of element
+	 * @return the descriptor of the type
+	 */
+	public ElementDescriptor getDescriptor(ElementTypes type) {
+		return descriptors[type.ordinal()];
+	}
+
+	/**
+	 * Returns the descriptor of the type of the given cell
+	 * 
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the descriptor of the cell's type, or null if the cell is out of
+	 *         bounds
+	 */
+	public ElementDescriptor getDescriptor(int row, int column) {
+		if (row < 0 || row >= grid.rows || column < 0 || column >= grid.columns) {
+			return null;
 		}
+		return descriptors[grid.types[grid.index(row, column)]];
+	}
 
+	/**
+	 * Returns the type of the given cell
+	 * 
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the type of the cell, or null if the cell is out of bounds
+	 */
+	public ElementTypes getType(int row, int column) {
+		if (row < 0 || row >= grid.rows || column < 0 || column >= grid.columns) {
+			return null;
+		}
+		return TYPES[grid.types[grid.index(row, column)]];
 	}
 
-	public static void stepChunks() {
-		for (int i = 0; i < chunkMatrix.length; i++) {
-			for (int j = 0; j < chunkMatrix[i].length; j++) {
-				chunkMatrix[i][j].stepChunk();
-			}
+	/**
+	 * Returns the type of the nearest cell at or below the given cell whose type is
+	 * in the given group of the ColumnIndex. Used by falling elements to find out
+	 * whether they are falling through air without looking at every cell below
+	 * them.
+	 * 
+	 * @param row    row to start looking from
+	 * @param column column to look in
+	 * @param group  ColumnIndex group to look for
+	 * @return the type of the nearest cell in the group, or null if there is none
+	 */
+	public ElementTypes findBelow(int row, int column, int group) {
+		if (row < 0 || row >= grid.rows || column < 0 || column >= grid.columns) {
+			return null;
 		}
+		return this.findBelow(row, column, group, 0);
 	}
 
-	public static void drawChunks(ShapeDrawer sd) {
-		for (int i = 0; i < chunkMatrix.length; i++) {
-			for (int j = 0; j < chunkMatrix[i].length; j++) {
-				if (chunkMatrix[i][j].activeThisFrame) {
-					sd.setColor(Color.WHITE);
-					sd.rectangle(j * chunkSize, i * chunkSize, chunkSize, chunkSize);
-				} else if (chunkMatrix[i][j].activeNextFrame) {
-					sd.setColor(Color.RED);
-					sd.rectangle(j * chunkSize, i * chunkSize, chunkSize, chunkSize);
-				}
-			}
+	/**
+	 * Returns the type of the nearest cell between the given cell and the given
+	 * lowest row whose type is in the given group of the ColumnIndex
+	 * 
+	 * @param row       row to start looking from
+	 * @param column    column to look in
+	 * @param group     ColumnIndex group to look for
+	 * @param lowestRow lowest row to look at
+	 * @return the type of the nearest cell in the group, or null if there is none
+	 */
+	protected ElementTypes findBelow(int row, int column, int group, int lowestRow) {
+		int found = columnIndex.findBelow(group, row, column, lowestRow);
+		if (found < 0) {
+			return null;
 		}
+		return TYPES[grid.types[grid.index(found, column)]];
 	}
 
-	public static void activateChunk(int row, int col) {
-		boolean activateChunkLeft = false;
-		boolean activateChunkRight = false;
-		boolean activateChunkBelow = false;
-		boolean activateChunkAbove = false;
+	/**
+	 * Returns the source of random numbers of this matrix. Elements being updated
+	 * in the matrix must use it for every random choice, so that a seeded matrix
+	 * runs the same way every time. While a chunk is being updated, it draws from
+	 * the stream of that chunk.
+	 * 
+	 * @return the random number generator of this matrix
+	 */
+	public FastRandom getRandom() {
+		return random;
+	}
 
-//		System.out.println();
-//
-//		System.out.println("Row: " + row);
-//		System.out.println("Col: " + col);
+	/**
+	 * Seeds this matrix and starts counting frames over from zero. From then on,
+	 * the cells of the matrix and the input given to it decide everything that
+	 * happens in it.
+	 * 
+	 * @param seed seed of the matrix
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.frame = 0;
+		random.setSeed(seed);
+	}
 
-		int chunkRow = CellularMatrix.getChunkLocation(row, col)[0];
-		int chunkCol = CellularMatrix.getChunkLocation(row, col)[1];
+	/**
+	 * @return the seed of this matrix
+	 */
+	public long getSeed() {
+		return seed;
+	}
 
-//		System.out.println("ChunkCol: " + chunkCol);
-//
-//		System.out.println();
+	/**
+	 * @return the number of frames updated since the matrix was created or seeded
+	 */
+	public long getFrame() {
+		return frame;
+	}
 
-		if (chunkRow != Math.floor((float) (row + 1) / chunkSize * pixelSizeModifier)) {
-			activateChunkAbove = true;
-		}
-		if (chunkRow != Math.floor((float) (row - 1) / chunkSize * pixelSizeModifier)) {
-			activateChunkBelow = true;
-		}
-		if (chunkCol != Math.floor((float) (col - 1) / chunkSize * pixelSizeModifier)) {
-			activateChunkLeft = true;
-		}
-		if (chunkCol != Math.floor((float) (col + 1) / chunkSize * pixelSizeModifier)) {
-			activateChunkRight = true;
-		}
+	/**
+	 * Puts every chunk of the matrix to sleep and then marks them all to be fully
+	 * updated next frame
+	 */
+	public void resetChunks() {
+		chunks.reset();
+	}
 
-		chunkMatrix[chunkRow][chunkCol].activeThisFrame = true;
-		chunkMatrix[chunkRow][chunkCol].activeNextFrame = true;
-		chunkMatrix[chunkRow][chunkCol].activeInTwoFrames = true;
+	/**
+	 * Moves the chunks of the matrix on to the next frame
+	 */
+	public void stepChunks() {
+		chunks.step();
+	}
 
-		if (chunkCol - 1 > 0 && activateChunkLeft) {
-			chunkMatrix[chunkRow][chunkCol - 1].activeThisFrame = true;
-			chunkMatrix[chunkRow][chunkCol - 1].activeNextFrame = true;
-			chunkMatrix[chunkRow][chunkCol - 1].activeInTwoFrames = true;
-		}
-		if (chunkCol + 1 < chunkMatrix[0].length && activateChunkRight) {
-			chunkMatrix[chunkRow][chunkCol + 1].activeThisFrame = true;
-			chunkMatrix[chunkRow][chunkCol + 1].activeNextFrame = true;
-			chunkMatrix[chunkRow][chunkCol + 1].activeInTwoFrames = true;
-		}
-		if (chunkRow + 1 < chunkMatrix.length && activateChunkAbove) {
-			chunkMatrix[chunkRow + 1][chunkCol].activeThisFrame = true;
-			chunkMatrix[chunkRow + 1][chunkCol].activeNextFrame = true;
-			chunkMatrix[chunkRow + 1][chunkCol].activeInTwoFrames = true;
-		}
-		if (chunkRow - 1 > 0 && activateChunkBelow) {
-			chunkMatrix[chunkRow - 1][chunkCol].activeThisFrame = true;
-			chunkMatrix[chunkRow - 1][chunkCol].activeNextFrame = true;
-			chunkMatrix[chunkRow - 1][chunkCol].activeInTwoFrames = true;
-		}
+	/**
+	 * Moves the chunks of the matrix on to the next frame without the frame
+	 * having been drawn. The chunks that changed are marked to be drawn with the
+	 * next frame that is.
+	 */
+	public void skipChunks() {
+		chunks.keepChanges();
+		chunks.step();
+	}
 
+	/**
+	 * Activates the chunk of the given cell, marking the cell and the cells around
+	 * it as dirty for this frame and the next two. If the cell is on the edge of
+	 * its chunk, the neighboring chunk is activated as well, with the cells next to
+	 * the edge marked as dirty.
+	 * 
+	 * @param row row of the cell
+	 * @param col column of the cell
+	 */
+	public void activateChunk(int row, int col) {
+		chunks.activate(row, col);
+	}
+
+	/**
+	 * @return the chunks of the matrix
+	 */
+	public ChunkMap getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * @return the number of rows and columns of cells in each chunk
+	 */
+	public int getChunkSize() {
+		return chunks.getCellsPerChunk();
+	}
+
+	/**
+	 * @return the number of rows of cells in this matrix
+	 */
+	public int getRows() {
+		return grid.rows;
 	}
 
-	public static Chunk getChunk(int row, int col) {
-		int chunkRow = (int) Math.floor((float) row / chunkSize * pixelSizeModifier);
-		int chunkCol = (int) Math.floor((float) col / chunkSize * pixelSizeModifier);
-		return chunkMatrix[chunkRow][chunkCol];
+	/**
+	 * @return the number of columns of cells in this matrix
+	 */
+	public int getColumns() {
+		return grid.columns;
+	}
+
+	/**
+	 * @return the size of each cell in pixels when the matrix is drawn
+	 */
+	public int getPixelSizeModifier() {
+		return pixelSizeModifier;
 	}
 
-	public static int[] getChunkLocation(int row, int col) {
-		int chunkRow = (int) Math.floor((float) row / chunkSize * pixelSizeModifier);
-		int chunkCol = (int) Math.floor((float) col / chunkSize * pixelSizeModifier);
-		return new int[] { chunkRow, chunkCol };
+	/**
+	 * Returns the grid holding the state of every cell in this matrix
+	 * 
+	 * @return the grid of this matrix
+	 */
+	public CellGrid getGrid() {
+		return grid;
 	}
 
 	/**
-	 * Returns the given row of the matrix
+	 * Returns the index of the given cell in the grid of this matrix
 	 * 
-	 * @param row row to return
-	 * @return returns the given row
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the index of the cell
 	 */
-	public Element[] getRow(int row) {
-		return matrix[row];
+	public int getIndex(int row, int column) {
+		return grid.index(row, column);
 	}
 
 	/**
-	 * Returns the current matrix
+	 * Returns the row of the cell at the given grid index
 	 * 
-	 * @return the current matrix
+	 * @param index index of the cell
+	 * @return the row of the cell
 	 */
-	public Element[][] getMatrix() {
-		return matrix;
+	public int getRowOfIndex(int index) {
+		return index / grid.columns;
+	}
+
+	/**
+	 * Returns the column of the cell at the given grid index
+	 * 
+	 * @param index index of the cell
+	 * @return the column of the cell
+	 */
+	public int getColumnOfIndex(int index) {
+		return index % grid.columns;
 	}
 
 	/**
 	 * Clears the current matrix
 	 */
 	public void clear() {
-		this.matrix = null;
-		this.matrix = generateMatrix();
-		System.gc();
+		resetChunks();
+		grid.clear(EMPTY);
+		lifetimes.clear();
+		this.indexColumns();
+		this.countConductors();
 	}
 
 	/**
-	 * Sets the given element to empty
-	 * 
-	 * @param element element to set empty
+	 * Sets every cell of the column index to the type the cell has
+	 */
+	private void indexColumns() {
+		for (int row = 0; row < grid.rows; row++) {
+			for (int col = 0; col < grid.columns; col++) {
+				columnIndex.setType(row, col, grid.types[grid.index(row, col)]);
+			}
+		}
+	}
+
+	/**
+	 * Counts the cells of elements that conduct heat in every chunk
 	 */
-	public void clearElement(Element element) {
-		this.setNewElement(element, ElementTypes.EMPTY);
+	private void countConductors() {
+		Arrays.fill(conductors, 0);
+		for (int row = 0; row < grid.rows; row++) {
+			for (int col = 0; col < grid.columns; col++) {
+				if (conductivities[grid.types[grid.index(row, col)]] != 0f) {
+					conductors[this.chunkOf(row, col)]++;
+				}
+			}
+		}
 	}
 
 	/**
-	 * Swaps 2 given elements in the matrix by using their corresponding row and
-	 * column coordinates.
+	 * Keeps the number of conducting cells of the chunk of the given cell up to
+	 * date when the type of the cell changes
+	 *
+	 * @param row     row of the cell
+	 * @param column  column of the cell
+	 * @param oldType type id the cell had
+	 * @param newType type id the cell has now
+	 */
+	private void changeConductors(int row, int column, byte oldType, byte newType) {
+		boolean conducted = conductivities[oldType] != 0f;
+		boolean conducts = conductivities[newType] != 0f;
+		if (conducted != conducts) {
+			conductors[this.chunkOf(row, column)] += conducts ? 1 : -1;
+		}
+	}
+
+	/**
+	 * Returns the index of the chunk of the given cell, counting along each row of
+	 * chunks
+	 *
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the index of the chunk
+	 */
+	private int chunkOf(int row, int column) {
+		int cellsPerChunk = chunks.getCellsPerChunk();
+		return (row / cellsPerChunk) * chunks.getChunkColumns() + column / cellsPerChunk;
+	}
+
+	/**
+	 * Copies as much of the given matrix into this matrix as fits, keeping each
+	 * cell at the same row and column. Every chunk is then marked to be fully
+	 * updated next frame, which wakes the copied cells and has them drawn again.
 	 * 
-	 * @param element1 first element to swap
-	 * @param element2 second element to swap
+	 * @param other matrix to copy from
 	 */
-	public void swap(Element element1, Element element2) {
-		int[] tempLocation = new int[] { element1.getRow(), element1.getColumn() };
-		element1.setRow(element2.getRow());
-		element1.setColumn(element2.getColumn());
-		element2.setRow(tempLocation[0]);
-		element2.setColumn(tempLocation[1]);
+	public void copyFrom(CellularMatrix other) {
+		int copyRows = Math.min(grid.rows, other.grid.rows);
+		int copyColumns = Math.min(grid.columns, other.grid.columns);
+		for (int row = 0; row < copyRows; row++) {
+			for (int col = 0; col < copyColumns; col++) {
+				int index = grid.index(row, col);
+				grid.copy(index, other.grid, other.grid.index(row, col));
+				if (grid.hasFlag(index, CellGrid.LIMITED_LIFE)) {
+					// The end of the life of the cell was stored in frames of the other matrix
+					grid.setFlag(index, CellGrid.LIMITED_LIFE, false);
+					grid.lifetime[index] = other.getLifetime(row, col);
+					this.setLimitedLife(row, col, true);
+				}
+			}
+		}
+		this.indexColumns();
+		this.countConductors();
+		chunks.enableAll();
+	}
 
-		tempLocation = null;
+	/**
+	 * Sets the given cell to empty
+	 * 
+	 * @param row    row of the cell to set empty
+	 * @param column column of the cell to set empty
+	 */
+	public void clearElement(int row, int column) {
+		this.setNewElement(row, column, ElementTypes.EMPTY);
+	}
 
-		this.setElement(element1);
-		this.setElement(element2);
+	/**
+	 * Swaps 2 given cells in the matrix, along with all of their state.
+	 * 
+	 * @param row1    row of the first cell to swap
+	 * @param column1 column of the first cell to swap
+	 * @param row2    row of the second cell to swap
+	 * @param column2 column of the second cell to swap
+	 */
+	public void swap(int row1, int column1, int row2, int column2) {
+		int index1 = grid.index(row1, column1);
+		int index2 = grid.index(row2, column2);
+		byte type1 = grid.types[index1];
+		byte type2 = grid.types[index2];
+		grid.swap(index1, index2);
+		if (type1 != type2) {
+			columnIndex.changeType(row1, column1, type1, type2);
+			columnIndex.changeType(row2, column2, type2, type1);
+			this.changeConductors(row1, column1, type1, type2);
+			this.changeConductors(row2, column2, type2, type1);
+		}
 
-		CellularMatrix.activateChunk(element1.getRow(), element1.getColumn());
-		CellularMatrix.activateChunk(element2.getRow(), element2.getColumn());
+		this.activateChunk(row2, column2);
+		this.activateChunk(row1, column1);
 	}
 
 	/**
-	 * Retrieves an element from the matrix based on its row and column.
+	 * Retrieves the element at the given row and column of the matrix.
 	 * 
-	 * @param row    row of the element being retrieved
-	 * @param column column of the element being retrieved
-	 * @return
+	 * @param row      row of the element being retrieved
+	 * @param column   column of the element being retrieved
+	 * @param checkRow whether to return null if the row is out of bounds
+	 * @param checkCol whether to return null if the column is out of bounds
+	 * @return the element at the given location, or null if it is out of bounds
 	 */
 	public Element getElement(int row, int column, boolean checkRow, boolean checkCol) {
 		if (checkRow) {
-			if (row < 0 || row >= rows) {
+			if (row < 0 || row >= grid.rows) {
 				return null;
 			}
 		}
 
 		if (checkCol) {
-			if (column < 0 || column >= columns) {
+			if (column < 0 || column >= grid.columns) {
 				return null;
 			}
 		}
 
-		return matrix[row][column];
+		return elements[grid.types[grid.index(row, column)]];
+	}
+
+	/**
+	 * Sets the given cell to a new element of the given type, resetting all of its
+	 * state. Returns the element of the new type.
+	 * 
+	 * @param row        row of the cell to change
+	 * @param column     column of the cell to change
+	 * @param newElement element type to change the cell to
+	 * @return the element of the new type
+	 */
+	public Element setNewElement(int row, int column, ElementTypes newElement) {
+
+		Element element = elements[newElement.ordinal()];
+		int index = grid.index(row, column);
+		byte newType = (byte) newElement.ordinal();
+		columnIndex.changeType(row, column, grid.types[index], newType);
+		this.changeConductors(row, column, grid.types[index], newType);
+		grid.reset(index, newType);
+		element.initialize(this, row, column);
+
+		this.activateChunk(row, column);
+
+		return element;
 	}
 
 	/**
-	 * Sets the given element at the element's corresponding row and column.
+	 * Updates the frame. Updates all positions of all elements in the matrix based
+	 * on their type using the element's update() method, and chooses the vertical
+	 * direction to update based on which way the element moves. The horizontal
+	 * update direction alternates every frame to create a more realistic
+	 * simulation, and the stream of every chunk is seeded for the new frame. Each
+	 * cell is updated at most once per frame, even if it moves into a part of the
+	 * matrix that has not been updated yet.
+	 * 
+	 * Once every cell has been updated, heat is conducted between the cells of
+	 * elements that conduct it, in the chunks that have any. If a FrameUpdater
+	 * has been set, both are handed to it. Otherwise the whole matrix is updated
+	 * on the calling thread. Afterwards, every cell whose life ends next frame
+	 * is woken so that it gets updated.
 	 * 
-	 * @param element element to set in the matrix
+	 * The chunks are not stepped on to the next frame, so that whatever draws the
+	 * matrix can still see which chunks changed. Call stepChunks() once it has
+	 * been drawn, or use tick() to do both.
 	 */
-	public void setElement(Element element) {
-		matrix[element.getRow()][element.getColumn()] = element;
-		CellularMatrix.activateChunk(element.getRow(), element.getColumn());
+	public void updateFrame() {
+
+		frame++;
+		boolean direction = (frame & 1) == 0;
+		this.seedChunkStreams();
+		grid.nextStamp();
+
+		if (frameUpdater != null) {
+			frameUpdater.updateFrame(this, direction);
+		} else {
+			this.updateRegion(0, grid.rows, 0, grid.columns, direction, true);
+			this.updateRegion(0, grid.rows, 0, grid.columns, direction, false);
+		}
+
+		if (this.saveTemperatures()) {
+			if (frameUpdater != null) {
+				frameUpdater.diffuseHeat(this);
+			} else {
+				this.diffuseHeat(0, grid.rows, 0, grid.columns);
+			}
+		}
+
+		lifetimes.expire(grid.getStamp() + 1, this);
 	}
 
 	/**
-	 * Draws the current matrix to the screen
+	 * Wakes the given cell if its life still ends by the frame before the given
+	 * frame. Called by the TimingWheel for every cell scheduled for that frame,
+	 * which may have moved or been replaced since it was scheduled.
 	 * 
-	 * @param shapeDrawer shape renderer that draws to viewport
+	 * @param index index of the cell
+	 * @param frame stamp of the frame the cell was scheduled for
 	 */
-	public void draw(ShapeDrawer shapeDrawer) {
-		for (int y = 0; y < rows; y++) {
-			for (int x = 0; x < columns; x++) {
-				if (!(matrix[y][x] instanceof Empty)) {
-					Element thisElement = matrix[y][x];
-					if (!(thisElement instanceof Empty)) {
-						shapeDrawer.setColor(thisElement.getColor());
-						shapeDrawer.filledRectangle(x * pixelSizeModifier, y * pixelSizeModifier, pixelSizeModifier,
-								pixelSizeModifier);
+	void wakeIfLifeEnds(int index, int frame) {
+		if (grid.hasFlag(index, CellGrid.LIMITED_LIFE) && grid.lifetime[index] - (frame - 1) <= 0) {
+			this.activateChunk(getRowOfIndex(index), getColumnOfIndex(index));
+		}
+	}
+
+	/**
+	 * Seeds the stream of every chunk for the current frame
+	 */
+	private void seedChunkStreams() {
+		int chunkColumns = chunks.getChunkColumns();
+		for (int chunkRow = 0; chunkRow < chunks.getChunkRows(); chunkRow++) {
+			for (int chunkColumn = 0; chunkColumn < chunkColumns; chunkColumn++) {
+				chunkStreams[chunkRow * chunkColumns + chunkColumn] = FastRandom.seedOf(seed, frame, chunkRow,
+						chunkColumn);
+			}
+		}
+	}
+
+	/**
+	 * Advances the simulation by one frame without drawing it, by updating the
+	 * frame and then stepping the chunks on to the next frame.
+	 */
+	public void tick() {
+		this.updateFrame();
+		stepChunks();
+	}
+
+	/**
+	 * Updates every cell in the given region of the matrix whose element moves in
+	 * the given vertical direction. Elements that move down are updated from the
+	 * bottom row of the region up, and all others from the top row down. Each row
+	 * is updated left to right if direction is true, and right to left otherwise.
+	 * 
+	 * Only the cells inside the dirty rectangle of an active chunk are updated, and
+	 * rows of chunks without an active chunk are skipped entirely. Every other cell
+	 * is asleep. Asleep cells are only visited once every ChunkMap.SLEEP_INTERVAL
+	 * frames, one row of chunks at a time, and only if their element does anything
+	 * while asleep.
+	 * 
+	 * @param firstRow    first row of the region
+	 * @param lastRow     row after the last row of the region
+	 * @param firstColumn first column of the region
+	 * @param lastColumn  column after the last column of the region
+	 * @param direction   whether to update each row left to right
+	 * @param movesDown   whether to update the elements that move down, or the
+	 *                    ones that do not
+	 */
+	public void updateRegion(int firstRow, int lastRow, int firstColumn, int lastColumn, boolean direction,
+			boolean movesDown) {
+		int cellsPerChunk = chunks.getCellsPerChunk();
+		int firstChunkRow = firstRow / cellsPerChunk;
+		int lastChunkRow = (lastRow - 1) / cellsPerChunk;
+		int firstChunkColumn = firstColumn / cellsPerChunk;
+		int lastChunkColumn = (lastColumn - 1) / cellsPerChunk;
+
+		for (int i = firstChunkRow; i <= lastChunkRow; i++) {
+			int chunkRow = movesDown ? i : lastChunkRow - (i - firstChunkRow);
+			boolean asleep = chunks.isVisitingAsleep(chunkRow);
+			if (!asleep && !chunks.isAnyActive(chunkRow, firstChunkColumn, lastChunkColumn)) {
+				continue;
+			}
+
+			int rowStart = Math.max(chunkRow * cellsPerChunk, firstRow);
+			int rowEnd = Math.min((chunkRow + 1) * cellsPerChunk, lastRow) - 1;
+			for (int y = rowStart; y <= rowEnd; y++) {
+				int row = movesDown ? y : rowEnd - (y - rowStart);
+				if (direction) {
+					for (int chunkColumn = firstChunkColumn; chunkColumn <= lastChunkColumn; chunkColumn++) {
+						this.updateChunkRow(chunkRow, chunkColumn, row, firstColumn, lastColumn, true, movesDown,
+								asleep);
+					}
+				} else {
+					for (int chunkColumn = lastChunkColumn; chunkColumn >= firstChunkColumn; chunkColumn--) {
+						this.updateChunkRow(chunkRow, chunkColumn, row, firstColumn, lastColumn, false, movesDown,
+								asleep);
 					}
 				}
 			}
@@ -308,128 +837,331 @@ public class CellularMatrix {
 	}
 
 	/**
-	 * Sets the given element to a new ElementType, based on the given type. Returns
-	 * the newly created element.
+	 * Updates the cells of one row of the given chunk that are inside of the given
+	 * columns and whose element moves in the given vertical direction. Every random
+	 * number used meanwhile is drawn from the stream of the chunk.
 	 * 
-	 * @param element    element to change type of
-	 * @param newElement element type to change the element to
-	 * @return the newly changed element
+	 * @param chunkRow    row of the chunk to update
+	 * @param chunkColumn column of the chunk to update
+	 * @param row         row of cells to update
+	 * @param firstColumn first column of the region being updated
+	 * @param lastColumn  column after the last column of the region being updated
+	 * @param direction   whether to update the row left to right
+	 * @param movesDown   whether to update the elements that move down, or the
+	 *                    ones that do not
+	 * @param asleep      whether to also update the asleep cells of the row
 	 */
-	public Element setNewElement(Element element, ElementTypes newElement) {
+	private void updateChunkRow(int chunkRow, int chunkColumn, int row, int firstColumn, int lastColumn,
+			boolean direction, boolean movesDown, boolean asleep) {
+		boolean dirty = chunks.isDirty(chunkRow, chunkColumn, row);
+		if (!dirty && !asleep) {
+			return;
+		}
 
-		CellularMatrix.activateChunk(element.getRow(), element.getColumn());
+		int cellsPerChunk = chunks.getCellsPerChunk();
+		int start = Math.max(chunkColumn * cellsPerChunk, firstColumn);
+		int end = Math.min((chunkColumn + 1) * cellsPerChunk, lastColumn) - 1;
+
+		int dirtyStart = end + 1;
+		int dirtyEnd = end;
+		if (dirty) {
+			dirtyStart = Math.max(start, chunks.getMinColumn(chunkRow, chunkColumn));
+			dirtyEnd = Math.min(end, chunks.getMaxColumn(chunkRow, chunkColumn));
+			if (dirtyStart > dirtyEnd) {
+				dirtyStart = end + 1;
+				dirtyEnd = end;
+			}
+		}
+
+		int stream = chunkRow * chunks.getChunkColumns() + chunkColumn;
+		random.setSeed(chunkStreams[stream]);
+
+		if (!asleep) {
+			this.updateAwake(row, dirtyStart, dirtyEnd, direction, movesDown);
+		} else if (direction) {
+			this.updateAsleep(row, start, dirtyStart - 1, movesDown);
+			this.updateAwake(row, dirtyStart, dirtyEnd, true, movesDown);
+			this.updateAsleep(row, dirtyEnd + 1, end, movesDown);
+		} else {
+			this.updateAsleep(row, dirtyEnd + 1, end, movesDown);
+			this.updateAwake(row, dirtyStart, dirtyEnd, false, movesDown);
+			this.updateAsleep(row, start, dirtyStart - 1, movesDown);
+		}
 
-		switch (newElement) {
+		chunkStreams[stream] = random.getState();
+	}
+
+	/**
+	 * Saves the temperature of every cell of the chunks that have cells of
+	 * elements that conduct heat, before heat is conducted. A cell only exchanges
+	 * heat with cells that conduct it as well, so no other temperature is ever
+	 * read while conducting. Each row of a run of such chunks is copied at once.
+	 * 
+	 * @return false if no chunk has any cells that conduct heat
+	 */
+	private boolean saveTemperatures() {
+		int cellsPerChunk = chunks.getCellsPerChunk();
+		int chunkColumns = chunks.getChunkColumns();
+		boolean conducting = false;
+
+		for (int chunkRow = 0; chunkRow < chunks.getChunkRows(); chunkRow++) {
+			int firstRow = chunkRow * cellsPerChunk;
+			int lastRow = Math.min(firstRow + cellsPerChunk, grid.rows);
+			int chunkColumn = 0;
+			while (chunkColumn < chunkColumns) {
+				if (conductors[chunkRow * chunkColumns + chunkColumn] == 0) {
+					chunkColumn++;
+					continue;
+				}
+				int firstChunkColumn = chunkColumn;
+				while (chunkColumn < chunkColumns && conductors[chunkRow * chunkColumns + chunkColumn] != 0) {
+					chunkColumn++;
+				}
+				int firstColumn = firstChunkColumn * cellsPerChunk;
+				int lastColumn = Math.min(chunkColumn * cellsPerChunk, grid.columns);
+				for (int row = firstRow; row < lastRow; row++) {
+					grid.saveTemperatures(row, firstColumn, lastColumn);
+				}
+				conducting = true;
+			}
+		}
+		return conducting;
+	}
+
+	/**
+	 * Conducts one frame of heat between the cells in the given region of the
+	 * matrix. Each cell of an element that conducts heat exchanges a share of the
+	 * difference in temperature with each of the eight cells around it that also
+	 * conducts, at the lower conductivity of the two. Every cell is worked out
+	 * from the temperatures saved before any heat was conducted, so the region can
+	 * be conducted at the same time as any other region, and heat is neither made
+	 * nor lost between two cells. Chunks with no cells that conduct heat are
+	 * skipped.
+	 * 
+	 * Whenever the whole part of the temperature of a cell changes, its element is
+	 * told with Element.temperatureChanged(), drawing any random numbers it needs
+	 * from the stream of the chunk of the cell.
+	 * 
+	 * @param firstRow    first row of the region
+	 * @param lastRow     row after the last row of the region
+	 * @param firstColumn first column of the region
+	 * @param lastColumn  column after the last column of the region
+	 */
+	public void diffuseHeat(int firstRow, int lastRow, int firstColumn, int lastColumn) {
+		int cellsPerChunk = chunks.getCellsPerChunk();
+		int firstChunkColumn = firstColumn / cellsPerChunk;
+		int lastChunkColumn = (lastColumn - 1) / cellsPerChunk;
+
+		for (int row = firstRow; row < lastRow; row++) {
+			int streams = (row / cellsPerChunk) * chunks.getChunkColumns();
+			for (int chunkColumn = firstChunkColumn; chunkColumn <= lastChunkColumn; chunkColumn++) {
+				if (conductors[streams + chunkColumn] == 0) {
+					continue;
+				}
+				int start = Math.max(chunkColumn * cellsPerChunk, firstColumn);
+				int end = Math.min((chunkColumn + 1) * cellsPerChunk, lastColumn);
+				this.diffuseChunkRow(streams + chunkColumn, row, start, end);
+			}
+		}
+	}
+
+	/**
+	 * Conducts one frame of heat between the cells of one row of a chunk.
+	 * 
+	 * @param stream      index of the stream of the chunk
+	 * @param row         row of cells to conduct
+	 * @param firstColumn first column to conduct
+	 * @param lastColumn  column after the last column to conduct
+	 */
+	private void diffuseChunkRow(int stream, int row, int firstColumn, int lastColumn) {
+		byte[] types = grid.types;
+		float[] previous = grid.previousTemperature;
+		float[] temperature = grid.temperature;
+		boolean drawing = false;
+
+		for (int x = firstColumn; x < lastColumn; x++) {
+			int index = grid.index(row, x);
+			byte type = types[index];
+			float conductivity = conductivities[type];
+			if (conductivity == 0f) {
+				continue;
+			}
+
+			float heat = previous[index];
+			float flow = 0f;
+			for (int i = 0; i < adjacentRowOffsets.length; i++) {
+				int nextRow = row + adjacentRowOffsets[i];
+				int nextColumn = x + adjacentColumnOffsets[i];
+				if (nextRow < 0 || nextRow >= grid.rows || nextColumn < 0 || nextColumn >= grid.columns) {
+					continue;
+				}
+				int next = grid.index(nextRow, nextColumn);
+				float nextConductivity = conductivities[types[next]];
+				if (nextConductivity != 0f) {
+					flow += Math.min(conductivity, nextConductivity) * (previous[next] - heat);
+				}
+			}
+			if (flow == 0f) {
+				continue;
+			}
+
+			temperature[index] = heat + flow;
+			if ((int) temperature[index] != (int) heat) {
+				if (!drawing) {
+					random.setSeed(chunkStreams[stream]);
+					drawing = true;
+				}
+				elements[type].temperatureChanged(this, row, x, (int) heat);
+			}
+		}
+
+		if (drawing) {
+			chunkStreams[stream] = random.getState();
+		}
+	}
+
+	/**
+	 * Updates the cells between the given columns of a row whose element moves in
+	 * the given vertical direction.
+	 * 
+	 * @param row         row of cells to update
+	 * @param firstColumn first column to update
+	 * @param lastColumn  last column to update
+	 * @param direction   whether to update the cells left to right
+	 * @param movesDown   whether to update the elements that move down, or the
+	 *                    ones that do not
+	 */
+	private void updateAwake(int row, int firstColumn, int lastColumn, boolean direction, boolean movesDown) {
+		byte[] types = grid.types;
+
+		if (direction) {
+			for (int x = firstColumn; x <= lastColumn; x++) {
+				int index = grid.index(row, x);
+				byte type = types[index];
+				if (type != EMPTY && descriptors[type].movesDown() == movesDown && grid.stamp(index)) {
+					this.updateCell(type, row, x);
+				}
+			}
+		} else {
+			for (int x = lastColumn; x >= firstColumn; x--) {
+				int index = grid.index(row, x);
+				byte type = types[index];
+				if (type != EMPTY && descriptors[type].movesDown() == movesDown && grid.stamp(index)) {
+					this.updateCell(type, row, x);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the given cell with the element of its type. Every type is updated
+	 * from its own call site, so each call only ever sees one class of element
+	 * and can be inlined, instead of one call being shared by every element type.
+	 * Empty cells are skipped.
+	 * 
+	 * @param type   type id of the cell
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 */
+	private void updateCell(byte type, int row, int column) {
+		switch (TYPES[type]) {
 		case EMPTY:
-			this.setElement(new Empty(element.getRow(), element.getColumn()));
-			break;
-		case FIRE:
-			this.setElement(new Fire(element.getRow(), element.getColumn()));
 			break;
 		case SAND:
-			this.setElement(new Sand(element.getRow(), element.getColumn()));
+			((Sand) elements[type]).update(this, row, column);
 			break;
-		case SMOKE:
-			this.setElement(new Smoke(element.getRow(), element.getColumn()));
+		case DIRT:
+			((Dirt) elements[type]).update(this, row, column);
 			break;
-		case WOOD:
-			this.setElement(new Wood(element.getRow(), element.getColumn()));
+		case WET_SAND:
+			((WetSand) elements[type]).update(this, row, column);
+			break;
+		case WET_DIRT:
+			((WetDirt) elements[type]).update(this, row, column);
+			break;
+		case OBSIDIAN:
+			((Obsidian) elements[type]).update(this, row, column);
+			break;
+		case RUST:
+			((Rust) elements[type]).update(this, row, column);
 			break;
 		case WATER:
-			this.setElement(new Water(element.getRow(), element.getColumn()));
+			((Water) elements[type]).update(this, row, column);
+			break;
+		case LAVA:
+			((Lava) elements[type]).update(this, row, column);
+			break;
+		case SMOKE:
+			((Smoke) elements[type]).update(this, row, column);
 			break;
 		case STEAM:
-			this.setElement(new Steam(element.getRow(), element.getColumn()));
+			((Steam) elements[type]).update(this, row, column);
 			break;
-		case WET_SAND:
-			this.setElement(new WetSand(element.getRow(), element.getColumn()));
+		case WOOD:
+			((Wood) elements[type]).update(this, row, column);
 			break;
 		case LEAF:
-			this.setElement(new Leaf(element.getRow(), element.getColumn()));
-			break;
-		case DIRT:
-			this.setElement(new Dirt(element.getRow(), element.getColumn()));
+			((Leaf) elements[type]).update(this, row, column);
 			break;
-		case WET_DIRT:
-			this.setElement(new WetDirt(element.getRow(), element.getColumn()));
+		case FIRE:
+			((Fire) elements[type]).update(this, row, column);
 			break;
 		case STONE:
-			this.setElement(new Stone(element.getRow(), element.getColumn()));
-			break;
-		case LAVA:
-			this.setElement(new Lava(element.getRow(), element.getColumn()));
-			break;
-		case OBSIDIAN:
-			this.setElement(new Obsidian(element.getRow(), element.getColumn()));
+			((Stone) elements[type]).update(this, row, column);
 			break;
 		case STEEL:
-			this.setElement(new Steel(element.getRow(), element.getColumn()));
-			break;
-		case RUST:
-			this.setElement(new Rust(element.getRow(), element.getColumn()));
+			((Steel) elements[type]).update(this, row, column);
 			break;
 		case VOID:
-			this.setElement(new Void(element.getRow(), element.getColumn()));
+			((Void) elements[type]).update(this, row, column);
 			break;
 		default:
+			elements[type].update(this, row, column);
 			break;
 		}
-
-		int row = element.getRow();
-		int col = element.getColumn();
-		element = null;
-		return this.getElement(row, col, false, false);
 	}
 
 	/**
-	 * Updates the frame. Updates all positions of all elements in the matrix based
-	 * on their type using the element's update() method, and chooses the vertical
-	 * direction to update based on which way the element moves. The horizontal
-	 * update direction is chosen randomly to create a more realistic simulation.
+	 * Updates the asleep cells between the given columns of a row whose element
+	 * moves in the given vertical direction and does something while asleep.
 	 * 
-	 * @param shapeDrawer shape renderer that draws to the viewport
+	 * @param row         row of cells to update
+	 * @param firstColumn first column to update
+	 * @param lastColumn  last column to update
+	 * @param movesDown   whether to update the elements that move down, or the
+	 *                    ones that do not
 	 */
-	public void updateFrame(ShapeDrawer shapeDrawer) {
-
-		direction = direction ? false : true;
-		Element element;
-
-		for (int y = rows - 1; y >= 0; y--) {
-			if (direction) {
-				for (int x = 0; x < columns; x++) {
-					element = matrix[rows - 1 - y][x];
-					if (element.movesDown()) {
-						element.update();
-					}
-				}
-			} else {
-				for (int x = columns - 1; x >= 0; x--) {
-					element = matrix[rows - 1 - y][x];
-					if (element.movesDown()) {
-						element.update();
-					}
-				}
-			}
-		}
-		for (int y = 0; y < rows; y++) {
-			if (direction) {
-				for (int x = 0; x < columns; x++) {
-					element = matrix[rows - 1 - y][x];
-					if (!element.movesDown()) {
-						element.update();
-					}
-				}
-			} else {
-				for (int x = columns - 1; x >= 0; x--) {
-					element = matrix[rows - 1 - y][x];
-					if (!element.movesDown()) {
-						element.update();
-					}
-				}
+	private void updateAsleep(int row, int firstColumn, int lastColumn, boolean movesDown) {
+		byte[] types = grid.types;
+
+		for (int x = firstColumn; x <= lastColumn; x++) {
+			int index = grid.index(row, x);
+			byte type = types[index];
+			ElementDescriptor descriptor = descriptors[type];
+			if (descriptor.updatesAsleep() && descriptor.movesDown() == movesDown && grid.stamp(index)) {
+				elements[type].updateAsleep(this, row, x, ChunkMap.SLEEP_INTERVAL);
 			}
 		}
 	}
 
+	/**
+	 * Sets the FrameUpdater used to update this matrix each frame. Passing null
+	 * updates the matrix on the calling thread.
+	 * 
+	 * @param frameUpdater updater to use, or null
+	 */
+	public void setFrameUpdater(FrameUpdater frameUpdater) {
+		this.frameUpdater = frameUpdater;
+	}
+
+	/**
+	 * @return the FrameUpdater used to update this matrix, or null if it is updated
+	 *         on the calling thread
+	 */
+	public FrameUpdater getFrameUpdater() {
+		return frameUpdater;
+	}
+
 	/**
 	 * Traverses the matrix between the two given points. The points are given as x
 	 * and y coordinates in pixel dimensions, where x == 0 and y == 0 at the bottom
@@ -445,7 +1177,7 @@ public class CellularMatrix {
 	 * @return a 2D integer array containing the row and column of a line of cells
 	 *         between the given points
 	 */
-	public static int[][] traverseMatrix(float x1, float y1, float x2, float y2) {
+	public int[][] traverseMatrix(float x1, float y1, float x2, float y2) {
 		int col1 = (int) Math.round(x1 / pixelSizeModifier);
 		int row1 = (int) Math.round(y1 / pixelSizeModifier);
 		int col2 = (int) Math.round(x2 / pixelSizeModifier);
@@ -490,51 +1222,285 @@ public class CellularMatrix {
 	}
 
 	/**
-	 * Gets the elements adjacent to the element and returns them in an array in the
-	 * order [top left, top, top right, left, right, bottom left, bottom, bottom
-	 * right]
+	 * Gets the elements adjacent to the given cell and returns them in an array in
+	 * the order [top left, top, top right, left, right, bottom left, bottom, bottom
+	 * right]. The location of each adjacent element can be found with
+	 * adjacentRowOffsets and adjacentColumnOffsets.
+	 * 
+	 * The same array is returned by every call on this matrix, so it is only valid
+	 * until the next call and must not be kept.
 	 * 
-	 * @param element element to get the elements adjacent to
-	 * @return the elements adjacent to the given element in an array of format [top
-	 *         left, top, top right, left, right, bottom left, bottom, bottom right]
+	 * @param row    row of the cell to get the elements adjacent to
+	 * @param column column of the cell to get the elements adjacent to
+	 * @return the elements adjacent to the given cell in an array of format [top
+	 *         left, top, top right, left, right, bottom left, bottom, bottom
+	 *         right]
 	 */
-	public Element[] getAdjacentElements(Element element, boolean top, boolean sides, boolean bottom) {
-		Element[] adjacentElements = new Element[8];
-		int row = element.getRow();
-		int col = element.getColumn();
+	public Element[] getAdjacentElements(int row, int col, boolean top, boolean sides, boolean bottom) {
+		Element[] adjacentElements = this.adjacentElements;
+		byte[] types = grid.types;
+
+		int rows = grid.rows;
+		int columns = grid.columns;
+
+		boolean hasTop = top && row + 1 < rows;
+		boolean hasBottom = bottom && row - 1 >= 0;
+		boolean hasLeft = col - 1 >= 0;
+		boolean hasRight = col + 1 < columns;
+
+		int index = grid.index(row, col);
+		int up = index + columns;
+		int down = index - columns;
+
+		adjacentElements[0] = hasTop && hasLeft ? elements[types[up - 1]] : null;
+		adjacentElements[1] = hasTop ? elements[types[up]] : null;
+		adjacentElements[2] = hasTop && hasRight ? elements[types[up + 1]] : null;
+		adjacentElements[3] = sides && hasLeft ? elements[types[index - 1]] : null;
+		adjacentElements[4] = sides && hasRight ? elements[types[index + 1]] : null;
+		adjacentElements[5] = hasBottom && hasLeft ? elements[types[down - 1]] : null;
+		adjacentElements[6] = hasBottom ? elements[types[down]] : null;
+		adjacentElements[7] = hasBottom && hasRight ? elements[types[down + 1]] : null;
 
-		if (col + 1 < columns) {
-			if (row + 1 < rows && top) {
-				adjacentElements[2] = matrix[row + 1][col + 1];
-			}
-			if (sides) {
-				adjacentElements[4] = matrix[row][col + 1];
-			}
-			if (row - 1 > 0 && bottom) {
-				adjacentElements[7] = matrix[row - 1][col + 1];
-			}
+		return adjacentElements;
+	}
+
+	/**
+	 * @return the vertical velocity of the given cell
+	 */
+	public float getVerticalVelocity(int row, int column) {
+		return grid.verticalVelocity[grid.index(row, column)];
+	}
+
+	/**
+	 * Sets the vertical velocity of the given cell
+	 * 
+	 * @param velocity velocity to set
+	 */
+	public void setVerticalVelocity(int row, int column, float velocity) {
+		grid.verticalVelocity[grid.index(row, column)] = velocity;
+	}
+
+	/**
+	 * @return the horizontal velocity of the given cell
+	 */
+	public float getHorizontalVelocity(int row, int column) {
+		return grid.horizontalVelocity[grid.index(row, column)];
+	}
+
+	/**
+	 * Sets the horizontal velocity of the given cell
+	 * 
+	 * @param velocity velocity to set
+	 */
+	public void setHorizontalVelocity(int row, int column, float velocity) {
+		grid.horizontalVelocity[grid.index(row, column)] = velocity;
+	}
+
+	/**
+	 * @return the direction the given cell is moving. -1 is left, 1 is right
+	 */
+	public int getDirection(int row, int column) {
+		return grid.direction[grid.index(row, column)];
+	}
+
+	/**
+	 * Sets the direction the given cell is moving
+	 * 
+	 * @param direction direction to set. -1 is left, 1 is right
+	 */
+	public void setDirection(int row, int column, int direction) {
+		grid.direction[grid.index(row, column)] = (byte) direction;
+	}
+
+	/**
+	 * @return the remaining lifetime of the given cell. A cell with limited life
+	 *         whose lifetime is below zero has died.
+	 */
+	public int getLifetime(int row, int column) {
+		int index = grid.index(row, column);
+		if (grid.hasFlag(index, CellGrid.LIMITED_LIFE)) {
+			return grid.lifetime[index] - grid.getStamp();
 		}
+		return grid.lifetime[index];
+	}
 
-		if (col - 1 >= 0) {
-			if (sides) {
-				adjacentElements[3] = matrix[row][col - 1];
-			}
-			if (row + 1 < rows && top) {
-				adjacentElements[0] = matrix[row + 1][col - 1];
-			}
-			if (row - 1 > 0 && bottom) {
-				adjacentElements[5] = matrix[row - 1][col - 1];
-			}
+	/**
+	 * Sets the remaining lifetime of the given cell. If the cell has limited life,
+	 * the frame its life ends on is scheduled so that the cell is woken in time
+	 * to die.
+	 * 
+	 * @param lifetime lifetime to set
+	 */
+	public void setLifetime(int row, int column, int lifetime) {
+		int index = grid.index(row, column);
+		if (!grid.hasFlag(index, CellGrid.LIMITED_LIFE)) {
+			grid.lifetime[index] = lifetime;
+			return;
 		}
+		int end = grid.getStamp() + Math.max(lifetime, 0);
+		grid.lifetime[index] = grid.getStamp() + lifetime;
+		lifetimes.schedule(index, end + 1);
+	}
+
+	/**
+	 * @return the temperature of the given cell
+	 */
+	public int getTemperature(int row, int column) {
+		return (int) grid.temperature[grid.index(row, column)];
+	}
+
+	/**
+	 * Sets the temperature of the given cell
+	 * 
+	 * @param temperature temperature to set
+	 */
+	public void setTemperature(int row, int column, int temperature) {
+		grid.temperature[grid.index(row, column)] = temperature;
+	}
+
+	/**
+	 * @return true if the given cell is on fire
+	 */
+	public boolean isOnFire(int row, int column) {
+		return grid.hasFlag(grid.index(row, column), CellGrid.ON_FIRE);
+	}
+
+	/**
+	 * Sets whether or not the given cell is on fire. If it is, also sets it to
+	 * have a limited life.
+	 * 
+	 * @param onFire whether or not the cell is on fire
+	 */
+	public void setOnFire(int row, int column, boolean onFire) {
+		int index = grid.index(row, column);
+		grid.setFlag(index, CellGrid.ON_FIRE, onFire);
+		if (onFire) {
+			this.setLimitedLife(row, column, true);
+		}
+	}
+
+	/**
+	 * @return whether or not the given cell has a limited lifetime
+	 */
+	public boolean limitedLife(int row, int column) {
+		return grid.hasFlag(grid.index(row, column), CellGrid.LIMITED_LIFE);
+	}
 
-		if (row - 1 >= 0 && bottom) {
-			adjacentElements[6] = matrix[row - 1][col];
+	/**
+	 * Sets whether or not the given cell has a limited lifetime. The remaining
+	 * lifetime of the cell only starts running out once it has limited life.
+	 * 
+	 * @param limitedLife whether or not the cell has a limited lifetime
+	 */
+	public void setLimitedLife(int row, int column, boolean limitedLife) {
+		int index = grid.index(row, column);
+		if (grid.hasFlag(index, CellGrid.LIMITED_LIFE) == limitedLife) {
+			return;
 		}
-		if (row + 1 < rows && top) {
-			adjacentElements[1] = matrix[row + 1][col];
+		int lifetime = this.getLifetime(row, column);
+		grid.setFlag(index, CellGrid.LIMITED_LIFE, limitedLife);
+		this.setLifetime(row, column, lifetime);
+	}
+
+	/**
+	 * @return whether or not the free falling flag of the given cell is set
+	 */
+	public boolean isFreeFalling(int row, int column) {
+		return grid.hasFlag(grid.index(row, column), CellGrid.FREE_FALLING);
+	}
+
+	/**
+	 * Sets the free falling flag of the given cell
+	 * 
+	 * @param freeFalling whether or not the cell is free falling
+	 */
+	public void setFreeFalling(int row, int column, boolean freeFalling) {
+		grid.setFlag(grid.index(row, column), CellGrid.FREE_FALLING, freeFalling);
+	}
+
+	/**
+	 * @return whether or not the given cell is falling through air
+	 */
+	public boolean isFallingThroughAir(int row, int column) {
+		return grid.hasFlag(grid.index(row, column), CellGrid.FALLING_THROUGH_AIR);
+	}
+
+	/**
+	 * Sets whether or not the given cell is falling through air
+	 * 
+	 * @param fallingThroughAir whether or not the cell is falling through air
+	 */
+	public void setFallingThroughAir(int row, int column, boolean fallingThroughAir) {
+		grid.setFlag(grid.index(row, column), CellGrid.FALLING_THROUGH_AIR, fallingThroughAir);
+	}
+
+	/**
+	 * @return whether or not the given cell extinguishes other elements
+	 */
+	public boolean extinguishesThings(int row, int column) {
+		return grid.hasFlag(grid.index(row, column), CellGrid.EXTINGUISHES);
+	}
+
+	/**
+	 * Sets whether or not the given cell extinguishes other elements
+	 * 
+	 * @param extinguishesThings whether or not the cell extinguishes other
+	 *                           elements
+	 */
+	public void setExtinguishesThings(int row, int column, boolean extinguishesThings) {
+		grid.setFlag(grid.index(row, column), CellGrid.EXTINGUISHES, extinguishesThings);
+	}
+
+	/**
+	 * Copies the color of the given cell into the given LibGDX color object
+	 * 
+	 * @param color color object to copy into
+	 * @return the given color object
+	 */
+	public Color getColor(int row, int column, Color color) {
+		Color.rgba8888ToColor(color, grid.colors[grid.index(row, column)]);
+		return color;
+	}
+
+	/**
+	 * @return the color of the given cell packed as RGBA8888, or 0 if it was never
+	 *         colored
+	 */
+	public int getPackedColor(int row, int column) {
+		return grid.colors[grid.index(row, column)];
+	}
+
+	/**
+	 * Sets the color of the given cell to the given CustomColor, without varying
+	 * it
+	 * 
+	 * @param color color to set
+	 */
+	public void setColor(int row, int column, CustomColor color) {
+		if (color != null) {
+			this.setColor(row, column, color.getSolidPalette(), 0);
 		}
+	}
 
-		return adjacentElements;
+	/**
+	 * Colors the given cell with the given shade of the given palette, and
+	 * remembers which shade it was
+	 * 
+	 * @param palette palette to color the cell from
+	 * @param shade   index of the shade, from 0 to Palette.SHADES - 1
+	 */
+	public void setColor(int row, int column, Palette palette, int shade) {
+		int index = grid.index(row, column);
+		grid.colors[index] = palette.getShade(shade);
+		grid.shades[index] = (short) (palette.getId() << 8 | shade);
+		chunks.setRedraw(row, column);
+	}
+
+	/**
+	 * @return the index of the shade the given cell was last colored with
+	 */
+	public int getShade(int row, int column) {
+		return grid.shades[grid.index(row, column)] & 0xff;
 	}
 
 }
@@ -0,0 +1,486 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of which chunks of the matrix need to be updated. A chunk is a
+ * square of cells. Each chunk has one bit in each of three bitsets, for whether
+ * it is active this frame, next frame, and the frame after that. Each row of
+ * chunks starts on a new long word, so a whole row of chunks can be checked a
+ * word at a time.
+ *
+ * A chunk that is active in a frame also has a dirty rectangle for that frame,
+ * given as the minimum and maximum row and column of the cells that changed,
+ * or that are next to a cell that changed. The rectangle of a chunk is only
+ * valid while its bit is set, so it does not need to be cleared when the chunk
+ * goes to sleep.
+ *
+ * Activating a cell keeps it dirty for this frame and the two frames after it.
+ *
+ * Cells outside of every dirty rectangle are asleep. Each frame one in every
+ * SLEEP_INTERVAL rows of chunks has its asleep cells visited as well, so every
+ * asleep cell is visited once every SLEEP_INTERVAL frames.
+ *
+ * @author Aiden Schroeder
+ */
+public class ChunkMap {
+
+	/** Number of frames between each visit of an asleep cell */
+	public static final int SLEEP_INTERVAL = 16;
+
+	/** Number of rows of chunks */
+	private final int chunkRows;
+
+	/** Number of columns of chunks */
+	private final int chunkColumns;
+
+	/** Number of rows and columns of cells in each chunk */
+	private final int cellsPerChunk;
+
+	/** Number of long words used for each row of chunks */
+	private final int wordsPerRow;
+
+	/** Bitset of the chunks that are active this frame */
+	private long[] activeThisFrame;
+
+	/** Bitset of the chunks that are active next frame */
+	private long[] activeNextFrame;
+
+	/** Bitset of the chunks that are active in two frames */
+	private long[] activeInTwoFrames;
+
+	/**
+	 * Bitset of the chunks with a cell that changed color since they were last
+	 * drawn. Cells usually only change when their chunk is active, but some change
+	 * color while they are asleep.
+	 */
+	private final long[] redraw;
+
+	/**
+	 * Dirty rectangles of this frame, stored as the minimum row, maximum row,
+	 * minimum column and maximum column of each chunk
+	 */
+	private int[] rectsThisFrame;
+
+	/** Dirty rectangles of the next frame */
+	private int[] rectsNextFrame;
+
+	/** Dirty rectangles of the frame after the next one */
+	private int[] rectsInTwoFrames;
+
+	/**
+	 * Rows of chunks whose index modulo SLEEP_INTERVAL equals this have their
+	 * asleep cells visited this frame
+	 */
+	private int sleepPhase;
+
+	/**
+	 * Creates a map of inactive chunks covering a matrix with the given number of
+	 * rows and columns of cells
+	 *
+	 * @param rows          number of rows of cells
+	 * @param columns       number of columns of cells
+	 * @param cellsPerChunk number of rows and columns of cells in each chunk
+	 */
+	public ChunkMap(int rows, int columns, int cellsPerChunk) {
+		this.cellsPerChunk = cellsPerChunk;
+		this.chunkRows = Math.max((rows + cellsPerChunk - 1) / cellsPerChunk, 1);
+		this.chunkColumns = Math.max((columns + cellsPerChunk - 1) / cellsPerChunk, 1);
+		this.wordsPerRow = (chunkColumns + 63) >>> 6;
+
+		int words = chunkRows * wordsPerRow;
+		activeThisFrame = new long[words];
+		activeNextFrame = new long[words];
+		activeInTwoFrames = new long[words];
+		redraw = new long[words];
+
+		int rects = chunkRows * wordsPerRow * 64 * 4;
+		rectsThisFrame = new int[rects];
+		rectsNextFrame = new int[rects];
+		rectsInTwoFrames = new int[rects];
+	}
+
+	/**
+	 * @return the number of rows of chunks
+	 */
+	public int getChunkRows() {
+		return chunkRows;
+	}
+
+	/**
+	 * @return the number of columns of chunks
+	 */
+	public int getChunkColumns() {
+		return chunkColumns;
+	}
+
+	/**
+	 * @return the number of rows and columns of cells in each chunk
+	 */
+	public int getCellsPerChunk() {
+		return cellsPerChunk;
+	}
+
+	/**
+	 * Returns the bit index of the given chunk
+	 *
+	 * @param chunkRow    row of the chunk
+	 * @param chunkColumn column of the chunk
+	 * @return the index of the chunk's bit in each bitset
+	 */
+	private int bit(int chunkRow, int chunkColumn) {
+		return (chunkRow * wordsPerRow << 6) + chunkColumn;
+	}
+
+	/**
+	 * Activates the chunk of the given cell, marking the cell and the cells around
+	 * it as dirty for this frame and the next two. If the cell is on the edge of
+	 * its chunk, the neighboring chunk is activated as well, with the cells next to
+	 * the edge marked as dirty. Cells outside of the matrix are ignored.
+	 *
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 */
+	public void activate(int row, int column) {
+		if (row < 0 || column < 0) {
+			return;
+		}
+		int chunkRow = row / cellsPerChunk;
+		int chunkColumn = column / cellsPerChunk;
+		if (chunkRow >= chunkRows || chunkColumn >= chunkColumns) {
+			return;
+		}
+
+		int minRow = row - 1;
+		int maxRow = row + 1;
+		int minColumn = column - 1;
+		int maxColumn = column + 1;
+
+		this.markDirty(chunkRow, chunkColumn, minRow, maxRow, minColumn, maxColumn);
+
+		int rowInChunk = row - chunkRow * cellsPerChunk;
+		int columnInChunk = column - chunkColumn * cellsPerChunk;
+
+		if (columnInChunk == 0 && chunkColumn > 0) {
+			this.markDirty(chunkRow, chunkColumn - 1, minRow, maxRow, minColumn, maxColumn);
+		}
+		if (columnInChunk == cellsPerChunk - 1 && chunkColumn + 1 < chunkColumns) {
+			this.markDirty(chunkRow, chunkColumn + 1, minRow, maxRow, minColumn, maxColumn);
+		}
+		if (rowInChunk == cellsPerChunk - 1 && chunkRow + 1 < chunkRows) {
+			this.markDirty(chunkRow + 1, chunkColumn, minRow, maxRow, minColumn, maxColumn);
+		}
+		if (rowInChunk == 0 && chunkRow > 0) {
+			this.markDirty(chunkRow - 1, chunkColumn, minRow, maxRow, minColumn, maxColumn);
+		}
+	}
+
+	/**
+	 * Activates the given chunk for this frame and the next two, and grows the
+	 * dirty rectangle of each of those frames to include the given cells. Cells
+	 * outside of the chunk are ignored.
+	 *
+	 * @param chunkRow    row of the chunk
+	 * @param chunkColumn column of the chunk
+	 * @param minRow      lowest row of the cells
+	 * @param maxRow      highest row of the cells
+	 * @param minColumn   lowest column of the cells
+	 * @param maxColumn   highest column of the cells
+	 */
+	private void markDirty(int chunkRow, int chunkColumn, int minRow, int maxRow, int minColumn, int maxColumn) {
+		int firstRow = chunkRow * cellsPerChunk;
+		int firstColumn = chunkColumn * cellsPerChunk;
+		minRow = Math.max(minRow, firstRow);
+		maxRow = Math.min(maxRow, firstRow + cellsPerChunk - 1);
+		minColumn = Math.max(minColumn, firstColumn);
+		maxColumn = Math.min(maxColumn, firstColumn + cellsPerChunk - 1);
+
+		int bit = this.bit(chunkRow, chunkColumn);
+		int word = bit >>> 6;
+		long mask = 1L << bit;
+
+		boolean thisFrame = growRect(rectsThisFrame, activeThisFrame[word], mask, bit, minRow, maxRow, minColumn,
+				maxColumn);
+		boolean nextFrame = growRect(rectsNextFrame, activeNextFrame[word], mask, bit, minRow, maxRow, minColumn,
+				maxColumn);
+		boolean inTwoFrames = growRect(rectsInTwoFrames, activeInTwoFrames[word], mask, bit, minRow, maxRow,
+				minColumn, maxColumn);
+
+		if (thisFrame || nextFrame || inTwoFrames) {
+			this.setActive(word, mask);
+		}
+	}
+
+	/**
+	 * Grows the dirty rectangle of a chunk to include the given cells, or replaces
+	 * it if the chunk was not active yet
+	 *
+	 * @return true if the chunk was not active yet
+	 */
+	private static boolean growRect(int[] rects, long word, long mask, int bit, int minRow, int maxRow, int minColumn,
+			int maxColumn) {
+		int rect = bit << 2;
+		if ((word & mask) == 0) {
+			rects[rect] = minRow;
+			rects[rect + 1] = maxRow;
+			rects[rect + 2] = minColumn;
+			rects[rect + 3] = maxColumn;
+			return true;
+		}
+		if (minRow < rects[rect]) {
+			rects[rect] = minRow;
+		}
+		if (maxRow > rects[rect + 1]) {
+			rects[rect + 1] = maxRow;
+		}
+		if (minColumn < rects[rect + 2]) {
+			rects[rect + 2] = minColumn;
+		}
+		if (maxColumn > rects[rect + 3]) {
+			rects[rect + 3] = maxColumn;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the bit of a chunk in all three activity bitsets. When the matrix is
+	 * updated on several threads, different threads can activate different chunks
+	 * that share a word, so the words are only ever changed while holding the lock
+	 * of this map. Chunks are only activated from inside of a frame, and a chunk
+	 * stays active for the rest of the frame, so this only happens the first time
+	 * a chunk is activated each frame.
+	 *
+	 * @param word index of the word holding the chunk's bit
+	 * @param mask bit of the chunk within the word
+	 */
+	private synchronized void setActive(int word, long mask) {
+		activeThisFrame[word] |= mask;
+		activeNextFrame[word] |= mask;
+		activeInTwoFrames[word] |= mask;
+	}
+
+	/**
+	 * Marks every chunk to be fully updated next frame
+	 */
+	public void enableAll() {
+		int lastColumnBits = chunkColumns & 63;
+		for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++) {
+			for (int i = 0; i < wordsPerRow; i++) {
+				boolean last = i == wordsPerRow - 1 && lastColumnBits != 0;
+				activeNextFrame[chunkRow * wordsPerRow + i] = last ? (1L << lastColumnBits) - 1 : -1L;
+			}
+			for (int chunkColumn = 0; chunkColumn < chunkColumns; chunkColumn++) {
+				int rect = this.bit(chunkRow, chunkColumn) << 2;
+				rectsNextFrame[rect] = chunkRow * cellsPerChunk;
+				rectsNextFrame[rect + 1] = (chunkRow + 1) * cellsPerChunk - 1;
+				rectsNextFrame[rect + 2] = chunkColumn * cellsPerChunk;
+				rectsNextFrame[rect + 3] = (chunkColumn + 1) * cellsPerChunk - 1;
+			}
+		}
+	}
+
+	/**
+	 * Puts every chunk to sleep and then marks every chunk to be fully updated next
+	 * frame
+	 */
+	public void reset() {
+		Arrays.fill(activeThisFrame, 0);
+		Arrays.fill(activeNextFrame, 0);
+		Arrays.fill(activeInTwoFrames, 0);
+		Arrays.fill(redraw, 0);
+		this.enableAll();
+	}
+
+	/**
+	 * Moves on to the next frame by rotating the bitsets and rectangles of each
+	 * frame, clearing the frame after the next one, and moving the asleep cells
+	 * that are visited on to the next rows of chunks
+	 */
+	public void step() {
+		long[] words = activeThisFrame;
+		activeThisFrame = activeNextFrame;
+		activeNextFrame = activeInTwoFrames;
+		activeInTwoFrames = words;
+		Arrays.fill(activeInTwoFrames, 0);
+
+		int[] rects = rectsThisFrame;
+		rectsThisFrame = rectsNextFrame;
+		rectsNextFrame = rectsInTwoFrames;
+		rectsInTwoFrames = rects;
+
+		sleepPhase = (sleepPhase + 1) % SLEEP_INTERVAL;
+	}
+
+	/**
+	 * Returns whether the asleep cells of the given row of chunks are visited this
+	 * frame
+	 *
+	 * @param chunkRow row of chunks
+	 * @return true if the asleep cells of the row are visited
+	 */
+	public boolean isVisitingAsleep(int chunkRow) {
+		return chunkRow % SLEEP_INTERVAL == sleepPhase;
+	}
+
+	/**
+	 * Returns whether any chunk between the given columns of a row of chunks is
+	 * active this frame
+	 *
+	 * @param chunkRow         row of chunks
+	 * @param firstChunkColumn first column of chunks to check
+	 * @param lastChunkColumn  last column of chunks to check
+	 * @return true if at least one of the chunks is active
+	 */
+	public boolean isAnyActive(int chunkRow, int firstChunkColumn, int lastChunkColumn) {
+		int first = this.bit(chunkRow, firstChunkColumn);
+		int last = this.bit(chunkRow, lastChunkColumn);
+		int firstWord = first >>> 6;
+		int lastWord = last >>> 6;
+
+		for (int word = firstWord; word <= lastWord; word++) {
+			long mask = -1L;
+			if (word == firstWord) {
+				mask &= -1L << first;
+			}
+			if (word == lastWord) {
+				mask &= -1L >>> (63 - (last & 63));
+			}
+			if ((activeThisFrame[word] & mask) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return whether the given chunk is active this frame
+	 */
+	public boolean isActiveThisFrame(int chunkRow, int chunkColumn) {
+		int bit = this.bit(chunkRow, chunkColumn);
+		return (activeThisFrame[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * @return whether the given chunk is active next frame
+	 */
+	public boolean isActiveNextFrame(int chunkRow, int chunkColumn) {
+		int bit = this.bit(chunkRow, chunkColumn);
+		return (activeNextFrame[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Returns whether the given chunk is active next frame
+	 *
+	 * @param row    row of a cell in the chunk
+	 * @param column column of a cell in the chunk
+	 * @return true if the chunk of the cell is active next frame
+	 */
+	public boolean isCellActiveNextFrame(int row, int column) {
+		return this.isActiveNextFrame(row / cellsPerChunk, column / cellsPerChunk);
+	}
+
+	/**
+	 * Returns whether the given row of cells crosses the dirty rectangle of the
+	 * given chunk this frame
+	 *
+	 * @param chunkRow    row of the chunk
+	 * @param chunkColumn column of the chunk
+	 * @param row         row of cells
+	 * @return true if the chunk is active and the row is inside of its dirty
+	 *         rectangle
+	 */
+	public boolean isDirty(int chunkRow, int chunkColumn, int row) {
+		int bit = this.bit(chunkRow, chunkColumn);
+		if ((activeThisFrame[bit >>> 6] & (1L << bit)) == 0) {
+			return false;
+		}
+		int rect = bit << 2;
+		return row >= rectsThisFrame[rect] && row <= rectsThisFrame[rect + 1];
+	}
+
+	/**
+	 * @return the lowest column of the dirty rectangle of the given active chunk
+	 *         this frame
+	 */
+	public int getMinColumn(int chunkRow, int chunkColumn) {
+		return rectsThisFrame[(this.bit(chunkRow, chunkColumn) << 2) + 2];
+	}
+
+	/**
+	 * @return the highest column of the dirty rectangle of the given active chunk
+	 *         this frame
+	 */
+	public int getMaxColumn(int chunkRow, int chunkColumn) {
+		return rectsThisFrame[(this.bit(chunkRow, chunkColumn) << 2) + 3];
+	}
+
+	/**
+	 * Marks the chunk of the given cell to be drawn again
+	 *
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 */
+	public void setRedraw(int row, int column) {
+		int bit = this.bit(row / cellsPerChunk, column / cellsPerChunk);
+		int word = bit >>> 6;
+		long mask = 1L << bit;
+		if ((redraw[word] & mask) == 0) {
+			this.setRedrawBit(word, mask);
+		}
+	}
+
+	/**
+	 * Sets the redraw bit of a chunk while holding the lock of this map, for the
+	 * same reason as setActive()
+	 */
+	private synchronized void setRedrawBit(int word, long mask) {
+		redraw[word] |= mask;
+	}
+
+	/**
+	 * Returns whether any cell of the given chunk may have changed since it was
+	 * last drawn. Every change to a cell activates its chunk, apart from a change
+	 * of color, which marks the chunk to be redrawn.
+	 *
+	 * @param chunkRow    row of the chunk
+	 * @param chunkColumn column of the chunk
+	 * @return true if the chunk needs to be drawn again
+	 */
+	public boolean isChanged(int chunkRow, int chunkColumn) {
+		int bit = this.bit(chunkRow, chunkColumn);
+		return ((activeNextFrame[bit >>> 6] | redraw[bit >>> 6]) & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Returns whether any chunk may have changed since it was last drawn
+	 *
+	 * @return true if isChanged() is true for at least one chunk
+	 */
+	public boolean isAnyChanged() {
+		for (int i = 0; i < redraw.length; i++) {
+			if ((activeNextFrame[i] | redraw[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks every chunk that changed this frame to be drawn again. Used before
+	 * stepping on from a frame that is never drawn, so that its changes are drawn
+	 * with the next frame that is.
+	 */
+	public void keepChanges() {
+		for (int i = 0; i < redraw.length; i++) {
+			redraw[i] |= activeNextFrame[i];
+		}
+	}
+
+	/**
+	 * Clears the redraw bit of every chunk
+	 */
+	public void clearRedraw() {
+		Arrays.fill(redraw, 0);
+	}
+
+}
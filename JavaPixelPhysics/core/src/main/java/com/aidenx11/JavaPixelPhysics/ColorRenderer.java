@@ -0,0 +1,37 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.graphics.Pixmap.Format;
+
+/**
+ * Draws a CellularMatrix by uploading the color of every cell. The matrix keeps
+ * the color of every cell packed as RGBA8888, so the rows of a snapshot are
+ * copied straight into the texture without any work per cell.
+ *
+ * @author Aiden Schroeder
+ */
+public class ColorRenderer extends MatrixRenderer {
+
+	/**
+	 * Creates a renderer for the given matrix
+	 *
+	 * @param matrix matrix to draw
+	 */
+	public ColorRenderer(CellularMatrix matrix) {
+		super(matrix, Format.RGBA8888, 4);
+	}
+
+	@Override
+	protected void copyRows(FrameSnapshot snapshot, ByteBuffer buffer, int firstRow, int lastRow, int firstColumn,
+			int lastColumn) {
+		int[] colors = snapshot.colors;
+		int width = lastColumn - firstColumn;
+		IntBuffer pixels = buffer.asIntBuffer();
+		for (int row = lastRow - 1; row >= firstRow; row--) {
+			pixels.put(colors, row * columns + firstColumn, width);
+		}
+	}
+
+}
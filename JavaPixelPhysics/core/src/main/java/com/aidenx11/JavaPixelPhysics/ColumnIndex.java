@@ -0,0 +1,205 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor.ElementKinds;
+
+/**
+ * Index of the cells in each column of a CellularMatrix that end the fall of a
+ * falling element. A falling element looks down its column for the nearest
+ * cell that decides whether or not it is falling through air, skipping every
+ * cell in between. Instead of checking those cells one at a time, this index
+ * keeps one bit per cell for each group of types that end a fall, so the
+ * nearest one can be found a whole word of rows at a time.
+ *
+ * The bits of each column are stored bottom up, with every chunk starting a new
+ * word. A word therefore only holds cells of one chunk, so updating the tiles of
+ * a matrix on several threads never has two threads writing the same word. The
+ * index is kept up to date by the CellularMatrix whenever the type of a cell
+ * changes.
+ *
+ * @author Aiden Schroeder
+ */
+public class ColumnIndex {
+
+	/**
+	 * Group of the types that end the fall of a dry movable solid: Empty, Water,
+	 * Lava and every immovable element
+	 */
+	public static final int SOLID = 0;
+
+	/** Group of the types that end the fall of a liquid: Empty and every immovable element */
+	public static final int LIQUID = 1;
+
+	/**
+	 * Group of the types that end the fall of Wet Sand: the SOLID group, Sand and
+	 * both wet solids
+	 */
+	public static final int WET_SAND = 2;
+
+	/**
+	 * Group of the types that end the fall of Wet Dirt: the SOLID group, Dirt and
+	 * both wet solids
+	 */
+	public static final int WET_DIRT = 3;
+
+	/** Number of groups */
+	private static final int GROUPS = 4;
+
+	/** Number of bits in a word */
+	private static final int WORD_SIZE = Long.SIZE;
+
+	/** Groups each type is in as bits, indexed by type id */
+	private final byte[] groupsOfType;
+
+	/** Number of words in each column */
+	private final int wordsPerColumn;
+
+	/** Word of its column each row is stored in */
+	private final int[] wordOfRow;
+
+	/** Bit of its word each row is stored in */
+	private final long[] bitOfRow;
+
+	/** Lowest row stored in each word of a column */
+	private final int[] firstRowOfWord;
+
+	/** Bits of each group, indexed by group and then column * wordsPerColumn + word */
+	private final long[][] words;
+
+	/**
+	 * Creates an index for a matrix of the given size in which every bit is clear
+	 *
+	 * @param rows        number of rows of the matrix
+	 * @param columns     number of columns of the matrix
+	 * @param chunkSize   number of rows and columns of cells in each chunk
+	 * @param descriptors descriptor of each element type, indexed by type id
+	 */
+	public ColumnIndex(int rows, int columns, int chunkSize, ElementDescriptor[] descriptors) {
+		this.groupsOfType = new byte[descriptors.length];
+		for (int i = 0; i < descriptors.length; i++) {
+			groupsOfType[i] = getGroups(descriptors[i]);
+		}
+
+		int wordsPerChunk = (chunkSize + WORD_SIZE - 1) / WORD_SIZE;
+		int chunkRows = (rows + chunkSize - 1) / chunkSize;
+		this.wordsPerColumn = chunkRows * wordsPerChunk;
+		this.wordOfRow = new int[rows];
+		this.bitOfRow = new long[rows];
+		this.firstRowOfWord = new int[wordsPerColumn];
+		for (int row = 0; row < rows; row++) {
+			int rowInChunk = row % chunkSize;
+			int word = (row / chunkSize) * wordsPerChunk + rowInChunk / WORD_SIZE;
+			wordOfRow[row] = word;
+			bitOfRow[row] = 1L << (rowInChunk % WORD_SIZE);
+			if (rowInChunk % WORD_SIZE == 0) {
+				firstRowOfWord[word] = row;
+			}
+		}
+
+		this.words = new long[GROUPS][columns * wordsPerColumn];
+	}
+
+	/**
+	 * Returns the groups the given type is in
+	 *
+	 * @param descriptor descriptor of the type
+	 * @return the groups the type is in as bits
+	 */
+	private static byte getGroups(ElementDescriptor descriptor) {
+		ElementTypes type = descriptor.getType();
+		boolean immovable = descriptor.getKind() == ElementKinds.IMMOVABLE;
+		boolean endsSolid = immovable || type == ElementTypes.EMPTY || type == ElementTypes.WATER
+				|| type == ElementTypes.LAVA;
+		boolean wet = type == ElementTypes.WET_SAND || type == ElementTypes.WET_DIRT;
+
+		int groups = 0;
+		if (endsSolid) {
+			groups |= 1 << SOLID;
+		}
+		if (immovable || type == ElementTypes.EMPTY) {
+			groups |= 1 << LIQUID;
+		}
+		if (endsSolid || wet || type == ElementTypes.SAND) {
+			groups |= 1 << WET_SAND;
+		}
+		if (endsSolid || wet || type == ElementTypes.DIRT) {
+			groups |= 1 << WET_DIRT;
+		}
+		return (byte) groups;
+	}
+
+	/**
+	 * Updates the bits of the given cell after its type has changed
+	 *
+	 * @param row     row of the cell
+	 * @param column  column of the cell
+	 * @param oldType type id the cell had
+	 * @param newType type id the cell has now
+	 */
+	public void changeType(int row, int column, byte oldType, byte newType) {
+		int changed = groupsOfType[oldType] ^ groupsOfType[newType];
+		if (changed == 0) {
+			return;
+		}
+		int word = column * wordsPerColumn + wordOfRow[row];
+		long bit = bitOfRow[row];
+		for (int group = 0; group < GROUPS; group++) {
+			if ((changed & 1 << group) != 0) {
+				words[group][word] ^= bit;
+			}
+		}
+	}
+
+	/**
+	 * Sets the bits of the given cell for its type, no matter what they were
+	 * before
+	 *
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @param type   type id of the cell
+	 */
+	public void setType(int row, int column, byte type) {
+		int groups = groupsOfType[type];
+		int word = column * wordsPerColumn + wordOfRow[row];
+		long bit = bitOfRow[row];
+		for (int group = 0; group < GROUPS; group++) {
+			if ((groups & 1 << group) != 0) {
+				words[group][word] |= bit;
+			} else {
+				words[group][word] &= ~bit;
+			}
+		}
+	}
+
+	/**
+	 * Returns the row of the nearest cell at or below the given cell whose type is
+	 * in the given group
+	 *
+	 * @param group     group to look for
+	 * @param row       row to start looking from
+	 * @param column    column to look in
+	 * @param lowestRow lowest row to look at
+	 * @return the row of the nearest cell in the group, or -1 if there is none
+	 *         between the given row and lowestRow
+	 */
+	public int findBelow(int group, int row, int column, int lowestRow) {
+		long[] groupWords = words[group];
+		int firstWord = column * wordsPerColumn;
+		int word = wordOfRow[row];
+		long bit = bitOfRow[row];
+		long bits = groupWords[firstWord + word] & (bit | (bit - 1));
+
+		while (bits == 0) {
+			if (word == 0 || firstRowOfWord[word] <= lowestRow) {
+				return -1;
+			}
+			word--;
+			bits = groupWords[firstWord + word];
+		}
+
+		int found = firstRowOfWord[word] + WORD_SIZE - 1 - Long.numberOfLeadingZeros(bits);
+		return found >= lowestRow ? found : -1;
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.aidenx11.JavaPixelPhysics;
+
+/**
+ * Small, fast source of random numbers for the simulation. Uses the SplitMix64
+ * generator, which keeps a single long of state and needs no synchronization,
+ * so it is much cheaper than Math.random(), which shares one synchronized
+ * generator between every thread.
+ *
+ * A FastRandom must only be used by one thread at a time. Each CellularMatrix
+ * has its own, and every window a matrix is split into for a parallel update is
+ * given its own as well. Two FastRandoms given the same seed produce the same
+ * numbers, so a seeded matrix can be run again with the same result.
+ *
+ * The state of a generator can be saved with getState() and picked up again
+ * with setSeed(), which lets one generator take turns drawing from several
+ * independent streams, such as one stream per chunk of a matrix.
+ *
+ * @author Aiden Schroeder
+ */
+public final class FastRandom {
+
+	/** Amount the state advances by for each number */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/** Scale that turns 53 random bits into a double in [0, 1) */
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/** Scale that turns 24 random bits into a float in [0, 1) */
+	private static final float FLOAT_UNIT = 1.0f / (1 << 24);
+
+	/** State of the generator */
+	private long state;
+
+	/**
+	 * Creates a generator with a seed that differs between runs
+	 */
+	public FastRandom() {
+		this((long) (Math.random() * Long.MAX_VALUE) ^ System.currentTimeMillis());
+	}
+
+	/**
+	 * Creates a generator with the given seed
+	 *
+	 * @param seed seed of the generator
+	 */
+	public FastRandom(long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * Starts the generator over from the given seed
+	 *
+	 * @param seed seed of the generator
+	 */
+	public void setSeed(long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * Returns the state of the generator. Passing it to setSeed() carries on
+	 * drawing the same numbers the generator would have drawn next.
+	 *
+	 * @return the state of the generator
+	 */
+	public long getState() {
+		return state;
+	}
+
+	/**
+	 * @return a random long, with every value equally likely
+	 */
+	public long nextLong() {
+		return mix(state += GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Returns the seed of the stream of one chunk of a matrix for one frame. Every
+	 * combination of the arguments gives an unrelated seed, so the chunks of a
+	 * seeded matrix draw the same numbers no matter which order they are updated
+	 * in or which thread updates them.
+	 *
+	 * @param seed        seed of the matrix
+	 * @param frame       number of the frame
+	 * @param chunkRow    row of the chunk
+	 * @param chunkColumn column of the chunk
+	 * @return the seed of the stream
+	 */
+	public static long seedOf(long seed, long frame, int chunkRow, int chunkColumn) {
+		long z = mix(seed + GOLDEN_GAMMA);
+		z = mix(z + frame * GOLDEN_GAMMA);
+		return mix(z + (((long) chunkRow << 32) | (chunkColumn & 0xFFFFFFFFL)));
+	}
+
+	/**
+	 * Scrambles the bits of the given long, so that close inputs give unrelated
+	 * outputs
+	 *
+	 * @param z long to scramble
+	 * @return the scrambled long
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * @return a random int, with every value equally likely
+	 */
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	/**
+	 * Returns a random int from 0 up to but not including the given bound
+	 *
+	 * @param bound number of values to pick from, which must be positive
+	 * @return a random int in [0, bound)
+	 */
+	public int nextInt(int bound) {
+		return (int) (((nextLong() >>> 33) * bound) >>> 31);
+	}
+
+	/**
+	 * @return a random float in [0, 1)
+	 */
+	public float nextFloat() {
+		return (nextLong() >>> 40) * FLOAT_UNIT;
+	}
+
+	/**
+	 * @return a random double in [0, 1)
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * @return true or false, each half of the time
+	 */
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+}
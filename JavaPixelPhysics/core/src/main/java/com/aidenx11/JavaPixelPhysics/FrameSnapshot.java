@@ -0,0 +1,98 @@
+package com.aidenx11.JavaPixelPhysics;
+
+/**
+ * What a MatrixRenderer needs to draw one frame of a CellularMatrix: the color
+ * and the palette and shade of every cell, and which chunks changed since the
+ * last frame that was drawn.
+ *
+ * A snapshot either keeps its own copy of the cells, so it can be drawn on one
+ * thread while the matrix goes on updating on another, or shares the cells of
+ * the matrix when it is only ever drawn between updates on the same thread.
+ *
+ * @author Aiden Schroeder
+ */
+public class FrameSnapshot {
+
+	/** Matrix the snapshot is taken of */
+	private final CellularMatrix matrix;
+
+	/** Whether the snapshot shares the cells of the matrix instead of copying them */
+	private final boolean shared;
+
+	/** Color of each cell, packed as RGBA8888 */
+	final int[] colors;
+
+	/** Palette and shade of each cell, as stored by CellGrid */
+	final short[] shades;
+
+	/** Whether each chunk changed, indexed by chunk row and then chunk column */
+	private final boolean[] changed;
+
+	/** Number of columns of chunks covering the matrix */
+	private final int chunkColumns;
+
+	/**
+	 * Creates a snapshot of the given matrix. Nothing is captured until capture()
+	 * is called.
+	 *
+	 * @param matrix matrix to take snapshots of
+	 * @param shared whether to share the cells of the matrix, or to copy them
+	 */
+	public FrameSnapshot(CellularMatrix matrix, boolean shared) {
+		CellGrid grid = matrix.getGrid();
+		this.matrix = matrix;
+		this.shared = shared;
+		this.colors = shared ? grid.colors : new int[grid.colors.length];
+		this.shades = shared ? grid.shades : new short[grid.shades.length];
+		this.chunkColumns = matrix.getChunks().getChunkColumns();
+		this.changed = new boolean[matrix.getChunks().getChunkRows() * chunkColumns];
+	}
+
+	/**
+	 * Captures the current frame of the matrix, and clears the redraw marks of its
+	 * chunks. Must be called after the frame has been updated and before the
+	 * chunks are stepped on to the next frame, while nothing else is changing the
+	 * matrix.
+	 */
+	public void capture() {
+		CellGrid grid = matrix.getGrid();
+		if (!shared) {
+			System.arraycopy(grid.colors, 0, colors, 0, colors.length);
+			System.arraycopy(grid.shades, 0, shades, 0, shades.length);
+		}
+
+		ChunkMap chunks = matrix.getChunks();
+		for (int chunkRow = 0; chunkRow < chunks.getChunkRows(); chunkRow++) {
+			for (int chunkColumn = 0; chunkColumn < chunkColumns; chunkColumn++) {
+				changed[chunkRow * chunkColumns + chunkColumn] = chunks.isChanged(chunkRow, chunkColumn);
+			}
+		}
+		chunks.clearRedraw();
+	}
+
+	/**
+	 * Marks every chunk that changed in the given snapshot as changed in this one
+	 * as well. Used when the given snapshot is replaced by this one without ever
+	 * being drawn.
+	 *
+	 * @param skipped snapshot of an earlier frame that was not drawn
+	 */
+	void addChanges(FrameSnapshot skipped) {
+		for (int i = 0; i < changed.length; i++) {
+			changed[i] |= skipped.changed[i];
+		}
+	}
+
+	/**
+	 * Returns whether any cell of the given chunk may have changed since the last
+	 * frame that was drawn
+	 *
+	 * @param chunkRow    row of the chunk
+	 * @param chunkColumn column of the chunk
+	 * @return true if the chunk needs to be drawn again
+	 */
+	public boolean isChanged(int chunkRow, int chunkColumn) {
+		return changed[chunkRow * chunkColumns + chunkColumn];
+	}
+
+}
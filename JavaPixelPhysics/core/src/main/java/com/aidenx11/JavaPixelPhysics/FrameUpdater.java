@@ -0,0 +1,32 @@
+package com.aidenx11.JavaPixelPhysics;
+
+/**
+ * Updates every cell of a CellularMatrix for one frame, and conducts heat
+ * between them. A CellularMatrix with no FrameUpdater updates itself on the
+ * calling thread, so implementations are used to change how the work of a
+ * frame is carried out, for example by splitting it across several threads.
+ *
+ * @author Aiden Schroeder
+ */
+public interface FrameUpdater {
+
+	/**
+	 * Updates every cell of the given matrix once, using
+	 * CellularMatrix.updateRegion() on the regions of the matrix. All elements
+	 * that move down must be updated before any element that does not.
+	 *
+	 * @param matrix    matrix to update
+	 * @param direction whether to update each row left to right
+	 */
+	void updateFrame(CellularMatrix matrix, boolean direction);
+
+	/**
+	 * Conducts one frame of heat across every cell of the given matrix, using
+	 * CellularMatrix.diffuseHeat() on the regions of the matrix. Each region only
+	 * writes to its own cells, so every region can be conducted at once.
+	 *
+	 * @param matrix matrix to conduct heat in
+	 */
+	void diffuseHeat(CellularMatrix matrix);
+
+}
@@ -0,0 +1,246 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+import space.earlygrey.shapedrawer.ShapeDrawer;
+
+/**
+ * Draws a CellularMatrix to the screen using a single texture with one pixel
+ * per cell. Each frame is drawn from a FrameSnapshot of the matrix, so the
+ * matrix can be updated on another thread meanwhile. Each subclass decides what
+ * is stored in the pixel of a cell. The rows of the snapshot are copied into a
+ * buffer, the buffer is uploaded to the texture, and the texture is drawn as
+ * one quad scaled up by the pixelSizeModifier. Empty cells are drawn
+ * transparent so the background shows through.
+ *
+ * Only the chunks that were activated this frame, or that had a cell change
+ * color, are uploaded again. Each row of chunks is uploaded as strips of
+ * neighboring changed chunks. When most of the chunks changed, the rows are
+ * copied straight into the pixels of the pixmap and the whole texture is
+ * uploaded at once instead.
+ *
+ * @author Aiden Schroeder
+ */
+public abstract class MatrixRenderer implements Disposable {
+
+	/** Matrix being drawn */
+	protected final CellularMatrix matrix;
+
+	/** Number of rows in the matrix */
+	protected final int rows;
+
+	/** Number of columns in the matrix */
+	protected final int columns;
+
+	/** Pixmap holding one pixel per cell, with the top row of the matrix first */
+	private final Pixmap pixmap;
+
+	/** Texture the pixmap is uploaded to */
+	private final Texture texture;
+
+	/** Pixels of a strip of chunks */
+	private final ByteBuffer strip;
+
+	/** Number of bytes in each pixel */
+	private final int bytesPerPixel;
+
+	/** Number of rows and columns of cells in each chunk */
+	private final int chunkSize;
+
+	/** Number of rows of chunks covering the matrix */
+	private final int chunkRows;
+
+	/** Number of columns of chunks covering the matrix */
+	private final int chunkColumns;
+
+	/** Whether the whole texture must be uploaded on the next update */
+	private boolean uploadAll = true;
+
+	/**
+	 * Creates a renderer for the given matrix whose texture has the given format
+	 *
+	 * @param matrix        matrix to draw
+	 * @param format        format of the pixel of each cell
+	 * @param bytesPerPixel number of bytes in a pixel of the format
+	 */
+	protected MatrixRenderer(CellularMatrix matrix, Format format, int bytesPerPixel) {
+		this.matrix = matrix;
+		this.rows = matrix.getGrid().getRows();
+		this.columns = matrix.getGrid().getColumns();
+
+		pixmap = new Pixmap(Math.max(columns, 1), Math.max(rows, 1), format);
+		pixmap.setBlending(Pixmap.Blending.None);
+		texture = new Texture(pixmap);
+		this.bytesPerPixel = bytesPerPixel;
+
+		chunkSize = matrix.getChunkSize();
+		chunkRows = (rows + chunkSize - 1) / chunkSize;
+		chunkColumns = (columns + chunkSize - 1) / chunkSize;
+
+		strip = BufferUtils.newByteBuffer(Math.max(columns, 1) * chunkSize * bytesPerPixel);
+		strip.order(ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Copies the pixels of the cells in the given region of a snapshot into the
+	 * given buffer, starting at the start of the buffer. The top row of the region
+	 * is copied first.
+	 *
+	 * @param snapshot    snapshot to copy from
+	 * @param buffer      buffer to copy into, in big endian order
+	 * @param firstRow    first row of the region
+	 * @param lastRow     row after the last row of the region
+	 * @param firstColumn first column of the region
+	 * @param lastColumn  column after the last column of the region
+	 */
+	protected abstract void copyRows(FrameSnapshot snapshot, ByteBuffer buffer, int firstRow, int lastRow,
+			int firstColumn, int lastColumn);
+
+	/**
+	 * Copies the pixel of every cell that changed in the given snapshot into the
+	 * texture
+	 *
+	 * @param snapshot snapshot of the frame to draw
+	 */
+	public void update(FrameSnapshot snapshot) {
+		int changedChunks = 0;
+		for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++) {
+			for (int chunkColumn = 0; chunkColumn < chunkColumns; chunkColumn++) {
+				if (snapshot.isChanged(chunkRow, chunkColumn)) {
+					changedChunks++;
+				}
+			}
+		}
+
+		if (uploadAll || changedChunks * 2 > chunkRows * chunkColumns) {
+			this.uploadAll(snapshot);
+		} else if (changedChunks > 0) {
+			this.uploadChangedChunks(snapshot);
+		}
+	}
+
+	/**
+	 * Makes the next update upload every cell of the matrix, whether or not its
+	 * chunk changed
+	 */
+	public void invalidate() {
+		uploadAll = true;
+	}
+
+	/**
+	 * Uploads the pixel of every cell of the given snapshot to the texture
+	 *
+	 * @param snapshot snapshot to upload
+	 */
+	private void uploadAll(FrameSnapshot snapshot) {
+		ByteBuffer pixels = pixmap.getPixels();
+		pixels.order(ByteOrder.BIG_ENDIAN);
+		pixels.position(0);
+		this.copyRows(snapshot, pixels, 0, rows, 0, columns);
+		texture.draw(pixmap, 0, 0);
+		uploadAll = false;
+	}
+
+	/**
+	 * Uploads the cells of every changed chunk to the texture. Neighboring changed
+	 * chunks in the same row of chunks are uploaded together as one strip.
+	 *
+	 * @param snapshot snapshot to upload
+	 */
+	private void uploadChangedChunks(FrameSnapshot snapshot) {
+		texture.bind();
+		Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+		for (int chunkRow = 0; chunkRow < chunkRows; chunkRow++) {
+			int chunkColumn = 0;
+			while (chunkColumn < chunkColumns) {
+				if (!snapshot.isChanged(chunkRow, chunkColumn)) {
+					chunkColumn++;
+					continue;
+				}
+				int firstChunkColumn = chunkColumn;
+				while (chunkColumn < chunkColumns && snapshot.isChanged(chunkRow, chunkColumn)) {
+					chunkColumn++;
+				}
+				this.uploadStrip(snapshot, chunkRow * chunkSize, Math.min((chunkRow + 1) * chunkSize, rows),
+						firstChunkColumn * chunkSize, Math.min(chunkColumn * chunkSize, columns));
+			}
+		}
+	}
+
+	/**
+	 * Uploads the given region of a snapshot to the texture. The texture must be
+	 * bound.
+	 *
+	 * @param snapshot    snapshot to upload
+	 * @param firstRow    first row of the region
+	 * @param lastRow     row after the last row of the region
+	 * @param firstColumn first column of the region
+	 * @param lastColumn  column after the last column of the region
+	 */
+	private void uploadStrip(FrameSnapshot snapshot, int firstRow, int lastRow, int firstColumn, int lastColumn) {
+		int width = lastColumn - firstColumn;
+		int height = lastRow - firstRow;
+
+		// The texture stores the top row of the matrix first
+		this.copyRows(snapshot, strip, firstRow, lastRow, firstColumn, lastColumn);
+
+		strip.limit(width * height * bytesPerPixel);
+		Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, firstColumn, rows - lastRow, width, height,
+				pixmap.getGLFormat(), pixmap.getGLType(), strip);
+		strip.clear();
+	}
+
+	/**
+	 * Draws the matrix with the given batch. The batch must have been begun.
+	 *
+	 * @param batch batch to draw with
+	 */
+	public void draw(Batch batch) {
+		batch.draw(texture, 0, 0, columns * matrix.getPixelSizeModifier(),
+				rows * matrix.getPixelSizeModifier());
+	}
+
+	/**
+	 * Outlines the chunks that are active this frame in white, and the ones that
+	 * are only active next frame in red. Used for debugging.
+	 *
+	 * @param shapeDrawer shape drawer to draw with
+	 */
+	public void drawChunks(ShapeDrawer shapeDrawer) {
+		ChunkMap chunks = matrix.getChunks();
+		int size = chunkSize * matrix.getPixelSizeModifier();
+		for (int i = 0; i < chunks.getChunkRows(); i++) {
+			for (int j = 0; j < chunks.getChunkColumns(); j++) {
+				if (chunks.isActiveThisFrame(i, j)) {
+					shapeDrawer.setColor(Color.WHITE);
+					shapeDrawer.rectangle(j * size, i * size, size, size);
+				} else if (chunks.isActiveNextFrame(i, j)) {
+					shapeDrawer.setColor(Color.RED);
+					shapeDrawer.rectangle(j * size, i * size, size, size);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Disposes of the pixmap and texture of this renderer. Subclasses with
+	 * resources of their own dispose of them as well.
+	 */
+	@Override
+	public void dispose() {
+		pixmap.dispose();
+		texture.dispose();
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+import com.aidenx11.JavaPixelPhysics.color.Palette;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * Draws a CellularMatrix by uploading the palette and shade of every cell
+ * instead of its color, and looking the color up on the GPU. Each cell is two
+ * bytes of a LuminanceAlpha texture: the id of its palette and the index of its
+ * shade. Every palette is kept as one row of a second texture, and a shader
+ * picks the color of each pixel out of it. Cells with no color use palette 0,
+ * whose row is transparent.
+ *
+ * Lava changing color as it cools, and burning cells flickering, both change
+ * the palette or shade of the cell, so they are drawn the same way as any
+ * other color.
+ *
+ * @author Aiden Schroeder
+ */
+public class PaletteRenderer extends MatrixRenderer {
+
+	/** Vertex shader, the same as the default shader of a SpriteBatch */
+	private static final String VERTEX_SHADER = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+			+ "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+			+ "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+			+ "uniform mat4 u_projTrans;\n"
+			+ "varying vec2 v_texCoords;\n"
+			+ "void main() {\n"
+			+ "	v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+			+ "	gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+			+ "}\n";
+
+	/** Fragment shader, which looks up the color of each cell in its palette */
+	private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n"
+			+ "precision mediump float;\n"
+			+ "#endif\n"
+			+ "varying vec2 v_texCoords;\n"
+			+ "uniform sampler2D u_texture;\n"
+			+ "uniform sampler2D u_palettes;\n"
+			+ "uniform vec2 u_palettesSize;\n"
+			+ "void main() {\n"
+			+ "	vec4 cell = texture2D(u_texture, v_texCoords);\n"
+			+ "	float palette = floor(cell.r * 255.0 + 0.5);\n"
+			+ "	float shade = floor(cell.a * 255.0 + 0.5);\n"
+			+ "	gl_FragColor = texture2D(u_palettes, vec2((shade + 0.5) / u_palettesSize.x,"
+			+ " (palette + 0.5) / u_palettesSize.y));\n"
+			+ "}\n";
+
+	/** Every shade of every palette, with the palette of each id in that row */
+	private final Pixmap palettePixmap;
+
+	/** Texture the palettes are uploaded to */
+	private final Texture paletteTexture;
+
+	/** Number of palette ids that have been uploaded */
+	private int uploadedPalettes = 1;
+
+	/** Shader that draws the cells, or null until the matrix is first drawn */
+	private ShaderProgram shader;
+
+	/**
+	 * Creates a renderer for the given matrix
+	 *
+	 * @param matrix matrix to draw
+	 */
+	public PaletteRenderer(CellularMatrix matrix) {
+		super(matrix, Format.LuminanceAlpha, 2);
+		palettePixmap = new Pixmap(Palette.SHADES, Palette.MAX_PALETTES, Format.RGBA8888);
+		palettePixmap.setBlending(Pixmap.Blending.None);
+		paletteTexture = new Texture(palettePixmap);
+	}
+
+	@Override
+	protected void copyRows(FrameSnapshot snapshot, ByteBuffer buffer, int firstRow, int lastRow, int firstColumn,
+			int lastColumn) {
+		short[] shades = snapshot.shades;
+		int width = lastColumn - firstColumn;
+		ShortBuffer pixels = buffer.asShortBuffer();
+		for (int row = lastRow - 1; row >= firstRow; row--) {
+			pixels.put(shades, row * columns + firstColumn, width);
+		}
+	}
+
+	/**
+	 * Uploads any palettes created since the last update, then every cell that
+	 * changed in the given snapshot
+	 */
+	@Override
+	public void update(FrameSnapshot snapshot) {
+		int palettes = Palette.getCount();
+		if (palettes != uploadedPalettes) {
+			for (int id = uploadedPalettes; id < palettes; id++) {
+				Palette palette = Palette.get(id);
+				for (int shade = 0; shade < Palette.SHADES; shade++) {
+					palettePixmap.drawPixel(shade, id, palette.getShade(shade));
+				}
+			}
+			paletteTexture.draw(palettePixmap, 0, 0);
+			uploadedPalettes = palettes;
+		}
+		super.update(snapshot);
+	}
+
+	/**
+	 * Draws the matrix with the palette shader. The shader is compiled the first
+	 * time the matrix is drawn.
+	 */
+	@Override
+	public void draw(Batch batch) {
+		if (shader == null) {
+			shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+			if (!shader.isCompiled()) {
+				throw new IllegalStateException("Could not compile the palette shader: " + shader.getLog());
+			}
+		}
+
+		ShaderProgram previous = batch.getShader();
+		batch.setShader(shader);
+		paletteTexture.bind(1);
+		Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+		shader.setUniformi("u_palettes", 1);
+		shader.setUniformf("u_palettesSize", Palette.SHADES, Palette.MAX_PALETTES);
+		super.draw(batch);
+		batch.setShader(previous);
+	}
+
+	/**
+	 * Disposes of the textures and shader of this renderer
+	 */
+	@Override
+	public void dispose() {
+		super.dispose();
+		palettePixmap.dispose();
+		paletteTexture.dispose();
+		if (shader != null) {
+			shader.dispose();
+		}
+	}
+
+}
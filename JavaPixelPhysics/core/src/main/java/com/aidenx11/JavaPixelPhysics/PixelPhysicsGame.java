@@ -1,8 +1,6 @@
 package com.aidenx11.JavaPixelPhysics;
 
-import com.aidenx11.JavaPixelPhysics.elements.Element;
 import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
-import com.aidenx11.JavaPixelPhysics.elements.Empty;
 import com.aidenx11.JavaPixelPhysics.input.MouseInput;
 import com.aidenx11.JavaPixelPhysics.input.MouseInput.BrushTypes;
 import com.aidenx11.JavaPixelPhysics.ui.UIStage;
@@ -18,6 +16,7 @@ import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
@@ -44,16 +43,16 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 	/** Offset of the ui */
 	public static final int uiOffset = 130;
 
-	/** Acceleration due to gravity. Used in movable elements */
-	public static final float GRAVITY_ACCELERATION = 0.1f;
-
 	/** Pixel size modifier of the game */
 	public static int pixelSizeModifier = 5;
 
 	public static int chunkSize = 5;
 
 	/** Matrix for use in the game */
-	public static CellularMatrix matrix;
+	private CellularMatrix matrix;
+
+	/** Draws the matrix to the screen */
+	private MatrixRenderer renderer;
 
 	/** Number of rows of the matrix */
 	public static int rows;
@@ -65,7 +64,31 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 	public static boolean lightsOn = true;
 
 	/** Controls whether the simulation is paused or not */
-	public static boolean isPaused = false;
+	public static volatile boolean isPaused = false;
+
+	/**
+	 * Controls whether the simulation runs several ticks for every frame that is
+	 * drawn, instead of one
+	 */
+	public static volatile boolean turbo = false;
+
+	/** Largest number of ticks run for each frame that is drawn in turbo mode */
+	public static int turboTicks = 64;
+
+	/**
+	 * Time that can be spent running the ticks of each frame in turbo mode, in
+	 * milliseconds. No more ticks are started once it has passed.
+	 */
+	public static float turboBudget = 12f;
+
+	/** Counts the ticks of the simulation, to show how many run each second */
+	public static final TickCounter tickCounter = new TickCounter();
+
+	/**
+	 * Controls whether the matrix is drawn by looking up the palette of each cell
+	 * on the GPU, or by uploading the color of each cell
+	 */
+	public static boolean paletteRendering = false;
 
 	/** Shape drawer to be used in the simulation */
 	public static ShapeDrawer shapeDrawer;
@@ -110,12 +133,82 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 	/** Color of the dark mode background */
 	public static float[] skyColorDark = new float[] { 9 / 255f, 30 / 255f, 54 / 255f };
 
+	/** Updates the matrix each frame, or null to update it on the render thread */
+	private FrameUpdater frameUpdater;
+
 	/**
-	 * Initializes all fields needed for running the game, including camera,
-	 * viewport, shape renderer, matrix, mouse input, and UI.
+	 * Runs the ticks of the simulation, or null to update the matrix once before
+	 * drawing each frame
+	 */
+	private SimulationLoop simulationLoop;
+
+	/**
+	 * Frames of the matrix handed from the simulation loop to the renderer, or
+	 * null if there is no simulation loop
+	 */
+	private SnapshotBuffer snapshots;
+
+	/**
+	 * Snapshot sharing the cells of the matrix, drawn each frame if there is no
+	 * simulation loop
+	 */
+	private FrameSnapshot snapshot;
+
+	/**
+	 * Whether the render thread is waiting to lock the matrix to change it. The
+	 * simulation loop ends its run of turbo ticks early when it is, so that
+	 * drawing to the matrix never waits for more than one tick.
+	 */
+	private volatile boolean inputWaiting;
+
+	/**
+	 * Creates a game that updates the matrix on the render thread
+	 */
+	public PixelPhysicsGame() {
+		this(null);
+	}
+
+	/**
+	 * Creates a game that updates the matrix with the given FrameUpdater
+	 * 
+	 * @param frameUpdater updater to use, or null to update the matrix on the
+	 *                     render thread
+	 */
+	public PixelPhysicsGame(FrameUpdater frameUpdater) {
+		this(frameUpdater, null);
+	}
+
+	/**
+	 * Creates a game that updates the matrix with the given FrameUpdater, and runs
+	 * the ticks of the simulation with the given SimulationLoop. The matrix is
+	 * locked while it is ticked, and while input changes it, so the two never
+	 * happen at once.
+	 * 
+	 * @param frameUpdater   updater to use, or null to update the matrix on the
+	 *                       thread running the ticks
+	 * @param simulationLoop loop to run the ticks on, or null to update the matrix
+	 *                       once before drawing each frame
+	 */
+	public PixelPhysicsGame(FrameUpdater frameUpdater, SimulationLoop simulationLoop) {
+		this.frameUpdater = frameUpdater;
+		this.simulationLoop = simulationLoop;
+	}
+
+	/**
+	 * Initializes all fields needed for running the game, and starts the
+	 * simulation loop if there is one.
 	 */
 	@Override
 	public void create() {
+		this.createScene();
+		this.startSimulation();
+	}
+
+	/**
+	 * Initializes all fields needed for running the game, including camera,
+	 * viewport, shape renderer, matrix, mouse input, and UI.
+	 */
+	private void createScene() {
 
 		// Initializes the camera to screen width and height
 		camera = new OrthographicCamera();
@@ -153,6 +246,13 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 
 		// Initialize the matrix
 		matrix = new CellularMatrix(rows, columns, pixelSizeModifier, chunkSize);
+		matrix.setFrameUpdater(frameUpdater);
+		renderer = paletteRendering ? new PaletteRenderer(matrix) : new ColorRenderer(matrix);
+		if (simulationLoop == null) {
+			snapshot = new FrameSnapshot(matrix, true);
+		} else {
+			snapshots = new SnapshotBuffer(matrix);
+		}
 
 		// Initialize mouse input and set brush and cursor size to 1, and brush set to
 		// circle with sand selected
@@ -178,6 +278,69 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 
 	}
 
+	/**
+	 * Starts running the ticks of the simulation on the simulation loop, if there
+	 * is one
+	 */
+	private void startSimulation() {
+		if (simulationLoop != null) {
+			simulationLoop.start(this::tick);
+		}
+	}
+
+	/**
+	 * Runs one tick of the simulation on the simulation loop, or in turbo mode as
+	 * many as turboTicks that fit in turboBudget. The matrix is updated unless
+	 * the game is paused, and a snapshot of the last tick is published for the
+	 * renderer. The chunks of the other ticks are stepped on without being drawn.
+	 * While the game is paused, a snapshot is only published if the matrix was
+	 * changed, for example by drawing to it.
+	 * 
+	 * The matrix is locked for one tick at a time, and the run ends early if the
+	 * render thread is waiting to change the matrix.
+	 */
+	private void tick() {
+		int ticks = turbo && !isPaused ? Math.max(turboTicks, 1) : 1;
+		long deadline = TimeUtils.nanoTime() + (long) (turboBudget * 1_000_000L);
+		for (int i = 0; i < ticks; i++) {
+			synchronized (matrix) {
+				if (i > 0) {
+					matrix.skipChunks();
+				}
+				if (!isPaused) {
+					matrix.updateFrame();
+					tickCounter.tick();
+				}
+				if (i == ticks - 1 || inputWaiting || TimeUtils.nanoTime() - deadline >= 0) {
+					if (!isPaused || matrix.getChunks().isAnyChanged()) {
+						snapshots.getBack().capture();
+						snapshots.publish();
+					}
+					matrix.stepChunks();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the matrix for the next frame to be drawn when there is no
+	 * simulation loop. Runs one tick, or in turbo mode as many as turboTicks that
+	 * fit in turboBudget. The chunks are stepped on after every tick but the last
+	 * one, since only the last one is drawn.
+	 */
+	private void updateMatrix() {
+		int ticks = turbo ? turboTicks : 1;
+		long deadline = TimeUtils.nanoTime() + (long) (turboBudget * 1_000_000L);
+		matrix.updateFrame();
+		tickCounter.tick();
+		for (int i = 1; i < ticks && TimeUtils.nanoTime() - deadline < 0; i++) {
+			matrix.skipChunks();
+			matrix.updateFrame();
+			tickCounter.tick();
+		}
+	}
+
 	/**
 	 * Updates the viewport each frame. Performs all game logic and drawing of
 	 * background and UI every frame.
@@ -199,14 +362,29 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 
 		// Detects mouse input and performs manipulation on matrix depending on brush
 		// type/size/element etc.
-		mouse.detectInput(shapeDrawer);
-
-		// Perform matrix update logic for all elements and draw it to the screen
-		if (!isPaused) {
-			matrix.updateFrame(shapeDrawer);
+		if (Gdx.input.isTouched()) {
+			inputWaiting = true;
+			synchronized (matrix) {
+				inputWaiting = false;
+				mouse.detectInput(shapeDrawer);
+			}
 		}
 
-		matrix.draw(shapeDrawer);
+		// Perform matrix update logic for all elements, unless the simulation loop
+		// does, and draw the newest frame to the screen
+		if (simulationLoop == null) {
+			if (!isPaused) {
+				this.updateMatrix();
+			}
+			snapshot.capture();
+			renderer.update(snapshot);
+		} else {
+			FrameSnapshot published = snapshots.take();
+			if (published != null) {
+				renderer.update(published);
+			}
+		}
+		renderer.draw(batch);
 
 		if (lightsOn) {
 			shapeDrawer.setColor(Color.GRAY);
@@ -221,7 +399,7 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 		buttonStage.act();
 
 //		 Used for debugging
-//		CellularMatrix.drawChunks(shapeDrawer);
+//		renderer.drawChunks(shapeDrawer);
 
 		batch.end();
 
@@ -234,7 +412,9 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 		
 		batch.end();
 
-		CellularMatrix.stepChunks();
+		if (simulationLoop == null) {
+			matrix.stepChunks();
+		}
 
 		if (UIStage.brushSizeSlider.isDragging()) {
 			mouse.setBrushSize((int) UIStage.brushSizeSlider.getValue());
@@ -257,41 +437,21 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 		SCREEN_WIDTH = width;
 		SCREEN_HEIGHT = height;
 
-		// Store the old matrix
-		CellularMatrix oldMatrix = new CellularMatrix(rows >= 0 ? rows : 0, columns >= 0 ? columns : 0,
-				pixelSizeModifier, chunkSize);
-		int oldRows = rows;
-		int oldCols = columns;
-
-		CellularMatrix.resetChunks();
-
-		// fill the old matrix
-		for (int row = 0; row < CellularMatrix.rows; row++) {
-			for (int col = 0; col < CellularMatrix.columns; col++) {
-				oldMatrix.setElement(matrix.getElement(row, col, false, false));
-			}
+		// Keep the old matrix so its cells can be copied into the new one
+		if (simulationLoop != null) {
+			simulationLoop.stop();
 		}
+		CellularMatrix oldMatrix = matrix;
+		renderer.dispose();
 
 		// update the screen to set it to new size
-		this.create();
-
-		// Re populate the new size matrix with as much of the old matrix as possible
-		for (int row = 0; row < CellularMatrix.rows; row++) {
-			for (int col = 0; col < CellularMatrix.columns; col++) {
-				Element elementToSet;
-				if (row >= 0 && row < oldRows && col >= 0 && col < oldCols) {
-					elementToSet = oldMatrix.getElement(row, col, false, false);
-				} else {
-					elementToSet = new Empty(row, col);
-				}
-				elementToSet.setRow(row);
-				elementToSet.setColumn(col);
-				matrix.setElement(elementToSet);
-			}
-		}
+		this.createScene();
 
-		// Get rid of the old matrix
-		oldMatrix.clear();
+		// Re populate the new size matrix with as much of the old matrix as possible,
+		// before the simulation loop can tick or publish the empty matrix
+		matrix.copyFrom(oldMatrix);
+		renderer.invalidate();
+		this.startSimulation();
 
 	}
 
@@ -300,9 +460,13 @@ public class PixelPhysicsGame extends ApplicationAdapter {
 	 */
 	@Override
 	public void dispose() {
+		if (simulationLoop != null) {
+			simulationLoop.stop();
+		}
 		batch.dispose();
 		texture.dispose();
 		buttonStage.dispose();
+		renderer.dispose();
 		matrix = null;
 		System.gc();
 	}
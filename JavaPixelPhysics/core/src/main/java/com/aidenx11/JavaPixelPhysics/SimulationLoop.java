@@ -0,0 +1,26 @@
+package com.aidenx11.JavaPixelPhysics;
+
+/**
+ * Runs the ticks of the simulation apart from the frames that are drawn. A game
+ * with no SimulationLoop updates the matrix once before drawing each frame, so
+ * implementations are used to update it at a rate of their own, for example on
+ * a thread of its own.
+ *
+ * @author Aiden Schroeder
+ */
+public interface SimulationLoop {
+
+	/**
+	 * Starts calling the given tick over and over, until stop() is called
+	 *
+	 * @param tick runs one tick of the simulation
+	 */
+	void start(Runnable tick);
+
+	/**
+	 * Stops calling the tick, and waits for the tick in progress to finish. Does
+	 * nothing if the loop was never started.
+	 */
+	void stop();
+
+}
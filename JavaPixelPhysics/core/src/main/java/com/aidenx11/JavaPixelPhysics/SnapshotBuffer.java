@@ -0,0 +1,82 @@
+package com.aidenx11.JavaPixelPhysics;
+
+/**
+ * Triple buffer of FrameSnapshots, used to hand the frames of a CellularMatrix
+ * updating on one thread to a renderer drawing them on another. The updating
+ * thread captures each frame into the back snapshot and publishes it, and the
+ * drawing thread takes the newest published snapshot whenever it draws. Neither
+ * thread ever waits for the other to finish with a snapshot.
+ *
+ * If a snapshot is published again before the last one was taken, the last one
+ * is dropped and the chunks that changed in it are carried over, so that the
+ * renderer still redraws them.
+ *
+ * @author Aiden Schroeder
+ */
+public class SnapshotBuffer {
+
+	/** Snapshot being drawn */
+	private FrameSnapshot front;
+
+	/** Newest published snapshot */
+	private FrameSnapshot ready;
+
+	/** Snapshot being captured */
+	private FrameSnapshot back;
+
+	/** Whether the ready snapshot was published since the last one was taken */
+	private boolean fresh;
+
+	/**
+	 * Creates a buffer of three copying snapshots of the given matrix
+	 *
+	 * @param matrix matrix to take snapshots of
+	 */
+	public SnapshotBuffer(CellularMatrix matrix) {
+		front = new FrameSnapshot(matrix, false);
+		ready = new FrameSnapshot(matrix, false);
+		back = new FrameSnapshot(matrix, false);
+	}
+
+	/**
+	 * Returns the snapshot to capture the next frame into. Only the publishing
+	 * thread may use it, until it is published.
+	 *
+	 * @return the back snapshot
+	 */
+	public synchronized FrameSnapshot getBack() {
+		return back;
+	}
+
+	/**
+	 * Publishes the back snapshot as the newest frame
+	 */
+	public synchronized void publish() {
+		if (fresh) {
+			back.addChanges(ready);
+		}
+		FrameSnapshot published = back;
+		back = ready;
+		ready = published;
+		fresh = true;
+	}
+
+	/**
+	 * Takes the newest published snapshot to draw. The snapshot stays the drawing
+	 * thread's until take() is called again.
+	 *
+	 * @return the newest snapshot, or null if none was published since the last
+	 *         one was taken
+	 */
+	public synchronized FrameSnapshot take() {
+		if (!fresh) {
+			return null;
+		}
+		FrameSnapshot taken = ready;
+		ready = front;
+		front = taken;
+		fresh = false;
+		return taken;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Counts the ticks of the simulation, and works out how many were run each
+ * second. The count is taken over windows of one second, so the rate shown
+ * changes at most once a second. Ticks can be counted on one thread while the
+ * rate is read on another.
+ *
+ * @author Aiden Schroeder
+ */
+public class TickCounter {
+
+	/** Length of each window ticks are counted over, in nanoseconds */
+	private static final long WINDOW_NANOS = 1_000_000_000L;
+
+	/** Time the current window started at, in nanoseconds */
+	private long windowStart = TimeUtils.nanoTime();
+
+	/** Number of ticks counted in the current window */
+	private int ticks;
+
+	/** Ticks per second counted over the last window */
+	private int ticksPerSecond;
+
+	/**
+	 * Counts one tick
+	 */
+	public synchronized void tick() {
+		this.roll();
+		ticks++;
+	}
+
+	/**
+	 * @return the number of ticks counted each second over the last window, or
+	 *         zero if none were
+	 */
+	public synchronized int getTicksPerSecond() {
+		this.roll();
+		return ticksPerSecond;
+	}
+
+	/**
+	 * Starts a new window if the current one is over
+	 */
+	private void roll() {
+		long now = TimeUtils.nanoTime();
+		long elapsed = now - windowStart;
+		if (elapsed >= WINDOW_NANOS) {
+			ticksPerSecond = (int) (ticks * WINDOW_NANOS / elapsed);
+			ticks = 0;
+			windowStart = now;
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.aidenx11.JavaPixelPhysics;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of the frames the lifetimes of the cells of a
+ * CellularMatrix end on. Instead of every cell with limited life counting down
+ * its lifetime each frame, the frame its life ends on is stored in the cell and
+ * scheduled here, and the matrix wakes the cell once that frame comes.
+ *
+ * Each frame hashes to one of the slots of the wheel, so only the cells
+ * scheduled for the current frame, or for a multiple of the size of the wheel
+ * after it, are looked at each frame. A scheduled cell may move or be replaced
+ * before its life ends, so the matrix checks each cell again before waking it.
+ *
+ * Cells can be scheduled from several threads at once.
+ *
+ * @author Aiden Schroeder
+ */
+class TimingWheel {
+
+	/** Number of slots of the wheel. Must be a power of two */
+	private static final int SLOTS = 256;
+
+	/** Starting number of entries of each slot */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** Index of the cell of each entry of each slot */
+	private final int[][] cells = new int[SLOTS][INITIAL_CAPACITY];
+
+	/** Frame each entry of each slot is due on */
+	private final int[][] frames = new int[SLOTS][INITIAL_CAPACITY];
+
+	/** Number of entries in each slot */
+	private final int[] sizes = new int[SLOTS];
+
+	/**
+	 * Schedules the given cell to be looked at on the given frame
+	 *
+	 * @param cell  index of the cell
+	 * @param frame frame to look at the cell on
+	 */
+	synchronized void schedule(int cell, int frame) {
+		int slot = frame & (SLOTS - 1);
+		int size = sizes[slot];
+		if (size == cells[slot].length) {
+			cells[slot] = Arrays.copyOf(cells[slot], size * 2);
+			frames[slot] = Arrays.copyOf(frames[slot], size * 2);
+		}
+		cells[slot][size] = cell;
+		frames[slot][size] = frame;
+		sizes[slot] = size + 1;
+	}
+
+	/**
+	 * Removes every cell due on or before the given frame from its slot, and has
+	 * the given matrix wake it if its life really ends then
+	 *
+	 * @param frame  frame whose cells are due
+	 * @param matrix matrix the cells are in
+	 */
+	synchronized void expire(int frame, CellularMatrix matrix) {
+		int slot = frame & (SLOTS - 1);
+		int[] slotCells = cells[slot];
+		int[] slotFrames = frames[slot];
+		int kept = 0;
+		for (int i = 0; i < sizes[slot]; i++) {
+			if (slotFrames[i] - frame <= 0) {
+				matrix.wakeIfLifeEnds(slotCells[i], slotFrames[i]);
+			} else {
+				slotCells[kept] = slotCells[i];
+				slotFrames[kept] = slotFrames[i];
+				kept++;
+			}
+		}
+		sizes[slot] = kept;
+	}
+
+	/**
+	 * Removes every scheduled cell
+	 */
+	synchronized void clear() {
+		Arrays.fill(sizes, 0);
+	}
+
+}
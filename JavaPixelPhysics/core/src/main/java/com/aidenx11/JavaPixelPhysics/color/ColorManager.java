@@ -1,5 +1,6 @@
 package com.aidenx11.JavaPixelPhysics.color;
 
+import com.aidenx11.JavaPixelPhysics.FastRandom;
 import com.badlogic.gdx.graphics.Color;
 
 /**
@@ -13,44 +14,25 @@ public class ColorManager extends Color {
 	/**
 	 * Varies the saturation and lightness of a color and returns it as a hex string
 	 * 
-	 * @param color color to be varied
+	 * @param color  color to be varied
+	 * @param random random number generator to vary the color with
 	 * @return the varied color as a hex string
 	 */
-	public static int[] varyColor(CustomColor color) {
-		int[] hslValues = convertToHSLFromRGB(new int[] { color.getR(), color.getG(), color.getB() });
-
-		double saturation = hslValues[1] + Math.floor(Math.random() * 20 - 20);
-
-		if (saturation > 100) {
-			saturation = 100;
-		} else if (saturation < 0) {
-			saturation = 0;
-		}
-
-		double lightness = hslValues[2] + Math.floor(Math.random() * 20 - 10);
-
-		if (lightness > 100) {
-			lightness = 100;
-		} else if (lightness < 0) {
-			lightness = 0;
-		}
-
-		hslValues[1] = (int) Math.round(saturation);
-		hslValues[2] = (int) Math.round(lightness);
-
-		return convertToRGBFromHSL(hslValues);
+	public static int[] varyColor(CustomColor color, FastRandom random) {
+		return varyColor(new int[] { color.getR(), color.getG(), color.getB() }, random);
 	}
 	
 	/**
 	 * Varies the saturation and lightness of a color and returns it as a hex string
 	 * 
-	 * @param color color to be varied
+	 * @param color  color to be varied
+	 * @param random random number generator to vary the color with
 	 * @return the varied color as a hex string
 	 */
-	public static int[] varyColor(int[] rgb) {
+	public static int[] varyColor(int[] rgb, FastRandom random) {
 		int[] hslValues = convertToHSLFromRGB(rgb);
 
-		double saturation = hslValues[1] + Math.floor(Math.random() * 20 - 20);
+		double saturation = hslValues[1] + Math.floor(random.nextDouble() * 20 - 20);
 
 		if (saturation > 100) {
 			saturation = 100;
@@ -58,7 +40,7 @@ public class ColorManager extends Color {
 			saturation = 0;
 		}
 
-		double lightness = hslValues[2] + Math.floor(Math.random() * 20 - 10);
+		double lightness = hslValues[2] + Math.floor(random.nextDouble() * 20 - 10);
 
 		if (lightness > 100) {
 			lightness = 100;
@@ -1,5 +1,7 @@
 package com.aidenx11.JavaPixelPhysics.color;
 
+import com.aidenx11.JavaPixelPhysics.FastRandom;
+
 /**
  * Class to handle custom colors for the simulation. Primarily created to use
  * the colorValue enumeration. May be better to just use the color class.
@@ -19,6 +21,12 @@ public class CustomColor extends ColorManager {
 
 	public boolean varyColor;
 
+	/** Varied shades of this color, or null until they are first needed */
+	private volatile Palette palette;
+
+	/** Palette of this color alone, or null until it is first needed */
+	private volatile Palette solidPalette;
+
 	/**
 	 * Enumeration to handle custom color values for elements and rainbow colors
 	 */
@@ -36,6 +44,9 @@ public class CustomColor extends ColorManager {
 		private int g;
 		private int b;
 
+		/** Shades of the color */
+		private final Palette palette;
+
 		/**
 		 * Constructor for ColorValue
 		 * 
@@ -45,6 +56,14 @@ public class CustomColor extends ColorManager {
 			this.r = r;
 			this.g = g;
 			this.b = b;
+			this.palette = new Palette(new int[] { r, g, b });
+		}
+
+		/**
+		 * @return the shades of the color
+		 */
+		public Palette getPalette() {
+			return palette;
 		}
 
 		/**
@@ -68,11 +87,14 @@ public class CustomColor extends ColorManager {
 		int[] rgb;
 		this.varyColor = varyColor;
 		if (varyColor) {
-			rgb = varyColor(colorValue.getRGB());
+			rgb = varyColor(colorValue.getRGB(), new FastRandom());
 		} else {
 			rgb = colorValue.getRGB();
 		}
 		setColor(rgb);
+		if (!varyColor) {
+			palette = colorValue.getPalette();
+		}
 	}
 
 	/**
@@ -158,10 +180,63 @@ public class CustomColor extends ColorManager {
 	 * Varies the color of this color (saturation and lightness) using the varyColor
 	 * method in ColorManager
 	 * 
+	 * @param random random number generator to vary the color with
 	 * @return and integer array containing the rgb values of the varied color
 	 */
-	public int[] varyColor() {
-		return super.varyColor(this);
+	public int[] varyColor(FastRandom random) {
+		return super.varyColor(this, random);
+	}
+
+	/**
+	 * Packs the given rgb values into a single opaque RGBA8888 int
+	 * 
+	 * @param r red value
+	 * @param g green value
+	 * @param b blue value
+	 * @return the color packed as RGBA8888
+	 */
+	public static int pack(int r, int g, int b) {
+		return (r & 0xff) << 24 | (g & 0xff) << 16 | (b & 0xff) << 8 | 0xff;
+	}
+
+	/**
+	 * Returns the varied shades of this color, working them out the first time
+	 * they are needed
+	 * 
+	 * @return the varied shades of this color
+	 */
+	public Palette getPalette() {
+		Palette shades = palette;
+		if (shades == null) {
+			synchronized (this) {
+				shades = palette;
+				if (shades == null) {
+					shades = new Palette(new int[] { r, g, b }, true);
+					palette = shades;
+				}
+			}
+		}
+		return shades;
+	}
+
+	/**
+	 * Returns a palette whose every shade is this color, creating it the first
+	 * time it is needed
+	 * 
+	 * @return the solid palette of this color
+	 */
+	public Palette getSolidPalette() {
+		Palette shades = solidPalette;
+		if (shades == null) {
+			synchronized (this) {
+				shades = solidPalette;
+				if (shades == null) {
+					shades = new Palette(new int[] { r, g, b }, false);
+					solidPalette = shades;
+				}
+			}
+		}
+		return shades;
 	}
 
 	/**
@@ -174,6 +249,8 @@ public class CustomColor extends ColorManager {
 		r = rgb[0];
 		g = rgb[1];
 		b = rgb[2];
+		palette = null;
+		solidPalette = null;
 	}
 
 }
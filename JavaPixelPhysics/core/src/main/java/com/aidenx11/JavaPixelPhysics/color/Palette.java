@@ -0,0 +1,124 @@
+package com.aidenx11.JavaPixelPhysics.color;
+
+import com.aidenx11.JavaPixelPhysics.FastRandom;
+
+/**
+ * Fixed set of shades of one color, each varied in saturation and lightness
+ * the same way as ColorManager.varyColor(). The shades are worked out once when
+ * the palette is created, so giving a new cell a varied color is only a matter
+ * of picking one of them, and a cell only needs to remember the index of its
+ * shade. A palette can also be solid, with every shade the color itself.
+ *
+ * The shades are varied with a generator seeded from the color itself, so a
+ * palette of the same color always has the same shades.
+ *
+ * Every palette is given an id when it is created, so that a cell can be drawn
+ * from just the id of its palette and the index of its shade. Id 0 is never
+ * used, and stands for a cell with no color.
+ *
+ * @author Aiden Schroeder
+ */
+public class Palette {
+
+	/** Number of shades in every palette */
+	public static final int SHADES = 64;
+
+	/** Largest number of palettes that can be created, counting id 0 */
+	public static final int MAX_PALETTES = 256;
+
+	/** Every palette created so far, indexed by id */
+	private static final Palette[] palettes = new Palette[MAX_PALETTES];
+
+	/** Number of ids given out so far, counting id 0 */
+	private static int count = 1;
+
+	/** Id of this palette */
+	private final int id;
+
+	/** Each shade of the color, packed as RGBA8888 */
+	private final int[] shades = new int[SHADES];
+
+	/**
+	 * Creates a palette of varied shades of the given color
+	 *
+	 * @param rgb integer array of the rgb values of the color
+	 */
+	public Palette(int[] rgb) {
+		this(rgb, true);
+	}
+
+	/**
+	 * Creates a palette of shades of the given color
+	 *
+	 * @param rgb    integer array of the rgb values of the color
+	 * @param varied whether to vary the shades, or to make every shade the color
+	 *               itself
+	 */
+	public Palette(int[] rgb, boolean varied) {
+		int base = pack(rgb);
+		FastRandom random = new FastRandom(base);
+		for (int i = 0; i < SHADES; i++) {
+			shades[i] = varied ? pack(ColorManager.varyColor(rgb, random)) : base;
+		}
+		this.id = register(this);
+	}
+
+	/**
+	 * Gives the given palette the next free id
+	 *
+	 * @param palette palette to register
+	 * @return the id of the palette
+	 */
+	private static synchronized int register(Palette palette) {
+		if (count == MAX_PALETTES) {
+			throw new IllegalStateException("Cannot create more than " + (MAX_PALETTES - 1) + " palettes");
+		}
+		palettes[count] = palette;
+		return count++;
+	}
+
+	/**
+	 * Returns the palette with the given id
+	 *
+	 * @param id id of the palette
+	 * @return the palette, or null if no palette has the id
+	 */
+	public static synchronized Palette get(int id) {
+		return palettes[id];
+	}
+
+	/**
+	 * @return the number of ids given out so far, counting id 0
+	 */
+	public static synchronized int getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the id of this palette, from 1 to MAX_PALETTES - 1
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the given shade of the color
+	 *
+	 * @param shade index of the shade, from 0 to SHADES - 1
+	 * @return the shade packed as RGBA8888
+	 */
+	public int getShade(int shade) {
+		return shades[shade];
+	}
+
+	/**
+	 * Packs the given rgb values into a single int
+	 *
+	 * @param rgb integer array of rgb values
+	 * @return the color packed as opaque RGBA8888
+	 */
+	private static int pack(int[] rgb) {
+		return CustomColor.pack(rgb[0], rgb[1], rgb[2]);
+	}
+
+}
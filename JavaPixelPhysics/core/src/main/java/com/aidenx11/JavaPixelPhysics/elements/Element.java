@@ -1,46 +1,52 @@
 package com.aidenx11.JavaPixelPhysics.elements;
 
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.FastRandom;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Fire;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Steel;
-import com.aidenx11.JavaPixelPhysics.elements.movable.gas.Smoke;
-import com.aidenx11.JavaPixelPhysics.elements.movable.gas.Steam;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Water;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid.WetDirt;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid.WetSand;
-import com.badlogic.gdx.graphics.Color;
+import com.aidenx11.JavaPixelPhysics.color.Palette;
 
 /**
- * Super class of all elements. Contains fields for parent matrix, element type,
- * location, color, density, lifetime, and more.
- * 
+ * Super class of all elements. Only one instance of each element type exists,
+ * and it is shared by every cell of that type in a CellularMatrix. The instance
+ * holds the properties that are the same for every cell of its type, such as
+ * density and color, along with the starting values for the state of a newly
+ * created cell. The state of each individual cell (velocity, lifetime, whether
+ * it is on fire, etc.) is stored in the matrix, and every method that acts on a
+ * cell is given the matrix along with the row and column of the cell.
+ *
+ * The properties of an element are only set while it is constructed. Each
+ * CellularMatrix copies them into an immutable ElementDescriptor per type, which
+ * its update loop reads by type id.
+ *
+ * What happens when an element touches another one is described by the
+ * Reactions it adds while it is constructed. Elements call react() to carry out
+ * their reactions with every adjacent cell in one pass.
+ *
  * @author Aiden Schroeder
  */
 public abstract class Element {
 
 	/** Type of this element */
-	public static ElementTypes type;
-
-	/** Row location of this element */
-	private int row;
+	private ElementTypes type;
 
-	/** Column location of this element */
-	private int column;
-
-	private int[] color;
+	/** Color of this element before it is varied */
+	private CustomColor color;
 
 	/** Density of this element */
 	private int density;
 
-	/** Whether or not this element has a limited life (can die) */
+	/** Whether or not a new cell of this element has a limited life (can die) */
 	private boolean limitedLife;
 
-	/** Number of frames the element can stay alive if it has limited life */
+	/** Number of frames a new cell of this element can stay alive if it has limited life */
 	private int lifetime;
 
-	/** Melting point of this element */
-	private int meltingPoint;
+	/** Starting temperature of a new cell of this element */
+	private int temperature;
 
 	/** Whether or not this element is flammable */
 	private boolean isFlammable;
@@ -54,12 +60,15 @@ public abstract class Element {
 	/** Whether or not this element moves down */
 	private boolean movesDown;
 
-	/** Whether or not this element is on fire */
+	/** Whether or not a new cell of this element is on fire */
 	private boolean onFire;
 
-	/** Whether or not this element is falling through air */
+	/** Whether or not a new cell of this element is falling through air */
 	private boolean fallingThroughAir = false;
 
+	/** Reactions of this element with other elements, in the order they are checked */
+	private final List<Reaction> reactions = new ArrayList<>();
+
 	/**
 	 * Public enumeration that contains all the types of elements in the simulation
 	 */
@@ -68,6 +77,21 @@ public abstract class Element {
 		RUST, VOID;
 	}
 
+	/** Orders of the adjacent cells returned by getShuffledDirections() */
+	private static final int[][] directionOrders = createDirectionOrders();
+
+	/**
+	 * Row offsets of the cells above and to the sides of a fire, in the order they
+	 * are checked by checkForExtinguishingElements()
+	 */
+	private static final int[] aboveRowOffsets = new int[] { 1, 1, 1, 0, 0 };
+
+	/**
+	 * Column offsets of the cells above and to the sides of a fire, in the order
+	 * they are checked by checkForExtinguishingElements()
+	 */
+	private static final int[] aboveColumnOffsets = new int[] { 0, -1, 1, -1, 1 };
+
 	/**
 	 * CustomColor array to keep track of the colors an element alternates through
 	 * when it is burning
@@ -77,16 +101,52 @@ public abstract class Element {
 
 	/**
 	 * Abstract update method that varies based on the element inheriting it
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell being updated
+	 * @param column column of the cell being updated
+	 */
+	public abstract void update(CellularMatrix matrix, int row, int column);
+
+	/**
+	 * Updates the given cell while it is asleep, meaning nothing around it has
+	 * changed recently. Asleep cells are only updated every few frames, so this
+	 * should do the work of the given number of frames at once. Does nothing
+	 * unless overridden by an element that changes over time even when left
+	 * alone. Elements that override this must also override updatesAsleep().
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell being updated
+	 * @param column column of the cell being updated
+	 * @param frames number of frames since the cell was last updated asleep
 	 */
-	public abstract void update();
+	public void updateAsleep(CellularMatrix matrix, int row, int column, int frames) {
+	}
+
+	/**
+	 * @return whether updateAsleep() does anything for this element
+	 */
+	public boolean updatesAsleep() {
+		return false;
+	}
+
+	/**
+	 * Returns the share of the difference in temperature this element conducts to
+	 * and from each cell around it every frame. Heat only flows between two cells
+	 * that both conduct, at the lower conductivity of the two. Elements that do
+	 * not conduct heat return 0.
+	 *
+	 * @return the conductivity of this element, at most 1/8
+	 */
+	public float getConductivity() {
+		return 0f;
+	}
 
 	/**
 	 * Default constructor for Element. Every subclass of Element calls up to this
 	 * constructor.
-	 * 
+	 *
 	 * @param type               Type of this element, from ElementTypes enumeration
-	 * @param row                row location of this element
-	 * @param column             column location of this element
 	 * @param color              color of this element
 	 * @param canDie             whether or not this element can die/has limited
 	 *                           life
@@ -100,13 +160,10 @@ public abstract class Element {
 	 * @param movesDown          whether or not this element moves downward
 	 * @param temperature        temperature of this element
 	 */
-	public Element(ElementTypes type, int row, int column, CustomColor color, boolean canDie, int lifetime,
-			boolean flammable, boolean extinguishesThings, float chanceToCatch, boolean movesDown, int temperature) {
+	public Element(ElementTypes type, CustomColor color, boolean canDie, int lifetime, boolean flammable,
+			boolean extinguishesThings, float chanceToCatch, boolean movesDown, int temperature) {
 		setType(type);
-		setRow(row);
-		setColumn(column);
 		setColor(color);
-		setType(type);
 		setLifetime(lifetime);
 		setFlammable(flammable);
 		setExtinguishesThings(extinguishesThings);
@@ -114,74 +171,220 @@ public abstract class Element {
 		setLimitedLife(canDie);
 		setMovesDown(movesDown);
 		setTemperature(temperature);
+	}
 
-		if (color != null && !(this instanceof Water)) {
-			this.setColor(color.varyColor());
-		}
+	/**
+	 * Sets the state of a newly created cell of this element. Called by the matrix
+	 * after the cell has been reset, so only state that differs from zero needs to
+	 * be set. Subclasses override this to randomize the state of each new cell.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the new cell
+	 * @param column column of the new cell
+	 */
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		matrix.setLifetime(row, column, lifetime);
+		matrix.setTemperature(row, column, temperature);
+		matrix.setLimitedLife(row, column, limitedLife);
+		matrix.setOnFire(row, column, onFire);
+		matrix.setExtinguishesThings(row, column, extinguishesThings);
+		matrix.setFallingThroughAir(row, column, fallingThroughAir);
 
+		if (color != null && type != ElementTypes.WATER) {
+			matrix.setColor(row, column, color.getPalette(), matrix.getRandom().nextInt(Palette.SHADES));
+		} else {
+			matrix.setColor(row, column, color);
+		}
 	}
 
 	/**
-	 * Updates the lifetime of this element. Also causes the element to flicker if
-	 * it is on fire.
-	 */
-	public void updateElementLife() {
-		if (this.limitedLife() && this.getLifetime() < 1) {
-			if (this instanceof Smoke || this instanceof Steam) {
-				PixelPhysicsGame.matrix.clearElement(this);
-			} else if (this instanceof Fire || this.isOnFire()) {
-				if (Math.random() < 0.3) {
-					PixelPhysicsGame.matrix.setElement(new Smoke(this.getRow(), this.getColumn()));
+	 * Checks whether the lifetime of the given cell has run out, and if it has,
+	 * replaces the cell. The lifetime itself is not counted down here, since the
+	 * matrix keeps the frame it runs out on. Also causes the cell to flicker if it
+	 * is on fire.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return true if the cell died and was replaced by another element
+	 */
+	public boolean updateElementLife(CellularMatrix matrix, int row, int column) {
+		if (matrix.limitedLife(row, column) && matrix.getLifetime(row, column) < 0) {
+			if (type == ElementTypes.SMOKE || type == ElementTypes.STEAM) {
+				matrix.clearElement(row, column);
+				return true;
+			} else if (type == ElementTypes.FIRE || matrix.isOnFire(row, column)) {
+				if (matrix.getRandom().nextFloat() < 0.3) {
+					matrix.setNewElement(row, column, ElementTypes.SMOKE);
 				} else {
-					PixelPhysicsGame.matrix.clearElement(this);
+					matrix.clearElement(row, column);
 				}
-			} else if (this instanceof Steel) {
-				PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.RUST);
+				return true;
+			} else if (type == ElementTypes.STEEL) {
+				matrix.setNewElement(row, column, ElementTypes.RUST);
+				return true;
 			}
 		}
 
-		if (this.isOnFire() && Math.random() < 0.1) {
-			this.flicker();
+		if (matrix.isOnFire(row, column) && matrix.getRandom().nextFloat() < 0.1) {
+			this.flicker(matrix, row, column);
 		}
 
-		this.setLifetime(this.getLifetime() - 1);
+		return false;
 	}
 
 	/**
-	 * When called by an element, causes elements that can rust to turn into rust
-	 * around the element.
+	 * Carries out the reactions of the given cell with every adjacent cell, in a
+	 * random order. Stops once the cell turns into another element.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @param frames number of frames to react for at once, which is more than one
+	 *               for cells that are asleep
+	 * @return true if the cell was replaced by another element
 	 */
-	public void causeRust(Element nextElement) {
+	public boolean react(CellularMatrix matrix, int row, int column, int frames) {
+		ElementDescriptor descriptor = matrix.getDescriptor(type);
+		if (!descriptor.reacts()) {
+			return false;
+		}
 
-		if (nextElement instanceof Steel && !nextElement.limitedLife()
-				&& Math.random() < ((Steel) nextElement).getChanceToRust()) {
-			nextElement.setLimitedLife(true);
+		Element[] adjacentElements = matrix.getAdjacentElements(row, column, true, true, true);
+		int adjacent = 0;
+		for (int i = 0; i < adjacentElements.length; i++) {
+			if (adjacentElements[i] != null) {
+				adjacent |= 1 << adjacentElements[i].getType().ordinal();
+			}
 		}
 
+		for (int i : getShuffledDirections(matrix.getRandom())) {
+			if (adjacentElements[i] == null) {
+				continue;
+			}
+			int nextRow = row + CellularMatrix.adjacentRowOffsets[i];
+			int nextColumn = column + CellularMatrix.adjacentColumnOffsets[i];
+
+			for (Reaction reaction : descriptor.getReactions(adjacentElements[i].getType().ordinal())) {
+				int temperature = matrix.getTemperature(row, column);
+				if (!reaction.canHappen(temperature, i, adjacent)) {
+					continue;
+				}
+				if (reaction.wakes()) {
+					matrix.activateChunk(row, column);
+				}
+				if ((reaction.decays() && matrix.limitedLife(row, column))
+						|| (reaction.otherDecays() && matrix.limitedLife(nextRow, nextColumn))) {
+					continue;
+				}
+				double chance = reaction.getChance(frames);
+				if (chance < 1 && matrix.getRandom().nextDouble() >= chance) {
+					continue;
+				}
+
+				temperature += reaction.getHeat();
+				if (reaction.getHeat() != 0) {
+					this.changeTemperature(matrix, row, column, temperature, reaction.wakes());
+				}
+				if (reaction.getProduct() != null) {
+					float velocity = matrix.getVerticalVelocity(nextRow, nextColumn);
+					Element product = matrix.setNewElement(nextRow, nextColumn, reaction.getProduct());
+					if (reaction.keepsVelocity()) {
+						matrix.setVerticalVelocity(nextRow, nextColumn, velocity);
+					}
+					if (reaction.sharesHeat()) {
+						product.changeTemperature(matrix, nextRow, nextColumn, temperature, false);
+					}
+				}
+				if (reaction.otherDecays()) {
+					matrix.setLimitedLife(nextRow, nextColumn, true);
+					matrix.activateChunk(nextRow, nextColumn);
+				}
+				if (reaction.decays()) {
+					matrix.setLimitedLife(row, column, true);
+					matrix.activateChunk(row, column);
+				}
+				if (reaction.getSelfProduct() != null) {
+					matrix.setNewElement(row, column, reaction.getSelfProduct());
+					return true;
+				}
+				if (reaction.getProduct() != null) {
+					break;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sets the temperature of the given cell of this element. Elements whose look
+	 * or behavior depends on their temperature override this to keep up with it.
+	 *
+	 * @param matrix        matrix the cell is in
+	 * @param row           row of the cell
+	 * @param column        column of the cell
+	 * @param temperature   temperature to set
+	 * @param activateChunk whether or not to activate the chunk of the cell
+	 */
+	public void changeTemperature(CellularMatrix matrix, int row, int column, int temperature,
+			boolean activateChunk) {
+		matrix.setTemperature(row, column, temperature);
+		if (activateChunk) {
+			matrix.activateChunk(row, column);
+		}
+	}
+
+	/**
+	 * Called after heat conducted to or from the given cell of this element has
+	 * changed the whole part of its temperature. Heat is conducted on several
+	 * threads at once, so this must not activate any chunk. Does nothing unless
+	 * overridden.
+	 *
+	 * @param matrix         matrix the cell is in
+	 * @param row            row of the cell
+	 * @param column         column of the cell
+	 * @param oldTemperature temperature the cell had before
+	 */
+	public void temperatureChanged(CellularMatrix matrix, int row, int column, int oldTemperature) {
 	}
 
 	/**
 	 * Updates the logic concerning fire turning water into steam and drying wet
 	 * elements
-	 * 
-	 * @param elements array of elements to check
+	 *
+	 * @param matrix   matrix the cell is in
+	 * @param row      row of the cell
+	 * @param column   column of the cell
+	 * @param elements array of adjacent elements to check
+	 * @param onFire   whether or not the cell was on fire when it was updated
 	 * @return whether or not this element was extinguished
 	 */
-	private boolean updateDryingLogic(Element[] elements) {
+	private boolean updateDryingLogic(CellularMatrix matrix, int row, int column, Element[] elements,
+			boolean onFire) {
 		boolean extinguished = false;
 		for (int i = 0; i < elements.length; i++) {
-			if (elements[i] != null && elements[i].extinguishesThings() && this.isOnFire()) {
-				if (elements[i] instanceof Water && Math.random() < 0.4) {
-					PixelPhysicsGame.matrix.setNewElement(elements[i], ElementTypes.STEAM);
-					extinguished = true;
-				} else if (elements[i] instanceof WetSand) {
-					PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.STEAM);
-					PixelPhysicsGame.matrix.setNewElement(elements[i], ElementTypes.SAND);
+			int nextRow = row + CellularMatrix.adjacentRowOffsets[i];
+			int nextColumn = column + CellularMatrix.adjacentColumnOffsets[i];
+			if (elements[i] != null && matrix.extinguishesThings(nextRow, nextColumn) && onFire) {
+				switch (elements[i].getType()) {
+				case WATER:
+					if (matrix.getRandom().nextFloat() < 0.4) {
+						matrix.setNewElement(nextRow, nextColumn, ElementTypes.STEAM);
+						extinguished = true;
+					}
+					break;
+				case WET_SAND:
+					matrix.setNewElement(row, column, ElementTypes.STEAM);
+					matrix.setNewElement(nextRow, nextColumn, ElementTypes.SAND);
 					extinguished = true;
-				} else if (elements[i] instanceof WetDirt) {
-					PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.STEAM);
-					PixelPhysicsGame.matrix.setNewElement(elements[i], ElementTypes.DIRT);
+					break;
+				case WET_DIRT:
+					matrix.setNewElement(row, column, ElementTypes.STEAM);
+					matrix.setNewElement(nextRow, nextColumn, ElementTypes.DIRT);
 					extinguished = true;
+					break;
+				default:
+					break;
 				}
 			}
 		}
@@ -190,14 +393,18 @@ public abstract class Element {
 
 	/**
 	 * Returns the number of elements in the given element array that are on fire
-	 * 
-	 * @param elements elements to check
+	 *
+	 * @param matrix   matrix the cell is in
+	 * @param row      row of the cell the elements are adjacent to
+	 * @param column   column of the cell the elements are adjacent to
+	 * @param elements adjacent elements to check
 	 * @return number of elements in the given element array that are on fire
 	 */
-	private int updateNumberOfAdjacentFire(Element[] elements) {
+	private int updateNumberOfAdjacentFire(CellularMatrix matrix, int row, int column, Element[] elements) {
 		int numberOfFire = 0;
 		for (int i = 0; i < elements.length; i++) {
-			if (elements[i] != null && (elements[i].isOnFire() || elements[i] instanceof Fire)) {
+			if (elements[i] != null && (matrix.isOnFire(row + CellularMatrix.adjacentRowOffsets[i],
+					column + CellularMatrix.adjacentColumnOffsets[i]) || elements[i].getType() == ElementTypes.FIRE)) {
 				numberOfFire++;
 			}
 		}
@@ -207,210 +414,225 @@ public abstract class Element {
 	/**
 	 * Updates logic concerning elements being burned. If the element was on fire
 	 * and gets extinguished, turns into smoke.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return true if the cell was replaced by another element
 	 */
-	public void updateBurningLogic() {
+	public boolean updateBurningLogic(CellularMatrix matrix, int row, int column) {
 
-		Element[] adjacentElements = PixelPhysicsGame.matrix.getAdjacentElements(this, true, true, true);
-		boolean extinguished = updateDryingLogic(adjacentElements);
-		int numberOfFire = updateNumberOfAdjacentFire(adjacentElements);
+		Element[] adjacentElements = matrix.getAdjacentElements(row, column, true, true, true);
+		boolean onFire = matrix.isOnFire(row, column);
+		boolean extinguished = updateDryingLogic(matrix, row, column, adjacentElements, onFire);
+		int numberOfFire = updateNumberOfAdjacentFire(matrix, row, column, adjacentElements);
 
 		float chanceToCatch = this.getChanceToCatch() * numberOfFire;
-		if (Math.random() < chanceToCatch && !this.isOnFire()) {
-			this.setOnFire(true);
+		if (matrix.getRandom().nextFloat() < chanceToCatch && !onFire) {
+			matrix.setOnFire(row, column, true);
 		}
 
-		if (extinguished && this.isOnFire()) {
-			PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.SMOKE);
-
+		if (extinguished && onFire) {
+			matrix.setNewElement(row, column, ElementTypes.SMOKE);
+			return true;
 		}
 
+		return false;
+
 	}
-	
+
 	/**
 	 * Checks elements above this fire, and to the left and right. If one of the
 	 * elements extinguishes elements, extinguishes the fire.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return true if the fire was extinguished
 	 */
-	public void checkForExtinguishingElements() {
-		Element[] elementsAbove = new Element[] { PixelPhysicsGame.matrix.getElement(getRow() + 1, getColumn(), true, false),
-				PixelPhysicsGame.matrix.getElement(getRow() + 1, getColumn() - 1, true, true),
-				PixelPhysicsGame.matrix.getElement(getRow() + 1, getColumn() + 1, true, true),
-				PixelPhysicsGame.matrix.getElement(getRow(), getColumn() - 1, false, true),
-				PixelPhysicsGame.matrix.getElement(getRow(), getColumn() + 1, false, true) };
-
+	public boolean checkForExtinguishingElements(CellularMatrix matrix, int row, int column) {
 		float chanceToExtinguish = 0;
 
-		for (int i = 0; i < elementsAbove.length; i++) {
-			if (elementsAbove[i] != null && elementsAbove[i].extinguishesThings()) {
+		for (int i = 0; i < aboveRowOffsets.length; i++) {
+			int nextRow = row + aboveRowOffsets[i];
+			int nextColumn = column + aboveColumnOffsets[i];
+			Element elementAbove = matrix.getElement(nextRow, nextColumn, true, true);
+			if (elementAbove != null && matrix.extinguishesThings(nextRow, nextColumn)) {
 
-				ElementTypes type = elementsAbove[i].getType();
+				ElementTypes type = elementAbove.getType();
 
 				switch (type) {
 				case WATER:
 					chanceToExtinguish = 1;
-					if (Math.random() < 0.3) {
-						PixelPhysicsGame.matrix.setNewElement(elementsAbove[i], ElementTypes.STEAM);
+					if (matrix.getRandom().nextFloat() < 0.3) {
+						matrix.setNewElement(nextRow, nextColumn, ElementTypes.STEAM);
 					}
 					break;
 				case SAND:
 				case DIRT:
+				case WET_DIRT:
 					chanceToExtinguish = 0.3f;
 					break;
 				default:
 					chanceToExtinguish = 1;
 				}
 
-				if (Math.random() < chanceToExtinguish) {
-					if (Math.random() < 0.5f) {
-						PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.SMOKE);
-						return;
+				if (matrix.getRandom().nextFloat() < chanceToExtinguish) {
+					if (matrix.getRandom().nextFloat() < 0.5f) {
+						matrix.setNewElement(row, column, ElementTypes.SMOKE);
+						return true;
 					} else {
-						PixelPhysicsGame.matrix.clearElement(this);
-						return;
+						matrix.clearElement(row, column);
+						return true;
 					}
 				}
 			}
 		}
+		return false;
 	}
 
 	/**
-	 * Causes this element's color to flicker between the colors in the fireColors
-	 * array
+	 * Causes the given cell's color to flicker between the colors in the
+	 * fireColors array
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
 	 */
-	public void flicker() {
-		int idx = (int) Math.round(Math.random() * 3);
-		this.setColor(fireColors[idx]);
+	public void flicker(CellularMatrix matrix, int row, int column) {
+		int idx = Math.round(matrix.getRandom().nextFloat() * 3);
+		matrix.setColor(row, column, fireColors[idx]);
 	}
 
 	/**
-	 * @return the type of this element
+	 * Returns the indices of the eight adjacent cells, as used by
+	 * CellularMatrix.getAdjacentElements(), in a random order. The order is one of
+	 * the orders in directionOrders, so every direction is equally likely to come
+	 * first. The returned array is shared and must not be changed.
+	 *
+	 * @param random random number generator to pick the order with
+	 * @return the numbers 0-7 in a random order
 	 */
-	public ElementTypes getType() {
-		return type;
+	protected static int[] getShuffledDirections(FastRandom random) {
+		return directionOrders[random.nextInt(directionOrders.length)];
 	}
 
 	/**
-	 * Sets the type of this element
-	 * 
-	 * @param type type to set
+	 * Creates every order of the eight adjacent cells that starts at one of them
+	 * and steps through the rest by an odd stride, wrapping around. Picking one of
+	 * these at random is much cheaper than shuffling the directions every time.
+	 *
+	 * @return the 32 orders of the numbers 0-7
 	 */
-	public void setType(ElementTypes type) {
-		Element.type = type;
-	}
-
-	/**
-	 * @return the density of this element
-	 */
-	public float getDensity() {
-		return density;
-	}
-
-	/**
-	 * Sets the density of this element
-	 * 
-	 * @param density density to set
-	 */
-	public void setDensity(int density) {
-		this.density = density;
+	private static int[][] createDirectionOrders() {
+		int[][] orders = new int[32][8];
+		for (int i = 0; i < orders.length; i++) {
+			int start = i & 7;
+			int stride = (i >> 3) * 2 + 1;
+			for (int j = 0; j < 8; j++) {
+				orders[i][j] = (start + j * stride) & 7;
+			}
+		}
+		return orders;
 	}
 
 	/**
-	 * Sets the color of this element to the given CustomColor
-	 * 
-	 * @param color color to set
+	 * Adds a reaction of this element with another element. Reactions with the
+	 * same element are checked in the order they are added.
+	 *
+	 * @param reaction reaction to add
 	 */
-	public void setColor(CustomColor color) {
-		if (color != null) {
-			this.color = new int[] { color.getR(), color.getG(), color.getB() };
-		}
+	protected void addReaction(Reaction reaction) {
+		reactions.add(reaction);
 	}
 
 	/**
-	 * Sets the color of this element to the given rgb values
-	 * 
-	 * @param rgb integer array of rgb values
+	 * @return the reactions of this element, in the order they are checked
 	 */
-	public void setColor(int[] rgb) {
-		this.color = rgb;
+	public List<Reaction> getReactions() {
+		return Collections.unmodifiableList(reactions);
 	}
 
 	/**
-	 * Sets the row location of this element
-	 * 
-	 * @param row row to set
+	 * @return the type of this element
 	 */
-	public void setRow(int row) {
-		this.row = row;
+	public ElementTypes getType() {
+		return type;
 	}
 
 	/**
-	 * Sets the column location of this element
-	 * 
-	 * @param column column to set
+	 * Sets the type of this element
+	 *
+	 * @param type type to set
 	 */
-	public void setColumn(int column) {
-		this.column = column;
+	protected void setType(ElementTypes type) {
+		this.type = type;
 	}
 
 	/**
-	 * @return the row location of this element
+	 * @return the density of this element
 	 */
-	public int getRow() {
-		return row;
+	public float getDensity() {
+		return density;
 	}
 
 	/**
-	 * @return the column location of this element
+	 * Sets the density of this element
+	 *
+	 * @param density density to set
 	 */
-	public int getColumn() {
-		return column;
+	protected void setDensity(int density) {
+		this.density = density;
 	}
 
 	/**
-	 * @return the color of this element as a LibGDX color object
+	 * @return the color of this element before it is varied
 	 */
-	public Color getColor() {
-		return new Color(color[0] / 255f, color[1] / 255f, color[2] / 255f, 1f);
+	public CustomColor getColor() {
+		return color;
 	}
 
 	/**
-	 * @return whether or not this element has a limited lifetime
+	 * Sets the color of this element to the given CustomColor
+	 *
+	 * @param color color to set
 	 */
-	public boolean limitedLife() {
-		return limitedLife;
+	protected void setColor(CustomColor color) {
+		this.color = color;
 	}
 
 	/**
-	 * Sets whether or not this element has limited lifetime
-	 * 
+	 * Sets whether or not a new cell of this element has limited lifetime
+	 *
 	 * @param limitedLife whether or not this element has limited lifetime
 	 */
-	public void setLimitedLife(boolean limitedLife) {
+	protected void setLimitedLife(boolean limitedLife) {
 		this.limitedLife = limitedLife;
 	}
 
 	/**
-	 * @return the lifetime of this element
+	 * @return the lifetime of a new cell of this element
 	 */
 	public int getLifetime() {
 		return lifetime;
 	}
 
 	/**
-	 * Sets the lifetime of this element
-	 * 
+	 * Sets the lifetime of a new cell of this element
+	 *
 	 * @param lifetime lifetime to set
 	 */
-	public void setLifetime(int lifetime) {
+	protected void setLifetime(int lifetime) {
 		this.lifetime = lifetime;
 	}
 
 	/**
 	 * Sets whether or not this element is flammable. If set to true, also sets this
 	 * element to have limited lifetime
-	 * 
+	 *
 	 * @param flammable whether or not this element is flammable
 	 */
-	public void setFlammable(boolean flammable) {
+	protected void setFlammable(boolean flammable) {
 		if (flammable) {
 			this.setLimitedLife(true);
 		}
@@ -423,13 +645,6 @@ public abstract class Element {
 		return isFlammable;
 	}
 
-	/**
-	 * @return whether or not this element extinguishes other elements
-	 */
-	public boolean extinguishesThings() {
-		return extinguishesThings;
-	}
-
 	/**
 	 * @return the odds of this element catching on fire when adjacent to burning
 	 *         elements
@@ -441,7 +656,7 @@ public abstract class Element {
 	/**
 	 * Sets the chance for this element to catch fire when it is adjacent to other
 	 * burning elements
-	 * 
+	 *
 	 * @param chanceToCatch chance for this element to catch fire when it is
 	 *                      adjacent to other burning elements
 	 */
@@ -450,8 +665,8 @@ public abstract class Element {
 	}
 
 	/**
-	 * Sets whether or not this element extinguishes other elements
-	 * 
+	 * Sets whether or not a new cell of this element extinguishes other elements
+	 *
 	 * @param extinguishesThings whether or not this element extinguishes other
 	 *                           elements
 	 */
@@ -468,27 +683,20 @@ public abstract class Element {
 
 	/**
 	 * Sets whether or not this element moves down
-	 * 
+	 *
 	 * @param movesDown whether or not this element moves down
 	 */
-	public void setMovesDown(boolean movesDown) {
+	protected void setMovesDown(boolean movesDown) {
 		this.movesDown = movesDown;
 	}
 
 	/**
-	 * @return true if this element is on fire, false if it is not
-	 */
-	public boolean isOnFire() {
-		return onFire;
-	}
-
-	/**
-	 * Set whether or not this element is lit on fire. If it is, set limited life to
-	 * true
-	 * 
+	 * Set whether or not a new cell of this element is lit on fire. If it is, set
+	 * limited life to true
+	 *
 	 * @param onFire whether or not this element is lit on fire
 	 */
-	public void setOnFire(boolean onFire) {
+	protected void setOnFire(boolean onFire) {
 		this.onFire = onFire;
 		if (onFire) {
 			this.setLimitedLife(true);
@@ -496,34 +704,20 @@ public abstract class Element {
 	}
 
 	/**
-	 * @return the current temperature of this element
-	 */
-	public int getTemperature() {
-		return meltingPoint;
-	}
-
-	/**
-	 * Sets the current temperature of this element
-	 * 
+	 * Sets the temperature of a new cell of this element
+	 *
 	 * @param temperature temperature to set
 	 */
-	public void setTemperature(int temperature) {
-		this.meltingPoint = temperature;
-	}
-
-	/**
-	 * @return whether or not this element is falling through air
-	 */
-	public boolean isFallingThroughAir() {
-		return fallingThroughAir;
+	protected void setTemperature(int temperature) {
+		this.temperature = temperature;
 	}
 
 	/**
-	 * Set whether or not this element is falling through air
-	 * 
+	 * Set whether or not a new cell of this element is falling through air
+	 *
 	 * @param fallingThroughAir whether or not this element is falling through air
 	 */
-	public void setFallingThroughAir(boolean fallingThroughAir) {
+	protected void setFallingThroughAir(boolean fallingThroughAir) {
 		this.fallingThroughAir = fallingThroughAir;
 	}
 
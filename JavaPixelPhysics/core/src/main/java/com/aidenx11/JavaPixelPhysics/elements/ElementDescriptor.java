@@ -0,0 +1,291 @@
+package com.aidenx11.JavaPixelPhysics.elements;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
+import com.aidenx11.JavaPixelPhysics.elements.immovable.Immovable;
+import com.aidenx11.JavaPixelPhysics.elements.movable.Movable;
+import com.aidenx11.JavaPixelPhysics.elements.movable.gas.Gas;
+import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Liquid;
+import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid;
+
+/**
+ * Immutable description of an element type. Holds the properties that are the
+ * same for every cell of the type, copied out of the type's Element when a
+ * CellularMatrix is created. The matrix keeps one descriptor per ElementTypes,
+ * indexed by type id, so the update loop can read the properties of a cell
+ * straight from its type id without going through the Element.
+ *
+ * The kind of each type says which branch of the Element class hierarchy it
+ * belongs to, so elements can check what is around them by type id instead of
+ * with instanceof.
+ *
+ * The reactions of the type are compiled into a table indexed by the type id of
+ * the other cell, so Element.react() can find the reactions with each adjacent
+ * cell with a single array lookup.
+ *
+ * @author Aiden Schroeder
+ */
+public final class ElementDescriptor {
+
+	/**
+	 * Branches of the Element class hierarchy. Every element type belongs to
+	 * exactly one kind.
+	 */
+	public enum ElementKinds {
+		EMPTY, IMMOVABLE, MOVABLE_SOLID, LIQUID, GAS, VOID;
+	}
+
+	/** Type being described */
+	private final ElementTypes type;
+
+	/** Kind of the type */
+	private final ElementKinds kind;
+
+	/** Density of the type */
+	private final int density;
+
+	/** Whether or not the type moves down */
+	private final boolean movesDown;
+
+	/** Whether or not the type is a Movable */
+	private final boolean movable;
+
+	/** Whether or not the type is flammable */
+	private final boolean flammable;
+
+	/** Chance for the type to catch on fire */
+	private final float chanceToCatch;
+
+	/** Whether or not the type does anything while its cell is asleep */
+	private final boolean updatesAsleep;
+
+	/** Share of the difference in temperature the type conducts each frame */
+	private final float conductivity;
+
+	/** Acceleration of the type, or 0 if it is not Movable */
+	private final float acceleration;
+
+	/** Maximum speed of the type, or 0 if it is not Movable */
+	private final float maxSpeed;
+
+	/** Friction of the type, or 0 if it is not Movable */
+	private final float friction;
+
+	/** Inertial resistance of the type, or 0 if it is not Movable */
+	private final float inertialResistance;
+
+	/** Whether or not the type moves sideways */
+	private final boolean movesSideways;
+
+	/** Reactions of the type with each other type, indexed by type id */
+	private final Reaction[][] reactions;
+
+	/** Whether or not the type has any reactions */
+	private final boolean reacts;
+
+	/**
+	 * Creates a descriptor of the type of the given element
+	 *
+	 * @param element element whose properties are copied
+	 */
+	public ElementDescriptor(Element element) {
+		this.type = element.getType();
+		this.kind = getKind(element);
+		this.density = (int) element.getDensity();
+		this.movesDown = element.movesDown();
+		this.movable = element instanceof Movable;
+		this.flammable = element.isFlammable();
+		this.chanceToCatch = element.getChanceToCatch();
+		this.updatesAsleep = element.updatesAsleep();
+		this.conductivity = element.getConductivity();
+
+		if (element instanceof Movable) {
+			Movable movableElement = (Movable) element;
+			this.acceleration = movableElement.getAcceleration();
+			this.maxSpeed = movableElement.getMaxSpeed();
+			this.friction = movableElement.getFriction();
+			this.inertialResistance = movableElement.getInertialResistance();
+			this.movesSideways = movableElement.movesSideways();
+		} else {
+			this.acceleration = 0;
+			this.maxSpeed = 0;
+			this.friction = 0;
+			this.inertialResistance = 0;
+			this.movesSideways = false;
+		}
+
+		this.reactions = compileReactions(element.getReactions());
+		this.reacts = !element.getReactions().isEmpty();
+	}
+
+	/**
+	 * Sorts the given reactions by the type they are with. Types without a
+	 * reaction of their own get the reactions that are with every type.
+	 *
+	 * @param reactions reactions of the type, in the order they are checked
+	 * @return array of the reactions with each type, indexed by type id
+	 */
+	private static Reaction[][] compileReactions(List<Reaction> reactions) {
+		ElementTypes[] types = ElementTypes.values();
+		Reaction[][] table = new Reaction[types.length][];
+
+		for (int i = 0; i < types.length; i++) {
+			List<Reaction> withType = new ArrayList<>();
+			for (Reaction reaction : reactions) {
+				if (reaction.getOther() == types[i]) {
+					withType.add(reaction);
+				}
+			}
+			if (withType.isEmpty()) {
+				for (Reaction reaction : reactions) {
+					if (reaction.getOther() == null) {
+						withType.add(reaction);
+					}
+				}
+			}
+			table[i] = withType.toArray(new Reaction[0]);
+		}
+
+		return table;
+	}
+
+	/**
+	 * Returns the kind of the given element
+	 *
+	 * @param element element to find the kind of
+	 * @return the branch of the Element class hierarchy the element belongs to
+	 */
+	private static ElementKinds getKind(Element element) {
+		if (element instanceof Immovable) {
+			return ElementKinds.IMMOVABLE;
+		} else if (element instanceof MovableSolid) {
+			return ElementKinds.MOVABLE_SOLID;
+		} else if (element instanceof Liquid) {
+			return ElementKinds.LIQUID;
+		} else if (element instanceof Gas) {
+			return ElementKinds.GAS;
+		} else if (element instanceof Void) {
+			return ElementKinds.VOID;
+		}
+		return ElementKinds.EMPTY;
+	}
+
+	/**
+	 * @return the type being described
+	 */
+	public ElementTypes getType() {
+		return type;
+	}
+
+	/**
+	 * @return the kind of the type
+	 */
+	public ElementKinds getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the density of the type
+	 */
+	public int getDensity() {
+		return density;
+	}
+
+	/**
+	 * @return whether or not the type moves down
+	 */
+	public boolean movesDown() {
+		return movesDown;
+	}
+
+	/**
+	 * @return whether or not the type is a Movable
+	 */
+	public boolean isMovable() {
+		return movable;
+	}
+
+	/**
+	 * @return whether or not the type is flammable
+	 */
+	public boolean isFlammable() {
+		return flammable;
+	}
+
+	/**
+	 * @return the chance for the type to catch on fire
+	 */
+	public float getChanceToCatch() {
+		return chanceToCatch;
+	}
+
+	/**
+	 * @return whether or not the type does anything while its cell is asleep
+	 */
+	public boolean updatesAsleep() {
+		return updatesAsleep;
+	}
+
+	/**
+	 * @return the share of the difference in temperature the type conducts each
+	 *         frame, or 0 if it does not conduct heat
+	 */
+	public float getConductivity() {
+		return conductivity;
+	}
+
+	/**
+	 * @return the acceleration of the type, or 0 if it is not Movable
+	 */
+	public float getAcceleration() {
+		return acceleration;
+	}
+
+	/**
+	 * @return the maximum speed of the type, or 0 if it is not Movable
+	 */
+	public float getMaxSpeed() {
+		return maxSpeed;
+	}
+
+	/**
+	 * @return the friction of the type, or 0 if it is not Movable
+	 */
+	public float getFriction() {
+		return friction;
+	}
+
+	/**
+	 * @return the inertial resistance of the type, or 0 if it is not Movable
+	 */
+	public float getInertialResistance() {
+		return inertialResistance;
+	}
+
+	/**
+	 * @return whether or not the type moves sideways
+	 */
+	public boolean movesSideways() {
+		return movesSideways;
+	}
+
+	/**
+	 * Returns the reactions of the type with the given type
+	 *
+	 * @param typeId type id of the other cell
+	 * @return the reactions with the type, in the order they are checked
+	 */
+	public Reaction[] getReactions(int typeId) {
+		return reactions[typeId];
+	}
+
+	/**
+	 * @return whether or not the type has any reactions
+	 */
+	public boolean reacts() {
+		return reacts;
+	}
+
+}
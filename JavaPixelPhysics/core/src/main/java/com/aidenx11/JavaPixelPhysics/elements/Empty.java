@@ -1,5 +1,7 @@
 package com.aidenx11.JavaPixelPhysics.elements;
 
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+
 /**
  * Class to manage creation and updating of the Empty element. Empty elements
  * have no behavior, and do not interact with other elements. Empty elements are
@@ -10,12 +12,12 @@ public class Empty extends Element {
 
 	public static ElementTypes type = ElementTypes.EMPTY;
 
-	public Empty(int row, int column) {
-		super(type, row, column, null, false, 0, false, false, 0, false, 0);
+	public Empty() {
+		super(type, null, false, 0, false, false, 0, false, 0);
 	}
 
 	@Override
-	public void update() {
+	public void update(CellularMatrix matrix, int row, int column) {
 		// Empty should do nothing
 	}
 
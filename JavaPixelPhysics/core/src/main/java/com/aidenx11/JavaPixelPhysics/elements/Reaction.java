@@ -0,0 +1,354 @@
+package com.aidenx11.JavaPixelPhysics.elements;
+
+import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
+
+/**
+ * Immutable rule for what happens when a cell of an element touches a cell of
+ * another type. Each element adds its reactions while it is constructed, and
+ * each CellularMatrix compiles them into a table in the ElementDescriptor of the
+ * type, indexed by the type id of the other cell. Element.react() then checks
+ * every adjacent cell against the table in a single pass.
+ *
+ * A reaction can happen when the temperature of the reacting cell is within its
+ * heat range, the other cell is in one of its directions, and one of its
+ * catalysts is adjacent. If it can happen, it wakes the chunk of the cell if it
+ * is set to, and then happens with its chance. When it happens, the reacting
+ * cell's temperature changes by its heat, the other cell turns into its
+ * product, either cell may start to decay, and the reacting cell turns into its
+ * self product.
+ *
+ * Reactions are created with a Reaction.Builder.
+ *
+ * @author Aiden Schroeder
+ */
+public final class Reaction {
+
+	/** Directions of every adjacent cell */
+	public static final int ADJACENT = 0b11111111;
+
+	/** Directions of the cells to the sides and below */
+	public static final int SIDES_AND_BELOW = 0b11111000;
+
+	/** Directions of the three cells below */
+	public static final int BELOW = 0b11100000;
+
+	/** Type of the other cell, or null to react with every type that has no other reaction */
+	private final ElementTypes other;
+
+	/** Chance for the reaction to happen each time it is checked */
+	private final float chance;
+
+	/** Type the other cell turns into, or null if it does not change */
+	private final ElementTypes product;
+
+	/** Type the reacting cell turns into, or null if it does not change */
+	private final ElementTypes selfProduct;
+
+	/** Change to the temperature of the reacting cell */
+	private final int heat;
+
+	/** Lowest temperature of the reacting cell the reaction happens at */
+	private final int minimumHeat;
+
+	/** Highest temperature of the reacting cell the reaction happens at */
+	private final int maximumHeat;
+
+	/** Whether or not the product takes the temperature of the reacting cell */
+	private final boolean sharesHeat;
+
+	/** Whether or not the product keeps the vertical velocity of the other cell */
+	private final boolean keepsVelocity;
+
+	/** Whether or not the chunk of the reacting cell is woken when the reaction is checked */
+	private final boolean wakes;
+
+	/** Whether or not the reacting cell starts to decay */
+	private final boolean decays;
+
+	/** Whether or not the other cell starts to decay */
+	private final boolean otherDecays;
+
+	/** Type ids of the catalysts as bits, or 0 if the reaction needs none */
+	private final int catalysts;
+
+	/** Directions the other cell can be in, as bits of adjacent cell indices */
+	private final int directions;
+
+	/**
+	 * Creates a reaction from the given builder
+	 *
+	 * @param builder builder holding the properties of the reaction
+	 */
+	private Reaction(Builder builder) {
+		this.other = builder.other;
+		this.chance = builder.chance;
+		this.product = builder.product;
+		this.selfProduct = builder.selfProduct;
+		this.heat = builder.heat;
+		this.minimumHeat = builder.minimumHeat;
+		this.maximumHeat = builder.maximumHeat;
+		this.sharesHeat = builder.sharesHeat;
+		this.keepsVelocity = builder.keepsVelocity;
+		this.wakes = builder.wakes;
+		this.decays = builder.decays;
+		this.otherDecays = builder.otherDecays;
+		this.catalysts = builder.catalysts;
+		this.directions = builder.directions;
+	}
+
+	/**
+	 * Returns whether or not the reaction can happen
+	 *
+	 * @param temperature temperature of the reacting cell
+	 * @param direction   index of the other cell in the adjacent cells
+	 * @param adjacent    type ids of the adjacent cells as bits
+	 * @return true if the reaction can happen
+	 */
+	public boolean canHappen(int temperature, int direction, int adjacent) {
+		return temperature >= minimumHeat && temperature <= maximumHeat && (directions & 1 << direction) != 0
+				&& (catalysts == 0 || (catalysts & adjacent) != 0);
+	}
+
+	/**
+	 * Returns the chance for the reaction to happen at least once when it is
+	 * checked for the given number of frames at once
+	 *
+	 * @param frames number of frames
+	 * @return the chance for the reaction to happen
+	 */
+	public double getChance(int frames) {
+		if (frames == 1 || chance >= 1) {
+			return chance;
+		}
+		return 1 - Math.pow(1 - chance, frames);
+	}
+
+	/**
+	 * @return the type of the other cell, or null if the reaction is with every
+	 *         type that has no other reaction
+	 */
+	public ElementTypes getOther() {
+		return other;
+	}
+
+	/**
+	 * @return the type the other cell turns into, or null if it does not change
+	 */
+	public ElementTypes getProduct() {
+		return product;
+	}
+
+	/**
+	 * @return the type the reacting cell turns into, or null if it does not change
+	 */
+	public ElementTypes getSelfProduct() {
+		return selfProduct;
+	}
+
+	/**
+	 * @return the change to the temperature of the reacting cell
+	 */
+	public int getHeat() {
+		return heat;
+	}
+
+	/**
+	 * @return whether or not the product takes the temperature of the reacting
+	 *         cell
+	 */
+	public boolean sharesHeat() {
+		return sharesHeat;
+	}
+
+	/**
+	 * @return whether or not the product keeps the vertical velocity of the other
+	 *         cell
+	 */
+	public boolean keepsVelocity() {
+		return keepsVelocity;
+	}
+
+	/**
+	 * @return whether or not the chunk of the reacting cell is woken when the
+	 *         reaction is checked
+	 */
+	public boolean wakes() {
+		return wakes;
+	}
+
+	/**
+	 * @return whether or not the reacting cell starts to decay
+	 */
+	public boolean decays() {
+		return decays;
+	}
+
+	/**
+	 * @return whether or not the other cell starts to decay
+	 */
+	public boolean otherDecays() {
+		return otherDecays;
+	}
+
+	/**
+	 * Builds a Reaction. Every property starts at the value of a reaction that
+	 * always happens with an adjacent cell and does nothing.
+	 */
+	public static class Builder {
+
+		private final ElementTypes other;
+		private float chance = 1;
+		private ElementTypes product;
+		private ElementTypes selfProduct;
+		private int heat;
+		private int minimumHeat = Integer.MIN_VALUE;
+		private int maximumHeat = Integer.MAX_VALUE;
+		private boolean sharesHeat;
+		private boolean keepsVelocity;
+		private boolean wakes;
+		private boolean decays;
+		private boolean otherDecays;
+		private int catalysts;
+		private int directions = ADJACENT;
+
+		/**
+		 * Starts a reaction with cells of the given type
+		 *
+		 * @param other type of the other cell, or null to react with every type that
+		 *              has no other reaction
+		 */
+		public Builder(ElementTypes other) {
+			this.other = other;
+		}
+
+		/**
+		 * @param chance chance for the reaction to happen each time it is checked
+		 * @return this builder
+		 */
+		public Builder chance(float chance) {
+			this.chance = chance;
+			return this;
+		}
+
+		/**
+		 * @param product type the other cell turns into
+		 * @return this builder
+		 */
+		public Builder product(ElementTypes product) {
+			this.product = product;
+			return this;
+		}
+
+		/**
+		 * @param selfProduct type the reacting cell turns into
+		 * @return this builder
+		 */
+		public Builder selfProduct(ElementTypes selfProduct) {
+			this.selfProduct = selfProduct;
+			return this;
+		}
+
+		/**
+		 * @param heat change to the temperature of the reacting cell
+		 * @return this builder
+		 */
+		public Builder heat(int heat) {
+			this.heat = heat;
+			return this;
+		}
+
+		/**
+		 * @param minimumHeat lowest temperature of the reacting cell the reaction
+		 *                    happens at
+		 * @param maximumHeat highest temperature of the reacting cell the reaction
+		 *                    happens at
+		 * @return this builder
+		 */
+		public Builder heatRange(int minimumHeat, int maximumHeat) {
+			this.minimumHeat = minimumHeat;
+			this.maximumHeat = maximumHeat;
+			return this;
+		}
+
+		/**
+		 * Gives the product the temperature of the reacting cell
+		 *
+		 * @return this builder
+		 */
+		public Builder sharesHeat() {
+			this.sharesHeat = true;
+			return this;
+		}
+
+		/**
+		 * Lets the product keep the vertical velocity of the other cell
+		 *
+		 * @return this builder
+		 */
+		public Builder keepsVelocity() {
+			this.keepsVelocity = true;
+			return this;
+		}
+
+		/**
+		 * Wakes the chunk of the reacting cell every time the reaction is checked,
+		 * whether or not it happens
+		 *
+		 * @return this builder
+		 */
+		public Builder wakes() {
+			this.wakes = true;
+			return this;
+		}
+
+		/**
+		 * Makes the reacting cell start to decay, if it is not already
+		 *
+		 * @return this builder
+		 */
+		public Builder decays() {
+			this.decays = true;
+			return this;
+		}
+
+		/**
+		 * Makes the other cell start to decay, if it is not already
+		 *
+		 * @return this builder
+		 */
+		public Builder otherDecays() {
+			this.otherDecays = true;
+			return this;
+		}
+
+		/**
+		 * @param catalysts types of which at least one has to be adjacent to the
+		 *                  reacting cell
+		 * @return this builder
+		 */
+		public Builder catalysts(ElementTypes... catalysts) {
+			for (ElementTypes catalyst : catalysts) {
+				this.catalysts |= 1 << catalyst.ordinal();
+			}
+			return this;
+		}
+
+		/**
+		 * @param directions directions the other cell can be in, as bits of adjacent
+		 *                   cell indices
+		 * @return this builder
+		 */
+		public Builder directions(int directions) {
+			this.directions = directions;
+			return this;
+		}
+
+		/**
+		 * @return the reaction
+		 */
+		public Reaction build() {
+			return new Reaction(this);
+		}
+	}
+
+}
@@ -1,10 +1,6 @@
 package com.aidenx11.JavaPixelPhysics.elements;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
 
@@ -21,32 +17,20 @@ public class Void extends Element {
 	
 	public static CustomColor color = new CustomColor(ColorValues.VOID, false);
 
-	public Void(int row, int column) {
-		super(type, row, column, color, false, 0, false, false, 0, false, 0);
+	public Void() {
+		super(type, color, false, 0, false, false, 0, false, 0);
 		super.setDensity(9999);
-	}
-
-	@Override
-	public void update() {
-		actOnOther();
-	}
-
-	/**
-	 * Method to handle destruction of adjacent Elements.
-	 */
-	private void actOnOther() {
 
-		Element[] adjacentElements = PixelPhysicsGame.matrix.getAdjacentElements(this, true, true, true);
-		List<Element> shuffledElements = Arrays.asList(adjacentElements);
-		Collections.shuffle(shuffledElements);
-
-		for (int i = 0; i < shuffledElements.size(); i++) {
-			if (adjacentElements[i] != null && !(adjacentElements[i] instanceof Empty)
-					&& !(adjacentElements[i] instanceof Void)) {
-				PixelPhysicsGame.matrix.clearElement(adjacentElements[i]);
+		for (ElementTypes other : ElementTypes.values()) {
+			if (other != ElementTypes.EMPTY && other != ElementTypes.VOID) {
+				addReaction(new Reaction.Builder(other).product(ElementTypes.EMPTY).build());
 			}
-
 		}
 	}
 
+	@Override
+	public void update(CellularMatrix matrix, int row, int column) {
+		this.react(matrix, row, column, 1);
+	}
+
 }
@@ -1,5 +1,7 @@
 package com.aidenx11.JavaPixelPhysics.elements.immovable;
 
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.color.Palette;
 import com.aidenx11.JavaPixelPhysics.elements.Element;
 
 /**
@@ -17,11 +19,22 @@ public class Fire extends Immovable {
 
 	public static ElementTypes type = ElementTypes.FIRE;
 
-	public Fire(int row, int column) {
-		super(type, row, column, Element.fireColors[(int) Math.round(Math.random() * 3)], true,
-				75 + (int) (75 * Math.random()), true, false, 0, true, -1);
+	public Fire() {
+		super(type, null, true, 75, true, false, 0, true, -1);
 		super.setOnFire(true);
 	}
 
+	/**
+	 * Gives each new Fire a random color from Element.fireColors and a random
+	 * lifetime
+	 */
+	@Override
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setColor(row, column, Element.fireColors[Math.round(matrix.getRandom().nextFloat() * 3)].getPalette(),
+				matrix.getRandom().nextInt(Palette.SHADES));
+		matrix.setLifetime(row, column, 75 + matrix.getRandom().nextInt(75));
+	}
+
 
 }
@@ -12,29 +12,31 @@ import com.aidenx11.JavaPixelPhysics.elements.Element;
  */
 public class Immovable extends Element {
 
-	public Immovable(ElementTypes type, int row, int column, CustomColor color, boolean canDie, int lifetime,
-			boolean flammable, boolean extinguishesThings, float chanceToCatch, boolean burnsThings, int temperature) {
-		super(type, row, column, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, false,
-				temperature);
+	public Immovable(ElementTypes type, CustomColor color, boolean canDie, int lifetime, boolean flammable,
+			boolean extinguishesThings, float chanceToCatch, boolean burnsThings, int temperature) {
+		super(type, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, false, temperature);
 		super.setDensity(999);
-		CellularMatrix.activateChunk(getRow(), getColumn());
 	}
 
 	/**
-	 * Since Immovable elements do not move, only updates burning and lifetime logic
+	 * Since Immovable elements do not move, only updates burning and lifetime
+	 * logic. Burning cells keep their chunk awake. Cells that only have limited
+	 * life are woken by the matrix when their life ends.
 	 */
 	@Override
-	public void update() {
-		if (this.isOnFire() || this.limitedLife()) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
+	public void update(CellularMatrix matrix, int row, int column) {
+		if (matrix.isOnFire(row, column)) {
+			matrix.activateChunk(row, column);
 		}
-		if (this.limitedLife()) {
-			super.updateElementLife();
+		if (matrix.limitedLife(row, column)) {
+			if (super.updateElementLife(matrix, row, column)) {
+				return;
+			}
 		}
-		if (!this.isOnFire()) {
-			super.updateBurningLogic();
+		if (!matrix.isOnFire(row, column)) {
+			super.updateBurningLogic(matrix, row, column);
 		} else {
-			super.checkForExtinguishingElements();
+			super.checkForExtinguishingElements(matrix, row, column);
 		}
 
 	}
@@ -22,9 +22,8 @@ public class Leaf extends Immovable {
 	
 	private static CustomColor color = new CustomColor(ColorValues.LEAF, false);
 
-	public Leaf(int row, int column) {
-		super(type, row, column, color, false, lifetime, true, false, chanceToCatch,
-				false, -1);
+	public Leaf() {
+		super(type, color, false, lifetime, true, false, chanceToCatch, false, -1);
 	}
 
 }
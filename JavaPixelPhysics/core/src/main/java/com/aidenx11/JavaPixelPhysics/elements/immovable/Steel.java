@@ -1,16 +1,10 @@
 package com.aidenx11.JavaPixelPhysics.elements.immovable;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
-import com.aidenx11.JavaPixelPhysics.elements.Element;
-import com.aidenx11.JavaPixelPhysics.elements.Empty;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Water;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Rust;
+import com.aidenx11.JavaPixelPhysics.color.Palette;
+import com.aidenx11.JavaPixelPhysics.elements.Reaction;
 
 /**
  * Class to manage Steel elements. Extends the Immovable class.
@@ -30,30 +24,63 @@ public class Steel extends Immovable {
 
 	public static ElementTypes type = ElementTypes.STEEL;
 	private static float chanceToRust = 0.0001f;
-	private static int colorIdx;
+	private int colorIdx;
 	
 	public static CustomColor color = new CustomColor(ColorValues.STEEL, true);
 
 	private static int[][] steelColors = new int[][] { { 206, 211, 212 }, { 192, 198, 199 }, { 168, 176, 178 },
 			{ 153, 163, 163 } };
 
-	public Steel(int row, int column) {
-		super(type, row, column, color, false, 5, false, false, 0, false, 0);
-		setColor();
+	/** Solid palette of each color in steelColors */
+	private static Palette[] steelPalettes = new Palette[] { new Palette(steelColors[0], false),
+			new Palette(steelColors[1], false), new Palette(steelColors[2], false),
+			new Palette(steelColors[3], false) };
+
+	public Steel() {
+		super(type, color, false, 5, false, false, 0, false, 0);
+
+		addReaction(new Reaction.Builder(ElementTypes.RUST).catalysts(ElementTypes.EMPTY, ElementTypes.WATER)
+				.chance(chanceToRust).decays().build());
 	}
 
+	/**
+	 * Gives each new Steel the next color in the steelColors pattern
+	 */
 	@Override
-	public void update() {
-		this.actOnOther();
-		super.update();
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		setColor(matrix, row, column);
+	}
+
+	@Override
+	public void update(CellularMatrix matrix, int row, int column) {
+		this.react(matrix, row, column, 1);
+		super.update(matrix, row, column);
+	}
+
+	/**
+	 * Lets Steel that is asleep keep rusting
+	 */
+	@Override
+	public void updateAsleep(CellularMatrix matrix, int row, int column, int frames) {
+		this.react(matrix, row, column, frames);
+	}
+
+	@Override
+	public boolean updatesAsleep() {
+		return true;
 	}
 
 	/**
 	 * Sets the color of each steel in a linear pattern to give an interesting
 	 * texture
+	 * 
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the steel
+	 * @param column column of the steel
 	 */
-	public void setColor() {
-		super.setColor(steelColors[colorIdx]);
+	public void setColor(CellularMatrix matrix, int row, int column) {
+		matrix.setColor(row, column, steelPalettes[colorIdx], 0);
 		if (colorIdx < 3) {
 			colorIdx++;
 		} else {
@@ -66,35 +93,8 @@ public class Steel extends Immovable {
 	 * 
 	 * @return the chance for steel to rust
 	 */
-	public float getChanceToRust() {
+	public static float getChanceToRust() {
 		return chanceToRust;
 	}
 
-	/**
-	 * Checks if this steel is exposed to the air or to water. If it is exposed to
-	 * air and there is rust near it, it will rust. If it is exposed to water for an
-	 * amount of time, it will rust.
-	 */
-	public void actOnOther() {
-		Element[] adjacentElements = PixelPhysicsGame.matrix.getAdjacentElements(this, true, true, true);
-		List<Element> shuffledElements = Arrays.asList(adjacentElements);
-		Collections.shuffle(shuffledElements);
-		Element nextElement;
-		boolean exposed = false;
-
-		for (int i = 0; i < shuffledElements.size(); i++) {
-			if (shuffledElements.get(i) instanceof Empty || shuffledElements.get(i) instanceof Water) {
-				exposed = true;
-			}
-		}
-
-		for (int i = 0; i < shuffledElements.size(); i++) {
-			nextElement = shuffledElements.get(i);
-			if (nextElement instanceof Rust && exposed && !this.limitedLife() && Math.random() < chanceToRust) {
-				this.setLimitedLife(true);
-				return;
-			}
-		}
-	}
-
 }
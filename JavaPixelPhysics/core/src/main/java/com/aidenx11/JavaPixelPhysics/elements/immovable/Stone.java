@@ -18,9 +18,8 @@ public class Stone extends Immovable {
 	
 	public static CustomColor color = new CustomColor(ColorValues.STONE, false);
 
-	public Stone(int row, int column) {
-		super(type, row, column, color, false, 0, false, false, 0, false,
-				meltingPoint);
+	public Stone() {
+		super(type, color, false, 0, false, false, 0, false, meltingPoint);
 	}
 
 }
@@ -22,9 +22,8 @@ public class Wood extends Immovable {
 	
 	public static CustomColor color =  new CustomColor(ColorValues.WOOD_COLOR, false);
 
-	public Wood(int row, int column) {
-		super(type, row, column, color, false, lifetime, true, false,
-				chanceToCatch, false, -1);
+	public Wood() {
+		super(type, color, false, lifetime, true, false, chanceToCatch, false, -1);
 	}
 
 }
@@ -1,34 +1,22 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable;
 
 import com.aidenx11.JavaPixelPhysics.CellularMatrix;
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.elements.Element;
-import com.aidenx11.JavaPixelPhysics.elements.Empty;
-import com.aidenx11.JavaPixelPhysics.elements.movable.gas.Gas;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Lava;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Liquid;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Water;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor.ElementKinds;
 
 /**
  * Superclass of all Movable elements in the simulation.
- * 
- * Includes fields to manage density, vertical and horizontal velocity,
- * acceleration, max speed, inertial resistance, friction, and direction, as
- * well as flags for whether or not the element is free falling and whether or
- * not the element moved last frame.
+ *
+ * Includes fields to manage density, acceleration, max speed, inertial
+ * resistance and friction. The vertical and horizontal velocity, direction, and
+ * whether or not each cell is free falling are stored in the matrix.
  */
 public abstract class Movable extends Element {
 
-	/** Density of this element */
-	private int density;
-
-	/** Vertical velocity of this element */
-	private float verticalVelocity;
-
-	/** Horizontal velocity of this element */
-	private float horizontalVelocity;
+	/** Vertical velocity of a new cell of this element */
+	private float velocity;
 
 	/** Acceleration of this element */
 	private float acceleration;
@@ -36,8 +24,6 @@ public abstract class Movable extends Element {
 	/** Maximum speed of this element */
 	private float maxSpeed;
 
-	protected boolean movedLastFrame = false;
-
 	/**
 	 * Inertial resistance of this element in the range 0-1 with 0 being the least
 	 * resistance, and 1 being the most. High inertial resistance will cause an
@@ -51,12 +37,6 @@ public abstract class Movable extends Element {
 	 */
 	private float friction;
 
-	/**
-	 * Direction this element is moving. -1 is left, 1 is right. 0 means it moves
-	 * neither direction
-	 */
-	private int direction;
-
 	/**
 	 * Whether or not this element moves sideways. For example, Water moves sideways
 	 * because even if it is 'settled', it can move left and right. Sand, for
@@ -65,114 +45,160 @@ public abstract class Movable extends Element {
 	private boolean movesSideways;
 
 	/**
-	 * Whether or not this element is free falling. Used mainly along with inertial
-	 * resistance to imitate a basic concept of inertia in movable elements
+	 * Whether or not a new cell of this element is free falling. Used mainly along
+	 * with inertial resistance to imitate a basic concept of inertia in movable
+	 * elements
 	 */
 	private boolean isFreeFalling;
 
-	protected int previousRow;
-	protected int previousCol;
-
-	public Movable(ElementTypes type, int row, int column, CustomColor color, boolean canDie, int lifetime,
-			boolean flammable, boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity,
-			float acceleration, float maxSpeed, int density, boolean movesSideways, boolean movesDown, float friction,
-			int temperature) {
-		super(type, row, column, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, movesDown,
-				temperature);
-		setVerticalVelocity(velocity);
+	public Movable(ElementTypes type, CustomColor color, boolean canDie, int lifetime, boolean flammable,
+			boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity, float acceleration,
+			float maxSpeed, int density, boolean movesSideways, boolean movesDown, float friction, int temperature) {
+		super(type, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, movesDown, temperature);
+		this.velocity = velocity;
 		setAcceleration(acceleration);
 		setMaxSpeed(maxSpeed);
 		setDensity(density);
 		setMovesSideways(movesSideways);
 		setFriction(friction);
 		super.setFallingThroughAir(true);
-		this.movedLastFrame = true;
-		CellularMatrix.activateChunk(row, column);
 	}
 
-	public abstract void updateMovementLogic();
+	@Override
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setVerticalVelocity(row, column, velocity);
+		this.setFreeFalling(matrix, row, column, isFreeFalling);
+	}
+
+	/**
+	 * Moves the given cell according to the rules of this element.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the index in the matrix of the cell after it has moved
+	 */
+	public abstract int updateMovementLogic(CellularMatrix matrix, int row, int column);
 
 	@Override
-	public void update() {
-		if (this instanceof Gas) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
-		}
-		if ((this instanceof Liquid || this instanceof Lava)
-				&& PixelPhysicsGame.matrix.getElement(getRow() + 1, getColumn(), true, false) instanceof Empty) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
-		}
-		if (this instanceof MovableSolid
-				&& PixelPhysicsGame.matrix.getElement(getRow() + 1, getColumn(), true, false) instanceof Liquid
-				&& PixelPhysicsGame.matrix.getElement(getRow() - 1, getColumn(), true, false) instanceof Liquid) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
+	public void update(CellularMatrix matrix, int row, int column) {
+		this.updateAndGetIndex(matrix, row, column);
+	}
+
+	/**
+	 * Updates the given cell the same way as update(), and returns where the cell
+	 * ended up.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the index in the matrix of the cell after it has been updated, or -1
+	 *         if the cell was replaced by another element
+	 */
+	public int updateAndGetIndex(CellularMatrix matrix, int row, int column) {
+		ElementDescriptor above = matrix.getDescriptor(row + 1, column);
+		ElementDescriptor below = matrix.getDescriptor(row - 1, column);
+
+		switch (matrix.getDescriptor(row, column).getKind()) {
+		case GAS:
+			matrix.activateChunk(row, column);
+			break;
+		case LIQUID:
+			if (above != null && above.getKind() == ElementKinds.EMPTY) {
+				matrix.activateChunk(row, column);
+			}
+			break;
+		case MOVABLE_SOLID:
+			if (above != null && above.getKind() == ElementKinds.LIQUID && below != null
+					&& below.getKind() == ElementKinds.LIQUID) {
+				matrix.activateChunk(row, column);
+			}
+			break;
+		default:
+			break;
 		}
-		if (PixelPhysicsGame.matrix.getElement(this.getRow() - 1, this.getColumn(), true, false) instanceof Empty) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
+		if (below != null && below.getKind() == ElementKinds.EMPTY) {
+			matrix.activateChunk(row, column);
 		}
-		if (CellularMatrix.getChunk(getRow(), getColumn()).activeThisFrame) {
-			this.updateMovementLogic();
-			if (this.limitedLife()) {
-				super.updateElementLife();
+		int index = this.updateMovementLogic(matrix, row, column);
+		row = matrix.getRowOfIndex(index);
+		column = matrix.getColumnOfIndex(index);
+		if (matrix.limitedLife(row, column)) {
+			if (super.updateElementLife(matrix, row, column)) {
+				return -1;
 			}
-			if (this.isFlammable()) {
-				super.updateBurningLogic();
+		}
+		if (this.isFlammable()) {
+			if (super.updateBurningLogic(matrix, row, column)) {
+				return -1;
 			}
 		}
+		return matrix.getIndex(row, column);
 	}
 
-	public int getVerticalUpdateCount() {
-		float abs = Math.abs(getVerticalVelocity());
+	public int getVerticalUpdateCount(CellularMatrix matrix, int row, int column) {
+		float abs = Math.abs(matrix.getVerticalVelocity(row, column));
 		int floored = (int) Math.floor(abs);
 		float mod = abs - floored;
 
-		return floored + (Math.random() < mod ? 1 : 0);
+		return floored + (matrix.getRandom().nextFloat() < mod ? 1 : 0);
 	}
 
-	public int getHorizontalUpdateCount() {
-		float abs = Math.abs(getHorizontalVelocity());
+	public int getHorizontalUpdateCount(CellularMatrix matrix, int row, int column) {
+		float abs = Math.abs(matrix.getHorizontalVelocity(row, column));
 		int floored = (int) Math.floor(abs);
 		float mod = abs - floored;
 
 		if (floored > 0) {
-			return floored + (Math.random() < mod ? 1 : 0);
+			return floored + (matrix.getRandom().nextFloat() < mod ? 1 : 0);
 		} else {
 			return 0;
 		}
 	}
 
-	public void updateVerticalVelocity() {
+	public void updateVerticalVelocity(CellularMatrix matrix, int row, int column) {
 
-		float newVelocity = this.getVerticalVelocity() + this.getAcceleration();
+		float newVelocity = matrix.getVerticalVelocity(row, column) + this.getAcceleration();
+		float maxSpeed = this.getMaxSpeed(matrix, row, column);
 
-		if (Math.abs(newVelocity) > this.getMaxSpeed()) {
-			newVelocity = Math.signum(newVelocity) * this.getMaxSpeed();
+		if (Math.abs(newVelocity) > maxSpeed) {
+			newVelocity = Math.signum(newVelocity) * maxSpeed;
 		}
 
-		this.setVerticalVelocity(newVelocity);
+		matrix.setVerticalVelocity(row, column, newVelocity);
 
-		if (this.getRow() > 0 && PixelPhysicsGame.matrix.getElement(this.getRow() - 1, this.getColumn(), false,
-				false) instanceof Water && this.getVerticalVelocity() > 0.7f) {
-			this.setVerticalVelocity(this.getVerticalVelocity() - 0.1f);
+		if (matrix.getType(row - 1, column) == ElementTypes.WATER && matrix.getVerticalVelocity(row, column) > 0.7f) {
+			matrix.setVerticalVelocity(row, column, matrix.getVerticalVelocity(row, column) - 0.1f);
 
 		}
 
 	}
 
-	public void updateHorizontalVelocity() {
-		float newAbsVelocity = Math.abs(getHorizontalVelocity()) * (1f - this.getFriction());
+	public void updateHorizontalVelocity(CellularMatrix matrix, int row, int column) {
+		float newAbsVelocity = Math.abs(matrix.getHorizontalVelocity(row, column)) * (1f - this.getFriction());
 
 		if (newAbsVelocity < 0) {
 			newAbsVelocity = 0;
 		}
 
-		this.setHorizontalVelocity(newAbsVelocity * getDirection());
+		matrix.setHorizontalVelocity(row, column, newAbsVelocity * matrix.getDirection(row, column));
 	}
 
-	public boolean setElementFreeFalling(MovableSolid sideways1) {
-		if (Math.random() > sideways1.getInertialResistance()) {
-			sideways1.setFreeFalling(true);
-			sideways1.movedLastFrame = true;
-//			CellularMatrix.activateChunk(sideways1.getRow(), sideways1.getColumn());
+	/**
+	 * Attempts to set the given cell free falling, based on its inertial
+	 * resistance.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell to set free falling
+	 * @param column column of the cell to set free falling
+	 * @return true if the cell was set free falling
+	 */
+	public boolean setElementFreeFalling(CellularMatrix matrix, int row, int column) {
+		ElementDescriptor descriptor = matrix.getDescriptor(row, column);
+		if (descriptor != null && descriptor.getKind() == ElementKinds.MOVABLE_SOLID
+				&& matrix.getRandom().nextFloat() > descriptor.getInertialResistance()) {
+			matrix.setFreeFalling(row, column, true);
 			return true;
 		}
 		return false;
@@ -182,39 +208,54 @@ public abstract class Movable extends Element {
 		return inertialResistance;
 	}
 
-	public void setInertialResistance(float inertialResistance) {
+	protected void setInertialResistance(float inertialResistance) {
 		this.inertialResistance = inertialResistance;
 	}
 
-	public boolean isFreeFalling() {
-		return isFreeFalling || !(this instanceof MovableSolid);
+	public boolean isFreeFalling(CellularMatrix matrix, int row, int column) {
+		return matrix.isFreeFalling(row, column)
+				|| matrix.getDescriptor(this.getType()).getKind() != ElementKinds.MOVABLE_SOLID;
 	}
 
-	public void setFreeFalling(boolean isFreeFalling) {
-		if (this instanceof MovableSolid) {
-			this.isFreeFalling = isFreeFalling;
+	public void setFreeFalling(CellularMatrix matrix, int row, int column, boolean isFreeFalling) {
+		if (matrix.getDescriptor(this.getType()).getKind() == ElementKinds.MOVABLE_SOLID) {
+			matrix.setFreeFalling(row, column, isFreeFalling);
 		} else {
-			this.isFreeFalling = true;
+			matrix.setFreeFalling(row, column, true);
 		}
 	}
 
-	public float getVerticalVelocity() {
-		return verticalVelocity;
+	/**
+	 * Sets whether or not a new cell of this element is free falling
+	 *
+	 * @param isFreeFalling whether or not a new cell is free falling
+	 */
+	protected void setFreeFalling(boolean isFreeFalling) {
+		this.isFreeFalling = isFreeFalling;
 	}
 
-	public void resetVelocity() {
-		setVerticalVelocity(0);
+	public void resetVelocity(CellularMatrix matrix, int row, int column) {
+		matrix.setVerticalVelocity(row, column, 0);
 	}
 
-	public void setVerticalVelocity(float velocity) {
-		this.verticalVelocity = velocity;
+	public float getMaxSpeed() {
+		return maxSpeed;
 	}
 
-	public float getMaxSpeed() {
+	/**
+	 * Returns the maximum speed of the given cell. Elements whose maximum speed
+	 * depends on the state of the cell override this.
+	 *
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return the maximum speed of the cell
+	 */
+	public float getMaxSpeed(CellularMatrix matrix, int row, int column) {
 		return maxSpeed;
 	}
 
-	public void setMaxSpeed(float maxSpeed) {
+	protected void setMaxSpeed(float maxSpeed) {
 		this.maxSpeed = maxSpeed;
 	}
 
@@ -222,48 +263,24 @@ public abstract class Movable extends Element {
 		return acceleration;
 	}
 
-	public void setAcceleration(float acceleration) {
+	protected void setAcceleration(float acceleration) {
 		this.acceleration = acceleration;
 	}
 
-	public float getDensity() {
-		return density;
-	}
-
-	public void setDensity(int density) {
-		this.density = density;
-	}
-
 	public boolean movesSideways() {
 		return movesSideways;
 	}
 
-	public void setMovesSideways(boolean movesSideways) {
+	protected void setMovesSideways(boolean movesSideways) {
 		this.movesSideways = movesSideways;
 	}
 
-	public float getHorizontalVelocity() {
-		return horizontalVelocity;
-	}
-
-	public void setHorizontalVelocity(float horizontalVelocity) {
-		this.horizontalVelocity = horizontalVelocity;
-	}
-
 	public float getFriction() {
 		return friction;
 	}
 
-	public void setFriction(float friction) {
+	protected void setFriction(float friction) {
 		this.friction = friction;
 	}
 
-	public int getDirection() {
-		return direction;
-	}
-
-	public void setDirection(int direction) {
-		this.direction = direction;
-	}
-
 }
@@ -1,10 +1,10 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.gas;
 
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
-import com.aidenx11.JavaPixelPhysics.elements.Element;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor.ElementKinds;
 import com.aidenx11.JavaPixelPhysics.elements.movable.Movable;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid;
 
 /**
  * Class to manage all Gas elements. Gas elements move upwards instead of
@@ -14,11 +14,11 @@ import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid
  */
 public class Gas extends Movable {
 
-	public Gas(ElementTypes type, int row, int column, CustomColor color, boolean canDie, int lifetime,
-			boolean flammable, boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity,
-			float acceleration, float maxSpeed, int density, boolean movesSideways) {
-		super(type, row, column, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, burnsThings,
-				velocity, acceleration, maxSpeed, density, movesSideways, false, 0f, 0);
+	public Gas(ElementTypes type, CustomColor color, boolean canDie, int lifetime, boolean flammable,
+			boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity, float acceleration,
+			float maxSpeed, int density, boolean movesSideways) {
+		super(type, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, burnsThings, velocity,
+				acceleration, maxSpeed, density, movesSideways, false, 0f, 0);
 		super.setFreeFalling(true);
 	}
 
@@ -28,56 +28,68 @@ public class Gas extends Movable {
 	 * worry about horizontal velocity or inertia.
 	 */
 	@Override
-	public void updateMovementLogic() {
-		this.updateVerticalVelocity();
+	public int updateMovementLogic(CellularMatrix matrix, int row, int column) {
+		this.updateVerticalVelocity(matrix, row, column);
 
-		for (int v = 0; v < this.getVerticalUpdateCount(); v++) {
+		for (int v = 0; v < this.getVerticalUpdateCount(matrix, row, column); v++) {
 
-			Element nextVertical1;
-			Element nextVertical2;
+			ElementDescriptor nextVertical1;
+			ElementDescriptor nextVertical2;
 
-			int delta = (int) Math.signum(this.getVerticalVelocity());
-			Element nextVertical = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn(), true, false);
-			int randDirection = Math.random() > 0.5 ? 1 : -1;
+			int delta = (int) Math.signum(matrix.getVerticalVelocity(row, column));
+			ElementDescriptor nextVertical = matrix.getDescriptor(row - delta, column);
+			int randDirection = matrix.getRandom().nextBoolean() ? 1 : -1;
 
-			nextVertical1 = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn() - randDirection, true, true);
-			nextVertical2 = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn() + randDirection, true, true);
+			nextVertical1 = matrix.getDescriptor(row - delta, column - randDirection);
+			nextVertical2 = matrix.getDescriptor(row - delta, column + randDirection);
 
-			Element sideways1 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() - randDirection, false, true);
-			Element sideways2 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() + randDirection, false, true);
+			int sidewaysRow = row;
+			int sideways1Column = column - randDirection;
+			int sideways2Column = column + randDirection;
+			ElementDescriptor sideways1 = matrix.getDescriptor(sidewaysRow, sideways1Column);
+			ElementDescriptor sideways2 = matrix.getDescriptor(sidewaysRow, sideways2Column);
 
 			if (nextVertical != null && nextVertical.getDensity() < this.getDensity()) {
-				PixelPhysicsGame.matrix.swap(this, nextVertical);
+				matrix.swap(row, column, row - delta, column);
+				row -= delta;
 			} else if (nextVertical1 != null && nextVertical1.getDensity() < this.getDensity()) {
-				PixelPhysicsGame.matrix.swap(this, nextVertical1);
+				matrix.swap(row, column, row - delta, column - randDirection);
+				row -= delta;
+				column -= randDirection;
 			} else if (nextVertical2 != null && nextVertical2.getDensity() < this.getDensity()
-					&& this.isFreeFalling()) {
-				PixelPhysicsGame.matrix.swap(this, nextVertical2);
+					&& this.isFreeFalling(matrix, row, column)) {
+				matrix.swap(row, column, row - delta, column + randDirection);
+				row -= delta;
+				column += randDirection;
 			} else {
-				this.resetVelocity();
+				this.resetVelocity(matrix, row, column);
 			}
 
-			if (sideways1 instanceof MovableSolid) {
-				setElementFreeFalling((MovableSolid) sideways1);
+			if (sideways1 != null && sideways1.getKind() == ElementKinds.MOVABLE_SOLID) {
+				setElementFreeFalling(matrix, sidewaysRow, sideways1Column);
 			}
 
-			if (sideways2 instanceof MovableSolid) {
-				setElementFreeFalling((MovableSolid) sideways2);
+			if (sideways2 != null && sideways2.getKind() == ElementKinds.MOVABLE_SOLID) {
+				setElementFreeFalling(matrix, sidewaysRow, sideways2Column);
 			}
 
 			if (this.movesSideways()) {
 
-				sideways1 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() - randDirection, false, true);
-				sideways2 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() + randDirection, false, true);
+				sideways1 = matrix.getDescriptor(row, column - randDirection);
+				sideways2 = matrix.getDescriptor(row, column + randDirection);
 
 				if (sideways1 != null && sideways1.getDensity() < this.getDensity()) {
-					PixelPhysicsGame.matrix.swap(this, sideways1);
+					matrix.swap(row, column, row, column - randDirection);
+					column -= randDirection;
 				} else if (sideways2 != null && sideways2.getDensity() < this.getDensity()) {
-					PixelPhysicsGame.matrix.swap(this, sideways2);
+					matrix.swap(row, column, row, column + randDirection);
+					column += randDirection;
 				}
 			}
 
 		}
+
+		return matrix.getIndex(row, column);
 	}
 
 }
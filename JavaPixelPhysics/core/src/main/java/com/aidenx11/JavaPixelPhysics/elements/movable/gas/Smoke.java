@@ -1,5 +1,6 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.gas;
 
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
 
@@ -21,9 +22,17 @@ public class Smoke extends Gas {
 
 	public static CustomColor color = new CustomColor(ColorValues.SMOKE, false);
 
-	public Smoke(int row, int column) {
-		super(type, row, column, color, true, (int) (150 + (Math.random() * 50)),
-				false, false, 0, false, 0, acceleration, maxSpeed, density, true);
-		super.setOnFire(Math.random() < 0.1);
+	public Smoke() {
+		super(type, color, true, 150, false, false, 0, false, 0, acceleration, maxSpeed, density, true);
+	}
+
+	/**
+	 * Gives each new Smoke a random lifetime, and a small chance to be on fire
+	 */
+	@Override
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setLifetime(row, column, 150 + matrix.getRandom().nextInt(50));
+		matrix.setOnFire(row, column, matrix.getRandom().nextFloat() < 0.1);
 	}
 }
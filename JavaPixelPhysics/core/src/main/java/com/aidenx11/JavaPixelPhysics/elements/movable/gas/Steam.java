@@ -1,5 +1,6 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.gas;
 
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
 
@@ -18,9 +19,17 @@ public class Steam extends Gas {
 	
 	private static CustomColor color = new CustomColor(ColorValues.STEAM, false);
 
-	public Steam(int row, int column) {
-		super(type, row, column, color, true, (int) (150 + Math.random() * 100),
-				false, false, 0, false, -0.15f, acceleration, maxSpeed, density, true);
+	public Steam() {
+		super(type, color, true, 150, false, false, 0, false, -0.15f, acceleration, maxSpeed, density, true);
+	}
+
+	/**
+	 * Gives each new Steam a random lifetime
+	 */
+	@Override
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setLifetime(row, column, 150 + matrix.getRandom().nextInt(100));
 	}
 
 }
@@ -1,25 +1,13 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.liquid;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
 import com.aidenx11.JavaPixelPhysics.CellularMatrix;
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
-import com.aidenx11.JavaPixelPhysics.color.ColorManager;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
+import com.aidenx11.JavaPixelPhysics.color.Palette;
 import com.aidenx11.JavaPixelPhysics.elements.Element;
-import com.aidenx11.JavaPixelPhysics.elements.Empty;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Steel;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Stone;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Wood;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor.ElementKinds;
+import com.aidenx11.JavaPixelPhysics.elements.Reaction;
 import com.aidenx11.JavaPixelPhysics.elements.movable.Movable;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Dirt;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Obsidian;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Sand;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid.WetDirt;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid.WetSand;
 
 /**
  * Class to manage Lava elements. Lava is a complex Liquid with a relatively low
@@ -30,8 +18,8 @@ import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_
  * elements, it typically turns them into more lava and lowers it and the newly
  * created lava's numberOfMelts. The numberOfMelts represents the "temperature"
  * of the lava. When numberOfMelts hits zero, the Lava turns into Obsidian. If
- * more hot lava is introduced, the Obsidian can melt back into lava. Lava will
- * transfer heat throughout itself when it is in pools from the outside in.
+ * more hot lava is introduced, the Obsidian can melt back into lava. Lava
+ * conducts heat throughout itself, so pools cool from the outside in.
  * 
  * As the numberOfMelts for the Lava decreases, so does the color and maximum
  * speed. This is done to simulate cooling magma, and the slow conversion from
@@ -42,310 +30,348 @@ import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_
 public class Lava extends Liquid {
 
 	public static ElementTypes type = ElementTypes.LAVA;
-	private static float acceleration = PixelPhysicsGame.GRAVITY_ACCELERATION;
+	private static float acceleration = CellularMatrix.GRAVITY_ACCELERATION;
 	private static float maxSpeed = 8f;
 	private static int density = 8;
 	private static int dispersionRate = 3;
 
 	private static int meltingPoint = 150;
-	private int numberOfMelts = 2000;
-	private int heatTransferCoefficient = 1;
+	private static int numberOfMelts = 2000;
+	private static float conductivity = 1f / 16;
 
 	private static float chanceToMeltDirt = 0.035f;
 	private static float chanceToMeltSand = 0.03f;
 	private static float chanceToMeltStone = 0.02f;
 	private static float chanceToMeltObsidian = 0.01f;
 
-	private float currentMaxSpeed;
-
 	public static int[][] lavaColorsRGB = new int[][] { { 236, 168, 61 }, { 236, 156, 61 }, { 236, 145, 61 },
 			{ 236, 127, 61 }, { 236, 117, 61 }, { 236, 102, 61 }, { 236, 86, 61 }, { 226, 59, 45 }, { 209, 46, 34 },
 			{ 176, 35, 23 }, { 151, 28, 18 }, { 117, 18, 38 } };
 
 	public static CustomColor color = new CustomColor(lavaColorsRGB[0]);
 
+	/** Shades of each color in lavaColorsRGB */
+	private static final Palette[] palettes = createPalettes();
+
 	public static float[] speeds = new float[] { maxSpeed, maxSpeed - maxSpeed / 11, maxSpeed - maxSpeed / 10,
 			maxSpeed - maxSpeed / 9, maxSpeed - maxSpeed / 8, maxSpeed - maxSpeed / 7, maxSpeed - maxSpeed / 6,
 			maxSpeed - maxSpeed / 5, maxSpeed - maxSpeed / 5, maxSpeed - maxSpeed / 5, maxSpeed - maxSpeed / 5,
 			maxSpeed - maxSpeed / 5 };
 
-	private int colorIdx;
-	private float idxDifference;
+	private static float idxDifference = (float) numberOfMelts / lavaColorsRGB.length;
 
-	public Lava(int row, int column) {
-		super(type, row, column, color, false, 1, false, false, 0, true, 0.9f, acceleration, maxSpeed, density, false,
+	public Lava() {
+		super(type, color, false, 1, false, false, 0, true, 0.9f, acceleration, maxSpeed, density, false,
 				dispersionRate, meltingPoint);
 		super.setOnFire(true);
-		colorIdx = -1;
-		idxDifference = (float) numberOfMelts / lavaColorsRGB.length;
-		this.updateColor();
+
+		addReaction(new Reaction.Builder(ElementTypes.EMPTY).heat(-1).build());
+		addReaction(new Reaction.Builder(ElementTypes.EMPTY).chance(0.0003f).product(ElementTypes.SMOKE).build());
+		addReaction(new Reaction.Builder(ElementTypes.WET_SAND).heat(-50).wakes().product(ElementTypes.SAND).build());
+		addReaction(new Reaction.Builder(ElementTypes.WET_DIRT).heat(-50).wakes().product(ElementTypes.DIRT).build());
+		addReaction(new Reaction.Builder(ElementTypes.WATER).heat(-10).wakes().build());
+		addReaction(new Reaction.Builder(ElementTypes.WATER).chance(0.001f).product(ElementTypes.STEAM).build());
+		addReaction(new Reaction.Builder(ElementTypes.STEEL).heat(-1).wakes().build());
+		addReaction(new Reaction.Builder(ElementTypes.WOOD).wakes().chance(0.01f).heat(-25)
+				.product(ElementTypes.LAVA).sharesHeat().build());
+		addMeltingReactions(ElementTypes.OBSIDIAN, 300, chanceToMeltObsidian, 250);
+		addMeltingReactions(ElementTypes.STONE, 175, chanceToMeltStone, 150);
+		addMeltingReactions(ElementTypes.SAND, 150, chanceToMeltSand, 100);
+		addMeltingReactions(ElementTypes.DIRT, 150, chanceToMeltDirt, 100);
+		addReaction(new Reaction.Builder(null).chance(0.03f).heat(-1).build());
+	}
+
+	/**
+	 * Adds the reactions of Lava melting the given element. Lava that is not hot
+	 * enough cools down against the element instead. If the element melts, it
+	 * becomes Lava and both cells lose the given amount of heat.
+	 * 
+	 * @param other    type of the element that melts
+	 * @param minMelts numberOfMelts the lava needs to be above to melt the element
+	 * @param chance   chance for the element to melt
+	 * @param cost     numberOfMelts both cells lose when the element melts
+	 */
+	private void addMeltingReactions(ElementTypes other, int minMelts, float chance, int cost) {
+		addReaction(new Reaction.Builder(other).heatRange(Integer.MIN_VALUE, minMelts).wakes().heat(-1).build());
+		addReaction(new Reaction.Builder(other).heatRange(minMelts + 1, Integer.MAX_VALUE).wakes().chance(chance)
+				.heat(-cost).product(ElementTypes.LAVA).sharesHeat().build());
 	}
 
+	/**
+	 * Starts each new Lava at the full numberOfMelts, with the color of the
+	 * hottest lava
+	 */
 	@Override
-	public void update() {
-		if (CellularMatrix.getChunk(getRow(), getColumn()).activeThisFrame) {
-			this.updateSpeed();
-			this.updateMovementLogic();
-			this.actOnOther();
-		} else if (Math.random() < 0.1f) {
-			this.setNumberOfMeltsToHarden(numberOfMelts - 1, false);
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setTemperature(row, column, numberOfMelts);
+		this.updateColor(matrix, row, column);
+	}
+
+	@Override
+	public void update(CellularMatrix matrix, int row, int column) {
+		int index = this.updateMovementLogic(matrix, row, column);
+		row = matrix.getRowOfIndex(index);
+		column = matrix.getColumnOfIndex(index);
+		if (this.harden(matrix, row, column) || this.react(matrix, row, column, 1)
+				|| this.harden(matrix, row, column)) {
+			return;
 		}
-		if (this.getNumberOfMeltsToHarden() < 10) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
+		this.updateHeat(matrix, row, column);
+	}
+
+	/**
+	 * Slowly cools Lava that is asleep
+	 */
+	@Override
+	public void updateAsleep(CellularMatrix matrix, int row, int column, int frames) {
+		float cooling = frames * 0.1f;
+		int melts = (int) cooling + (matrix.getRandom().nextFloat() < cooling - (int) cooling ? 1 : 0);
+		if (melts > 0) {
+			this.setNumberOfMeltsToHarden(matrix, row, column, getNumberOfMeltsToHarden(matrix, row, column) - melts,
+					false);
 		}
-		this.updateColor();
-		this.distributeHeat();
+		this.updateHeat(matrix, row, column);
+	}
+
+	@Override
+	public boolean updatesAsleep() {
+		return true;
 	}
 
 	/**
-	 * Updates the max speed of this Lava as it cools
+	 * Wakes the given Lava up once it is about to harden
+	 * 
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the lava
+	 * @param column column of the lava
 	 */
-	public void updateSpeed() {
-		if (this.getCurrentMaxSpeed() != speeds[colorIdx]) {
-			this.setCurrentMaxSpeed(speeds[colorIdx]);
-			super.setMaxSpeed(currentMaxSpeed);
+	private void updateHeat(CellularMatrix matrix, int row, int column) {
+		if (this.getNumberOfMeltsToHarden(matrix, row, column) < 10) {
+			matrix.activateChunk(row, column);
 		}
 	}
 
 	@Override
-	public void updateMovementLogic() {
-		this.updateVerticalVelocity();
+	public float getConductivity() {
+		return conductivity;
+	}
 
-		for (int v = 0; v < this.getVerticalUpdateCount(); v++) {
+	/**
+	 * Returns the max speed of the given Lava, which lowers as it cools
+	 */
+	@Override
+	public float getMaxSpeed(CellularMatrix matrix, int row, int column) {
+		return speeds[getColorIndex(getNumberOfMeltsToHarden(matrix, row, column))];
+	}
 
-			Element nextVertical1 = null;
-			Element nextVertical2 = null;
+	@Override
+	public int updateMovementLogic(CellularMatrix matrix, int row, int column) {
+		this.updateVerticalVelocity(matrix, row, column);
 
-			int delta = (int) Math.signum(this.getVerticalVelocity());
-			Element nextVertical = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn(), true,
-					false);
-			int randDirection = Math.random() > 0.5 ? 1 : -1;
+		for (int v = 0; v < this.getVerticalUpdateCount(matrix, row, column); v++) {
+
+			ElementDescriptor nextVertical1 = null;
+			ElementDescriptor nextVertical2 = null;
+			int nextVertical1Column = column;
+			int nextVertical2Column = column;
+
+			int delta = (int) Math.signum(matrix.getVerticalVelocity(row, column));
+			ElementDescriptor nextVertical = matrix.getDescriptor(row - delta, column);
+			int randDirection = matrix.getRandom().nextBoolean() ? 1 : -1;
 
 			for (int i = 0; i <= dispersionRate; i++) {
-				Element currentElement = PixelPhysicsGame.matrix.getElement(this.getRow() - delta,
-						this.getColumn() - randDirection * i, true, true);
-				if ((!(currentElement instanceof Empty) && !(currentElement instanceof Liquid))
-						|| i == dispersionRate) {
-					nextVertical1 = PixelPhysicsGame.matrix.getElement(this.getRow() - delta,
-							this.getColumn() - randDirection * i, true, true);
+				ElementDescriptor currentElement = matrix.getDescriptor(row - delta, column - randDirection * i);
+				if (currentElement == null || (currentElement.getKind() != ElementKinds.EMPTY
+						&& currentElement.getKind() != ElementKinds.LIQUID) || i == dispersionRate) {
+					nextVertical1 = currentElement;
+					nextVertical1Column = column - randDirection * i;
 					break;
 				}
 			}
 
 			for (int i = 0; i <= dispersionRate; i++) {
-				Element currentElement = PixelPhysicsGame.matrix.getElement(this.getRow() - delta,
-						this.getColumn() + randDirection * i, true, true);
-				if ((!(currentElement instanceof Empty) && !(currentElement instanceof Liquid))
-						|| i == dispersionRate) {
-					nextVertical2 = PixelPhysicsGame.matrix.getElement(this.getRow() - delta,
-							this.getColumn() + randDirection * i, true, true);
+				ElementDescriptor currentElement = matrix.getDescriptor(row - delta, column + randDirection * i);
+				if (currentElement == null || (currentElement.getKind() != ElementKinds.EMPTY
+						&& currentElement.getKind() != ElementKinds.LIQUID) || i == dispersionRate) {
+					nextVertical2 = currentElement;
+					nextVertical2Column = column + randDirection * i;
 					break;
 				}
 			}
 
 			if (nextVertical == null) {
-				this.setVerticalVelocity(0.01f);
+				matrix.setVerticalVelocity(row, column, 0.01f);
 			}
 
 			if (nextVertical != null && nextVertical.getDensity() < this.getDensity() - 1) {
-				if (nextVertical instanceof Liquid && !(nextVertical instanceof Lava)) {
-					this.setVerticalVelocity(0.7f);
+				if (nextVertical.getKind() == ElementKinds.LIQUID && nextVertical.getType() != ElementTypes.LAVA) {
+					matrix.setVerticalVelocity(row, column, 0.7f);
 				}
-				PixelPhysicsGame.matrix.swap(this, nextVertical);
+				matrix.swap(row, column, row - delta, column);
+				row -= delta;
 			} else if (nextVertical1 != null && nextVertical1.getDensity() < this.getDensity() - 1
 					&& nextVertical != null && nextVertical.getDensity() > this.getDensity()) {
-				PixelPhysicsGame.matrix.swap(this, nextVertical1);
+				matrix.swap(row, column, row - delta, nextVertical1Column);
+				row -= delta;
+				column = nextVertical1Column;
 			} else if (nextVertical2 != null && nextVertical2.getDensity() < this.getDensity() - 1
 					&& nextVertical != null && nextVertical.getDensity() > this.getDensity()) {
-				PixelPhysicsGame.matrix.swap(this, nextVertical2);
+				matrix.swap(row, column, row - delta, nextVertical2Column);
+				row -= delta;
+				column = nextVertical2Column;
 			} else {
-				this.setVerticalVelocity(2.5f);
+				matrix.setVerticalVelocity(row, column, 2.5f);
 			}
 
-			Element sideways1 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() - randDirection,
-					false, true);
-			Element sideways2 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() + randDirection,
-					false, true);
-			nextVertical = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn(), true, false);
+			ElementDescriptor sideways1 = matrix.getDescriptor(row, column - randDirection);
+			ElementDescriptor sideways2 = matrix.getDescriptor(row, column + randDirection);
+			nextVertical = matrix.getDescriptor(row - delta, column);
 
 			if (nextVertical == null) {
-				return;
+				return matrix.getIndex(row, column);
 			}
 
-			if (sideways1 instanceof MovableSolid) {
-				setElementFreeFalling((MovableSolid) sideways1);
+			if (sideways1 != null && sideways1.getKind() == ElementKinds.MOVABLE_SOLID) {
+				setElementFreeFalling(matrix, row, column - randDirection);
 			}
 
-			if (sideways2 instanceof MovableSolid) {
-				setElementFreeFalling((MovableSolid) sideways2);
+			if (sideways2 != null && sideways2.getKind() == ElementKinds.MOVABLE_SOLID) {
+				setElementFreeFalling(matrix, row, column + randDirection);
 			}
 
 			if (sideways1 != null && sideways1.getDensity() < this.getDensity() - 1
 					&& ((nextVertical != null && nextVertical.getDensity() == this.getDensity())
 							|| nextVertical == null)) {
-				PixelPhysicsGame.matrix.swap(this, sideways1);
+				matrix.swap(row, column, row, column - randDirection);
+				column -= randDirection;
 			} else if (sideways2 != null && sideways2.getDensity() < this.getDensity() - 1
 					&& ((nextVertical != null && nextVertical.getDensity() == this.getDensity())
 							|| nextVertical == null)) {
-				PixelPhysicsGame.matrix.swap(this, sideways2);
+				matrix.swap(row, column, row, column + randDirection);
+				column += randDirection;
 			}
 		}
+
+		return matrix.getIndex(row, column);
 	}
 
-	public void updateColor() {
+	/**
+	 * Creates the palette of each color in lavaColorsRGB
+	 * 
+	 * @return array of palettes in the same order as lavaColorsRGB
+	 */
+	private static Palette[] createPalettes() {
+		Palette[] array = new Palette[lavaColorsRGB.length];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = new Palette(lavaColorsRGB[i]);
+		}
+		return array;
+	}
+
+	/**
+	 * Returns the index in lavaColorsRGB of the color of lava with the given
+	 * numberOfMelts
+	 * 
+	 * @param numberOfMelts numberOfMelts of the lava
+	 * @return the index of the color in lavaColorsRGB
+	 */
+	public static int getColorIndex(int numberOfMelts) {
 		int newIdx = lavaColorsRGB.length - 1;
 		for (int i = 0; i < lavaColorsRGB.length; i++) {
 			if (idxDifference * i <= numberOfMelts) {
 				newIdx = lavaColorsRGB.length - i - 1;
 			}
 		}
-		if (newIdx != colorIdx) {
-			colorIdx = newIdx;
-			super.setColor(ColorManager.varyColor(lavaColorsRGB[newIdx]));
-		}
+		return newIdx;
 	}
 
-	public void distributeHeat() {
-		Element[] adjacentElements = PixelPhysicsGame.matrix.getAdjacentElements(this, true, true, true);
-		Element nextElement;
-		for (int i = 0; i < adjacentElements.length; i++) {
-			nextElement = adjacentElements[i];
-			if (nextElement instanceof Lava && this.getTemperature() < nextElement.getTemperature()) {
-				nextElement.setTemperature(nextElement.getTemperature() - heatTransferCoefficient);
-				this.setTemperature(this.getTemperature() + heatTransferCoefficient);
-				((Lava) nextElement).setNumberOfMeltsToHarden(
-						((Lava) nextElement).getNumberOfMeltsToHarden() - heatTransferCoefficient, false);
-				this.setNumberOfMeltsToHarden(numberOfMelts + heatTransferCoefficient, false);
-
-			}
-		}
+	/**
+	 * Sets the color of the given Lava based on its numberOfMelts, keeping the
+	 * shade it was given when it was created
+	 * 
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the lava
+	 * @param column column of the lava
+	 */
+	public void updateColor(CellularMatrix matrix, int row, int column) {
+		int idx = getColorIndex(getNumberOfMeltsToHarden(matrix, row, column));
+		matrix.setColor(row, column, palettes[idx], matrix.getShade(row, column));
 	}
 
 	/**
-	 * Method to handle all melting logic. Contains checks for different
-	 * ElementTypes and how the Lava should behave when encountering them.
+	 * Turns the given Lava into Obsidian once its numberOfMelts hits zero
+	 * 
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the lava
+	 * @param column column of the lava
+	 * @return true if the lava hardened into Obsidian
 	 */
-	public void actOnOther() {
-
-		Element[] adjacentElements = PixelPhysicsGame.matrix.getAdjacentElements(this, true, true, true);
-		List<Element> shuffledElements = Arrays.asList(adjacentElements);
-		Collections.shuffle(shuffledElements);
-		Element newElement;
-
-		for (int i = 0; i < shuffledElements.size(); i++) {
-
-			if (getNumberOfMeltsToHarden() < 1) {
-				newElement = PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.OBSIDIAN);
-				((Movable) newElement)
-						.setVerticalVelocity(this.getVerticalVelocity() < 0.7f ? 0.7f : this.getVerticalVelocity());
-				((Movable) newElement).setFreeFalling(true);
-				return;
-			}
-
-			if (shuffledElements.get(i) == null) {
-				continue;
-			}
-
-			if (shuffledElements.get(i) instanceof Empty) {
-				if (Math.random() < 0.0003) {
-					PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.SMOKE);
-				}
-				setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, false);
-				continue;
-			} else if (shuffledElements.get(i) instanceof WetSand) {
-				setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 50, true);
-				PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.SAND);
-				continue;
-			} else if (shuffledElements.get(i) instanceof WetDirt) {
-				setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 50, true);
-				PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.DIRT);
-				continue;
-			} else if (shuffledElements.get(i) instanceof Water) {
-				setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 10, true);
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				if (Math.random() < 0.001) {
-					PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.STEAM);
-				}
-				continue;
-			} else if (shuffledElements.get(i) instanceof Steel) {
-				setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, true);
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				continue;
-			} else if (shuffledElements.get(i) instanceof Wood) {
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				if (Math.random() < 0.01) {
-					newElement = PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.LAVA);
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 25, false);
-					((Lava) newElement).setNumberOfMeltsToHarden(this.getNumberOfMeltsToHarden(), false);
-				}
-				continue;
-			}
-			if (shuffledElements.get(i) instanceof Obsidian) {
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				if (this.numberOfMelts <= 300) {
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, true);
-				} else if (Math.random() < chanceToMeltObsidian) {
-					newElement = PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.LAVA);
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 250, false);
-					((Lava) newElement).setNumberOfMeltsToHarden(this.getNumberOfMeltsToHarden(), false);
-				}
-				continue;
-			}
-			if (shuffledElements.get(i) instanceof Stone) {
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				if (this.numberOfMelts <= 175) {
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, true);
-				} else if (Math.random() < chanceToMeltStone) {
-					newElement = PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.LAVA);
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 150, false);
-					((Lava) newElement).setNumberOfMeltsToHarden(this.getNumberOfMeltsToHarden(), false);
-				}
-				continue;
-			}
-			if (shuffledElements.get(i) instanceof Sand) {
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				if (this.numberOfMelts <= 150) {
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, true);
-				} else if (Math.random() < chanceToMeltSand) {
-					newElement = PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.LAVA);
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 100, false);
-					((Lava) newElement).setNumberOfMeltsToHarden(this.getNumberOfMeltsToHarden(), false);
-				}
-				continue;
-			}
-			if (shuffledElements.get(i) instanceof Dirt) {
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				if (this.numberOfMelts <= 150) {
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, true);
-				} else if (Math.random() < chanceToMeltDirt) {
-					newElement = PixelPhysicsGame.matrix.setNewElement(shuffledElements.get(i), ElementTypes.LAVA);
-					setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 100, false);
-					((Lava) newElement).setNumberOfMeltsToHarden(this.getNumberOfMeltsToHarden(), false);
-				}
-				continue;
-			} else if (Math.random() < 0.03) {
-				setNumberOfMeltsToHarden(getNumberOfMeltsToHarden() - 1, false);
-			}
+	private boolean harden(CellularMatrix matrix, int row, int column) {
+		if (getNumberOfMeltsToHarden(matrix, row, column) >= 1) {
+			return false;
 		}
+		float velocity = matrix.getVerticalVelocity(row, column);
+		Element newElement = matrix.setNewElement(row, column, ElementTypes.OBSIDIAN);
+		matrix.setVerticalVelocity(row, column, velocity < 0.7f ? 0.7f : velocity);
+		((Movable) newElement).setFreeFalling(matrix, row, column, true);
+		return true;
 	}
 
-	public int getNumberOfMeltsToHarden() {
-		return numberOfMelts;
+	/**
+	 * Sets the numberOfMelts of the given Lava
+	 */
+	@Override
+	public void changeTemperature(CellularMatrix matrix, int row, int column, int temperature,
+			boolean activateChunk) {
+		this.setNumberOfMeltsToHarden(matrix, row, column, temperature, activateChunk);
 	}
 
-	public void setNumberOfMeltsToHarden(int numberOfMeltsToHarden, boolean activateChunk) {
-		this.numberOfMelts = numberOfMeltsToHarden;
-		if (activateChunk && !CellularMatrix.getChunk(getRow(), getColumn()).activeNextFrame) {
-			CellularMatrix.activateChunk(getRow(), getColumn());
+	/**
+	 * Updates the color of the given Lava once heat conducted through it crosses
+	 * into a new color
+	 */
+	@Override
+	public void temperatureChanged(CellularMatrix matrix, int row, int column, int oldTemperature) {
+		if (getColorIndex(matrix.getTemperature(row, column)) != getColorIndex(oldTemperature)) {
+			this.updateColor(matrix, row, column);
 		}
 	}
 
-	public float getCurrentMaxSpeed() {
-		return currentMaxSpeed;
+	/**
+	 * Returns the numberOfMelts of the given Lava, which is stored as the
+	 * temperature of its cell
+	 * 
+	 * @param matrix matrix the cell is in
+	 * @param row    row of the lava
+	 * @param column column of the lava
+	 * @return the numberOfMelts of the lava
+	 */
+	public int getNumberOfMeltsToHarden(CellularMatrix matrix, int row, int column) {
+		return matrix.getTemperature(row, column);
 	}
 
-	public void setCurrentMaxSpeed(float currentMaxSpeed) {
-		this.currentMaxSpeed = currentMaxSpeed;
+	/**
+	 * Sets the numberOfMelts of the given Lava. If the lava crosses into a new
+	 * color, its color is updated.
+	 * 
+	 * @param matrix                matrix the cell is in
+	 * @param row                   row of the lava
+	 * @param column                column of the lava
+	 * @param numberOfMeltsToHarden numberOfMelts to set
+	 * @param activateChunk         whether or not to activate the chunk of the
+	 *                              lava
+	 */
+	public void setNumberOfMeltsToHarden(CellularMatrix matrix, int row, int column, int numberOfMeltsToHarden,
+			boolean activateChunk) {
+		int oldIdx = getColorIndex(matrix.getTemperature(row, column));
+		matrix.setTemperature(row, column, numberOfMeltsToHarden);
+		if (getColorIndex(numberOfMeltsToHarden) != oldIdx) {
+			this.updateColor(matrix, row, column);
+		}
+		if (activateChunk && !matrix.getChunks().isCellActiveNextFrame(row, column)) {
+			matrix.activateChunk(row, column);
+		}
 	}
 
 }
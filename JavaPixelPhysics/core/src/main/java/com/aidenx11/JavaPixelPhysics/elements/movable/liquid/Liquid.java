@@ -1,13 +1,11 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.liquid;
 
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.ColumnIndex;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
-import com.aidenx11.JavaPixelPhysics.elements.Element;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor.ElementKinds;
 import com.aidenx11.JavaPixelPhysics.elements.movable.Movable;
-import com.aidenx11.JavaPixelPhysics.elements.movable.gas.Gas;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid;
-import com.aidenx11.JavaPixelPhysics.elements.Empty;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Immovable;
 
 /**
  * Class to manage Liquids. Unlike movable solids, liquids have a dispersion
@@ -20,149 +18,152 @@ public class Liquid extends Movable {
 
 	private int dispersionRate;
 
-	public Liquid(ElementTypes type, int row, int column, CustomColor color, boolean canDie, int lifetime,
-			boolean flammable, boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity,
-			float acceleration, float maxSpeed, int density, boolean movesSideways, int dispersionRate,
-			int meltingPoint) {
-		super(type, row, column, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, burnsThings,
-				velocity, acceleration, maxSpeed, density, movesSideways, true, 0f, meltingPoint);
+	public Liquid(ElementTypes type, CustomColor color, boolean canDie, int lifetime, boolean flammable,
+			boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity, float acceleration,
+			float maxSpeed, int density, boolean movesSideways, int dispersionRate, int meltingPoint) {
+		super(type, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, burnsThings, velocity,
+				acceleration, maxSpeed, density, movesSideways, true, 0f, meltingPoint);
 		super.setFreeFalling(true);
 		setDispersionRate(dispersionRate);
 	}
 
 	@Override
-	public void updateMovementLogic() {
-		this.updateVerticalVelocity();
+	public int updateMovementLogic(CellularMatrix matrix, int row, int column) {
+		this.updateVerticalVelocity(matrix, row, column);
 
-		for (int v = 0; v < this.getVerticalUpdateCount(); v++) {
+		for (int v = 0; v < this.getVerticalUpdateCount(matrix, row, column); v++) {
 
-			int randDirection = Math.random() > 0.5 ? 1 : -1;
+			int randDirection = matrix.getRandom().nextBoolean() ? 1 : -1;
 
-			if (this.isFallingThroughAir()) {
-				this.setFallingThroughAir(false);
+			if (matrix.isFallingThroughAir(row, column)) {
+				matrix.setFallingThroughAir(row, column, false);
 			}
 			
-			int dispersionRate = (int) Math.round(this.getDispersionRate() * Math.random() + 0.5);
+			int dispersionRate = (int) Math.round(this.getDispersionRate() * matrix.getRandom().nextFloat() + 0.5);
 
-			Element nextVertical1 = null;
-			Element nextVertical2 = null;
-			Element nextVertical = null;
+			ElementDescriptor nextVertical1 = null;
+			ElementDescriptor nextVertical2 = null;
+			ElementDescriptor nextVertical = null;
+			int nextVertical1Column = column;
+			int nextVertical2Column = column;
 
-			int delta = (int) Math.signum(this.getVerticalVelocity());
+			int delta = (int) Math.signum(matrix.getVerticalVelocity(row, column));
 
-			nextVertical = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn(), true, false);
+			nextVertical = matrix.getDescriptor(row - delta, column);
 
-			if (!(nextVertical instanceof Immovable)) {
+			if (nextVertical == null || nextVertical.getKind() != ElementKinds.IMMOVABLE) {
 				for (int i = 0; i <= dispersionRate; i++) {
-					Element currentElement = PixelPhysicsGame.matrix.getElement(this.getRow() - delta,
-							this.getColumn() - randDirection * i, true, true);
-					if (currentElement instanceof Immovable) {
+					ElementDescriptor currentElement = matrix.getDescriptor(row - delta, column - randDirection * i);
+					if (currentElement != null && currentElement.getKind() == ElementKinds.IMMOVABLE) {
 						break;
 					}
 					
 
 					nextVertical1 = currentElement;
+					nextVertical1Column = column - randDirection * i;
 
 				}
 
 				for (int i = 0; i <= dispersionRate; i++) {
-					Element currentElement = PixelPhysicsGame.matrix.getElement(this.getRow() - delta,
-							this.getColumn() + randDirection * i, true, true);
-					if (currentElement instanceof Immovable) {
+					ElementDescriptor currentElement = matrix.getDescriptor(row - delta, column + randDirection * i);
+					if (currentElement != null && currentElement.getKind() == ElementKinds.IMMOVABLE) {
 						break;
 					}
 					
 
 					nextVertical2 = currentElement;
+					nextVertical2Column = column + randDirection * i;
 
 				}
 			}
 
-			for (int i = this.getRow() - delta; i >= 0; i--) {
-				Element elementToCheck = PixelPhysicsGame.matrix.getElement(i, this.getColumn(), false, false);
-				if (elementToCheck instanceof Immovable) {
-					break;
-				}
-				if (elementToCheck instanceof Empty) {
-					setFallingThroughAir(true);
-					break;
-				}
-
+			if (matrix.findBelow(row - delta, column, ColumnIndex.LIQUID) == ElementTypes.EMPTY) {
+				matrix.setFallingThroughAir(row, column, true);
 			}
 
 			if (nextVertical != null && nextVertical.getDensity() < this.getDensity()) {
 
-				PixelPhysicsGame.matrix.swap(this, nextVertical);
+				matrix.swap(row, column, row - delta, column);
+				row -= delta;
 
-			} else if (nextVertical1 != null && !(nextVertical1 instanceof Gas)
-					&& (nextVertical1.getDensity() < this.getDensity() || (nextVertical1.isFallingThroughAir()
-							&& nextVertical1.getDensity() == this.getDensity()))) {
+			} else if (nextVertical1 != null && nextVertical1.getKind() != ElementKinds.GAS
+					&& (nextVertical1.getDensity() < this.getDensity()
+							|| (matrix.isFallingThroughAir(row - delta, nextVertical1Column)
+									&& nextVertical1.getDensity() == this.getDensity()))) {
 
-				PixelPhysicsGame.matrix.swap(this, nextVertical1);
+				matrix.swap(row, column, row - delta, nextVertical1Column);
+				row -= delta;
+				column = nextVertical1Column;
 
-			} else if (nextVertical2 != null && !(nextVertical2 instanceof Gas)
-					&& (nextVertical2.getDensity() < this.getDensity() || (nextVertical2.isFallingThroughAir()
-							&& nextVertical2.getDensity() == this.getDensity()))) {
+			} else if (nextVertical2 != null && nextVertical2.getKind() != ElementKinds.GAS
+					&& (nextVertical2.getDensity() < this.getDensity()
+							|| (matrix.isFallingThroughAir(row - delta, nextVertical2Column)
+									&& nextVertical2.getDensity() == this.getDensity()))) {
 
-				PixelPhysicsGame.matrix.swap(this, nextVertical2);
+				matrix.swap(row, column, row - delta, nextVertical2Column);
+				row -= delta;
+				column = nextVertical2Column;
 
 			} else {
 
-				this.resetVelocity();
+				this.resetVelocity(matrix, row, column);
 
-				Element sideways1 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() - randDirection,
-						false, true);
-				Element sideways2 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() + randDirection,
-						false, true);
+				ElementDescriptor sideways1 = matrix.getDescriptor(row, column - randDirection);
+				ElementDescriptor sideways2 = matrix.getDescriptor(row, column + randDirection);
+				int sideways1Column = column - randDirection;
+				int sideways2Column = column + randDirection;
 
 				for (int i = 0; i <= dispersionRate; i++) {
-					Element currentElement = PixelPhysicsGame.matrix.getElement(this.getRow(),
-							this.getColumn() - randDirection * i, false, true);
+					ElementDescriptor currentElement = matrix.getDescriptor(row, column - randDirection * i);
 
-					if (currentElement instanceof Immovable) {
+					if (currentElement != null && currentElement.getKind() == ElementKinds.IMMOVABLE) {
 						break;
 					}
 
 					sideways1 = currentElement;
+					sideways1Column = column - randDirection * i;
 
 				}
 
 				for (int i = 0; i <= dispersionRate; i++) {
-					Element currentElement = PixelPhysicsGame.matrix.getElement(this.getRow(),
-							this.getColumn() + randDirection * i, false, true);
+					ElementDescriptor currentElement = matrix.getDescriptor(row, column + randDirection * i);
 
-					if (currentElement instanceof Immovable) {
+					if (currentElement != null && currentElement.getKind() == ElementKinds.IMMOVABLE) {
 						break;
 					}
 
 					sideways2 = currentElement;
+					sideways2Column = column + randDirection * i;
 
 				}
 
-				if (sideways1 instanceof MovableSolid) {
-					setElementFreeFalling((MovableSolid) sideways1);
+				if (sideways1 != null && sideways1.getKind() == ElementKinds.MOVABLE_SOLID) {
+					setElementFreeFalling(matrix, row, sideways1Column);
 				}
 
-				if (sideways2 instanceof MovableSolid) {
-					setElementFreeFalling((MovableSolid) sideways2);
+				if (sideways2 != null && sideways2.getKind() == ElementKinds.MOVABLE_SOLID) {
+					setElementFreeFalling(matrix, row, sideways2Column);
 				}
 
 				if (sideways1 != null && sideways1.getDensity() < this.getDensity()) {
-					PixelPhysicsGame.matrix.swap(this, sideways1);
+					matrix.swap(row, column, row, sideways1Column);
+					column = sideways1Column;
 				} else if (sideways2 != null && sideways2.getDensity() < this.getDensity()) {
-					PixelPhysicsGame.matrix.swap(this, sideways2);
+					matrix.swap(row, column, row, sideways2Column);
+					column = sideways2Column;
 				}
 			}
 
 		}
 
+		return matrix.getIndex(row, column);
 	}
 
 	public int getDispersionRate() {
 		return dispersionRate;
 	}
 
-	public void setDispersionRate(int dispersionRate) {
+	protected void setDispersionRate(int dispersionRate) {
 		this.dispersionRate = dispersionRate;
 	}
 
@@ -1,18 +1,10 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.liquid;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-
 import com.aidenx11.JavaPixelPhysics.CellularMatrix;
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
-import com.aidenx11.JavaPixelPhysics.elements.Element;
+import com.aidenx11.JavaPixelPhysics.elements.Reaction;
 import com.aidenx11.JavaPixelPhysics.elements.immovable.Steel;
-import com.aidenx11.JavaPixelPhysics.elements.movable.Movable;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Dirt;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Sand;
 
 /**
  * Class to manage Water elements. Water is a relatively simple liquid with a
@@ -33,64 +25,32 @@ import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Sand;
 public class Water extends Liquid {
 
 	public static ElementTypes type = ElementTypes.WATER;
-	private static float acceleration = PixelPhysicsGame.GRAVITY_ACCELERATION + 0.2f;
+	private static float acceleration = CellularMatrix.GRAVITY_ACCELERATION + 0.2f;
 	private static float maxSpeed = 12f;
 	private static int density = 6;
 	private static int dispersionRate = 9;
 
 	public static CustomColor color = new CustomColor(ColorValues.WATER, false);
 
-	public Water(int row, int column) {
-		super(type, row, column, color, false, 1, true, true, 0, false, 0, acceleration, maxSpeed, density, true,
-				dispersionRate, -1);
+	public Water() {
+		super(type, color, false, 1, true, true, 0, false, 0, acceleration, maxSpeed, density, true, dispersionRate,
+				-1);
 		super.setFallingThroughAir(true);
-	}
 
-	@Override
-	public void update() {
-		if (CellularMatrix.getChunk(getRow(), getColumn()).activeThisFrame) {
-			this.actOnOther();
-		}
-		super.update();
+		addReaction(new Reaction.Builder(ElementTypes.SAND).directions(Reaction.SIDES_AND_BELOW)
+				.product(ElementTypes.WET_SAND).keepsVelocity().selfProduct(ElementTypes.EMPTY).build());
+		addReaction(new Reaction.Builder(ElementTypes.DIRT).directions(Reaction.SIDES_AND_BELOW)
+				.product(ElementTypes.WET_DIRT).keepsVelocity().selfProduct(ElementTypes.EMPTY).build());
+		addReaction(new Reaction.Builder(ElementTypes.STEEL).directions(Reaction.SIDES_AND_BELOW)
+				.chance(Steel.getChanceToRust()).otherDecays().build());
 	}
 
-	/**
-	 * Method to control water saturating Dirt and Sand.
-	 * 
-	 * @return true if an element was saturated
-	 */
-	public boolean actOnOther() {
-
-		Element[] adjacentElements = PixelPhysicsGame.matrix.getAdjacentElements(this, false, true, true);
-		List<Element> shuffledElements = Arrays.asList(adjacentElements);
-		Collections.shuffle(shuffledElements);
-		Element nextElement;
-
-		for (int i = 0; i < shuffledElements.size(); i++) {
-			nextElement = shuffledElements.get(i);
-			if (nextElement instanceof Sand) {
-				Element newElement = PixelPhysicsGame.matrix.setNewElement(nextElement, ElementTypes.WET_SAND);
-				((Movable) newElement).setVerticalVelocity(((Movable) nextElement).getVerticalVelocity());
-				PixelPhysicsGame.matrix.clearElement(this);
-				adjacentElements = null;
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				return true;
-			}
-			if (nextElement instanceof Dirt) {
-				Element newElement = PixelPhysicsGame.matrix.setNewElement(nextElement, ElementTypes.WET_DIRT);
-				((Movable) newElement).setVerticalVelocity(((Movable) nextElement).getVerticalVelocity());
-				PixelPhysicsGame.matrix.clearElement(this);
-				adjacentElements = null;
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				return true;
-			}
-			if (nextElement instanceof Steel) {
-				causeRust(nextElement);
-			}
-
+	@Override
+	public void update(CellularMatrix matrix, int row, int column) {
+		if (this.react(matrix, row, column, 1)) {
+			return;
 		}
-		adjacentElements = null;
-		return false;
+		super.update(matrix, row, column);
 	}
 
 }
@@ -1,13 +1,13 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid;
 
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
 
 public class Dirt extends MovableSolid {
 
 	public static ElementTypes type = ElementTypes.DIRT;
-	private static float acceleration = PixelPhysicsGame.GRAVITY_ACCELERATION;
+	private static float acceleration = CellularMatrix.GRAVITY_ACCELERATION;
 	private static float maxSpeed = 8f;
 	private static int density = 7;
 	private static float inertialResistance = 0.5f;
@@ -16,10 +16,19 @@ public class Dirt extends MovableSolid {
 	
 	public static CustomColor color = new CustomColor(ColorValues.WET_DIRT, false);
 
-	public Dirt(int row, int column) {
-		super(type, row, column, color, false, -1, false, Math.random() < 0.8, 0,
+	public Dirt() {
+		super(type, color, false, -1, false, true, 0,
 				false, 0, acceleration, maxSpeed, density, false, inertialResistance, friction, meltingPoint);
 		super.setFreeFalling(true);
 	}
 
+	/**
+	 * Rolls whether or not the new Dirt extinguishes other elements
+	 */
+	@Override
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setExtinguishesThings(row, column, matrix.getRandom().nextFloat() < 0.8);
+	}
+
 }
@@ -1,13 +1,14 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid;
 
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
+import com.aidenx11.JavaPixelPhysics.elements.Reaction;
 
 public class WetDirt extends WetMovableSolid {
 
-	public static ElementTypes type = ElementTypes.DIRT;
-	private static float acceleration = PixelPhysicsGame.GRAVITY_ACCELERATION - 0.05f;
+	public static ElementTypes type = ElementTypes.WET_DIRT;
+	private static float acceleration = CellularMatrix.GRAVITY_ACCELERATION - 0.05f;
 	private static float maxSpeed = 3f;
 	private static int density = 8;
 	private static float inertialResistance = 0.7f;
@@ -15,10 +16,22 @@ public class WetDirt extends WetMovableSolid {
 	
 	public static CustomColor color = new CustomColor(ColorValues.DIRT, false);
 
-	public WetDirt(int row, int column) {
-		super(type, row, column, color, false, -1, false, Math.random() < 0.8, 0, false,
+	public WetDirt() {
+		super(type, color, false, -1, false, true, 0, false,
 				1f, acceleration, maxSpeed, density, false, inertialResistance, friction, -1);
 		super.setFreeFalling(true);
+
+		addReaction(new Reaction.Builder(ElementTypes.SAND).directions(Reaction.BELOW)
+				.product(ElementTypes.WET_SAND).selfProduct(ElementTypes.DIRT).build());
+	}
+
+	/**
+	 * Rolls whether or not the new WetDirt extinguishes other elements
+	 */
+	@Override
+	public void initialize(CellularMatrix matrix, int row, int column) {
+		super.initialize(matrix, row, column);
+		matrix.setExtinguishesThings(row, column, matrix.getRandom().nextFloat() < 0.8);
 	}
 
 }
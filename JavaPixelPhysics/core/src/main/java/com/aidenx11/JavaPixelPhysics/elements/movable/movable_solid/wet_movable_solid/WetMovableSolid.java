@@ -1,242 +1,212 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid;
 
 import com.aidenx11.JavaPixelPhysics.CellularMatrix;
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.ColumnIndex;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
-import com.aidenx11.JavaPixelPhysics.elements.Element;
-import com.aidenx11.JavaPixelPhysics.elements.Empty;
-import com.aidenx11.JavaPixelPhysics.elements.immovable.Immovable;
-import com.aidenx11.JavaPixelPhysics.elements.movable.Movable;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Lava;
-import com.aidenx11.JavaPixelPhysics.elements.movable.liquid.Water;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Dirt;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor.ElementKinds;
 import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.MovableSolid;
-import com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.Sand;
 
 public class WetMovableSolid extends MovableSolid {
 
-	public WetMovableSolid(ElementTypes type, int row, int column, CustomColor color, boolean canDie, int lifetime,
-			boolean flammable, boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity,
-			float acceleration, float maxSpeed, int density, boolean movesSideways, float inertialResistance,
-			float friction, int temperature) {
-		super(type, row, column, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, burnsThings,
-				velocity, acceleration, maxSpeed, density, movesSideways, inertialResistance, friction, temperature);
+	public WetMovableSolid(ElementTypes type, CustomColor color, boolean canDie, int lifetime, boolean flammable,
+			boolean extinguishesThings, float chanceToCatch, boolean burnsThings, float velocity, float acceleration,
+			float maxSpeed, int density, boolean movesSideways, float inertialResistance, float friction,
+			int temperature) {
+		super(type, color, canDie, lifetime, flammable, extinguishesThings, chanceToCatch, burnsThings, velocity,
+				acceleration, maxSpeed, density, movesSideways, inertialResistance, friction, temperature);
 	}
 
 	@Override
-	public void update() {
+	public void update(CellularMatrix matrix, int row, int column) {
 
-		super.update();
-		this.checkForDryElements();
+		int index = super.updateAndGetIndex(matrix, row, column);
+		if (index >= 0) {
+			this.react(matrix, matrix.getRowOfIndex(index), matrix.getColumnOfIndex(index), 1);
+		}
 	}
 
 	@Override
-	public void updateMovementLogic() {
+	public int updateMovementLogic(CellularMatrix matrix, int row, int column) {
 
-		this.updateVerticalVelocity();
+		this.updateVerticalVelocity(matrix, row, column);
 
-		boolean thisIsWetDirt = (this instanceof WetDirt);
-		boolean thisIsWetSand = (this instanceof WetSand);
+		boolean thisIsWetDirt = this.getType() == ElementTypes.WET_DIRT;
+		boolean thisIsWetSand = this.getType() == ElementTypes.WET_SAND;
+		ElementTypes dryType = thisIsWetSand ? ElementTypes.SAND : thisIsWetDirt ? ElementTypes.DIRT : null;
 
-		Element nextVertical;
-		Element nextVertical1;
-		Element nextVertical2;
-		Element sideways1;
-		Element sideways2;
+		ElementDescriptor nextVertical;
+		ElementDescriptor nextVertical1;
+		ElementDescriptor nextVertical2;
+		ElementDescriptor sideways1;
+		ElementDescriptor sideways2;
 
-		for (int v = 0; v < this.getVerticalUpdateCount(); v++) {
+		for (int v = 0; v < this.getVerticalUpdateCount(matrix, row, column); v++) {
 
-			int delta = (int) Math.signum(this.getVerticalVelocity());
+			int delta = (int) Math.signum(matrix.getVerticalVelocity(row, column));
 
-			nextVertical = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn(), true, false);
-			int randDirection = Math.random() > 0.5 ? 1 : -1;
+			nextVertical = matrix.getDescriptor(row - delta, column);
+			int nextVerticalRow = row - delta;
+			int nextVerticalColumn = column;
+			int randDirection = matrix.getRandom().nextBoolean() ? 1 : -1;
 
-			if (this.getHorizontalVelocity() > 0 && this.isFreeFalling()) {
-				this.setVerticalVelocity(this.getVerticalVelocity() + this.getHorizontalVelocity());
+			if (matrix.getHorizontalVelocity(row, column) > 0 && this.isFreeFalling(matrix, row, column)) {
+				matrix.setVerticalVelocity(row, column,
+						matrix.getVerticalVelocity(row, column) + matrix.getHorizontalVelocity(row, column));
 			}
 
-			if (this.isFallingThroughAir()) {
-				CellularMatrix.activateChunk(getRow(), getColumn());
-				this.setFallingThroughAir(false);
+			if (matrix.isFallingThroughAir(row, column)) {
+				matrix.activateChunk(row, column);
+				matrix.setFallingThroughAir(row, column, false);
 			}
 
 			if (delta > 0) {
-				for (int i = this.getRow() - delta; i >= 0; i--) {
-					Element elementToCheck = PixelPhysicsGame.matrix.getElement(i, this.getColumn(), false, false);
-
-					if (elementToCheck instanceof Immovable || elementToCheck instanceof Lava
-							|| elementToCheck instanceof WetSand || elementToCheck instanceof WetDirt) {
-						break;
-					}
-					if (elementToCheck instanceof Empty || elementToCheck instanceof Water) {
-						setFallingThroughAir(true);
-						break;
-					}
-					if (this instanceof WetSand && (elementToCheck instanceof Sand)) {
-						setFallingThroughAir(true);
-						break;
-					}
-					if (this instanceof WetDirt && (elementToCheck instanceof Dirt)) {
-						setFallingThroughAir(true);
-						break;
-					}
+				ElementTypes below = matrix.findBelow(row - delta, column,
+						thisIsWetSand ? ColumnIndex.WET_SAND : ColumnIndex.WET_DIRT);
+				if (below == ElementTypes.EMPTY || below == ElementTypes.WATER
+						|| below == (thisIsWetSand ? ElementTypes.SAND : ElementTypes.DIRT)) {
+					matrix.setFallingThroughAir(row, column, true);
 				}
 			}
 
-			sideways1 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() - randDirection, false,
-					true);
-			sideways2 = PixelPhysicsGame.matrix.getElement(this.getRow(), this.getColumn() + randDirection, false,
-					true);
+			int sidewaysRow = row;
+			int sideways1Column = column - randDirection;
+			int sideways2Column = column + randDirection;
+			sideways1 = matrix.getDescriptor(sidewaysRow, sideways1Column);
+			sideways2 = matrix.getDescriptor(sidewaysRow, sideways2Column);
 
-			boolean inContainer = sideways1 instanceof Immovable || sideways2 instanceof Immovable;
+			boolean inContainer = (sideways1 != null && sideways1.getKind() == ElementKinds.IMMOVABLE)
+					|| (sideways2 != null && sideways2.getKind() == ElementKinds.IMMOVABLE);
 
-			nextVertical1 = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn() - randDirection,
-					true, true);
-			nextVertical2 = PixelPhysicsGame.matrix.getElement(this.getRow() - delta, this.getColumn() + randDirection,
-					true, true);
+			nextVertical1 = matrix.getDescriptor(row - delta, column - randDirection);
+			nextVertical2 = matrix.getDescriptor(row - delta, column + randDirection);
 
 			if (nextVertical != null && (nextVertical.getDensity() < this.getDensity() - 1
-					|| ((thisIsWetDirt && nextVertical instanceof Dirt)
-							|| (thisIsWetSand && nextVertical instanceof Sand)))) {
+					|| nextVertical.getType() == dryType)) {
 
-				setFreeFalling(true);
-				PixelPhysicsGame.matrix.swap(this, nextVertical);
-				setDirection(randDirection);
-				setHorizontalVelocity(0f);
-				updateVerticalVelocity();
-				setVerticalVelocity(this.getVerticalVelocity() + this.getHorizontalVelocity());
+				this.setFreeFalling(matrix, row, column, true);
+				matrix.swap(row, column, row - delta, column);
+				row -= delta;
+				matrix.setDirection(row, column, randDirection);
+				matrix.setHorizontalVelocity(row, column, 0f);
+				updateVerticalVelocity(matrix, row, column);
+				matrix.setVerticalVelocity(row, column,
+						matrix.getVerticalVelocity(row, column) + matrix.getHorizontalVelocity(row, column));
 
 			} else if (nextVertical1 != null
 					&& (nextVertical1.getDensity() < this.getDensity() - 1
-							|| ((nextVertical1.isFallingThroughAir()
+							|| ((matrix.isFallingThroughAir(row - delta, column - randDirection)
 									&& nextVertical1.getDensity() == this.getDensity()))
-							|| ((thisIsWetDirt && nextVertical1 instanceof Dirt)
-									|| (thisIsWetSand && nextVertical1 instanceof Sand)))
-					&& (this.isFreeFalling() || this.getHorizontalVelocity() > 0) && !inContainer) {
+							|| nextVertical1.getType() == dryType)
+					&& (this.isFreeFalling(matrix, row, column) || matrix.getHorizontalVelocity(row, column) > 0)
+					&& !inContainer) {
 
-				PixelPhysicsGame.matrix.swap(this, nextVertical1);
-				setDirection(randDirection * -1);
+				matrix.swap(row, column, row - delta, column - randDirection);
+				row -= delta;
+				column -= randDirection;
+				matrix.setDirection(row, column, randDirection * -1);
 
-				if (this.getHorizontalVelocity() > 0) {
-					this.setElementFreeFalling(this);
+				if (matrix.getHorizontalVelocity(row, column) > 0) {
+					this.setElementFreeFalling(matrix, row, column);
 				}
 
 			} else if (nextVertical2 != null
 					&& (nextVertical2.getDensity() < this.getDensity() - 1
-							|| ((nextVertical2.isFallingThroughAir())
+							|| ((matrix.isFallingThroughAir(row - delta, column + randDirection))
 									&& nextVertical2.getDensity() == this.getDensity())
-							|| ((thisIsWetDirt && nextVertical2 instanceof Dirt)
-									|| (thisIsWetSand && nextVertical2 instanceof Sand)))
-					&& (this.isFreeFalling() || this.getHorizontalVelocity() > 0) && !inContainer) {
+							|| nextVertical2.getType() == dryType)
+					&& (this.isFreeFalling(matrix, row, column) || matrix.getHorizontalVelocity(row, column) > 0)
+					&& !inContainer) {
 
-				PixelPhysicsGame.matrix.swap(this, nextVertical2);
-				setDirection(randDirection);
+				matrix.swap(row, column, row - delta, column + randDirection);
+				row -= delta;
+				column += randDirection;
+				matrix.setDirection(row, column, randDirection);
 
-				if (this.getHorizontalVelocity() > 0) {
-					this.setElementFreeFalling(this);
+				if (matrix.getHorizontalVelocity(row, column) > 0) {
+					this.setElementFreeFalling(matrix, row, column);
 				}
 
 			} else {
 
-				this.updateHorizontalVelocity();
-				this.setFreeFalling(false);
+				this.updateHorizontalVelocity(matrix, row, column);
+				this.setFreeFalling(matrix, row, column, false);
 
-				if (this.getHorizontalVelocity() == 0 && this.getVerticalVelocity() > 0) {
-					this.setHorizontalVelocity((float) (this.getDirection() * getVerticalVelocity() * Math.random()));
+				if (matrix.getHorizontalVelocity(row, column) == 0 && matrix.getVerticalVelocity(row, column) > 0) {
+					matrix.setHorizontalVelocity(row, column, matrix.getDirection(row, column)
+							* matrix.getVerticalVelocity(row, column) * matrix.getRandom().nextFloat());
 				} else {
-					for (int i = 0; i < getHorizontalUpdateCount(); i++) {
+					for (int i = 0; i < getHorizontalUpdateCount(matrix, row, column); i++) {
+
+						int direction = matrix.getDirection(row, column);
 
-						if (getDirection() != 0) {
+						if (direction != 0) {
 
-							Element elementInDirection = PixelPhysicsGame.matrix.getElement(getRow(),
-									getColumn() + getDirection(), false, true);
-							Element elementBelowDirection = PixelPhysicsGame.matrix.getElement(getRow() - 1,
-									getColumn() + getDirection(), true, true);
+							ElementDescriptor elementInDirection = matrix.getDescriptor(row, column + direction);
+							ElementDescriptor elementBelowDirection = matrix.getDescriptor(row - 1, column + direction);
 
 							if (elementInDirection != null && (elementInDirection.getDensity() < this.getDensity() - 1
-									|| ((thisIsWetDirt && elementInDirection instanceof Dirt)
-											|| (thisIsWetSand && elementInDirection instanceof Sand)))) {
+									|| elementInDirection.getType() == dryType)) {
 
 								if (elementBelowDirection != null
 										&& (elementBelowDirection.getDensity() < this.getDensity() - 1
-												|| ((thisIsWetDirt && elementBelowDirection instanceof Dirt)
-														|| (thisIsWetSand && elementBelowDirection instanceof Sand)))) {
-
-									PixelPhysicsGame.matrix.swap(this, elementBelowDirection);
-
-									nextVertical = PixelPhysicsGame.matrix.getElement(getRow() - 1, getColumn(), true,
-											false);
+												|| elementBelowDirection.getType() == dryType)) {
 
-									if (nextVertical instanceof Empty) {
-										CellularMatrix.activateChunk(getRow(), getColumn());
-									}
+									matrix.swap(row, column, row - 1, column + direction);
+									row -= 1;
+									column += direction;
 
 								} else {
 
-									PixelPhysicsGame.matrix.swap(this, elementInDirection);
+									matrix.swap(row, column, row, column + direction);
+									column += direction;
 
-									nextVertical = PixelPhysicsGame.matrix.getElement(getRow() - 1, getColumn(), true,
-											false);
+								}
 
-									if (nextVertical instanceof Empty) {
-										CellularMatrix.activateChunk(getRow(), getColumn());
-									}
+								nextVertical = matrix.getDescriptor(row - 1, column);
+								nextVerticalRow = row - 1;
+								nextVerticalColumn = column;
 
+								if (nextVertical != null && nextVertical.getKind() == ElementKinds.EMPTY) {
+									matrix.activateChunk(row, column);
 								}
 
 							} else {
 
-								setHorizontalVelocity(0);
-								setDirection(0);
+								matrix.setHorizontalVelocity(row, column, 0);
+								matrix.setDirection(row, column, 0);
 								break;
 							}
 
 						}
-						updateHorizontalVelocity();
+						updateHorizontalVelocity(matrix, row, column);
 					}
 
 				}
 
-				if (!(nextVertical instanceof MovableSolid) || !((Movable) nextVertical).isFreeFalling()) {
-					setFreeFalling(false);
+				if (nextVertical == null || nextVertical.getKind() != ElementKinds.MOVABLE_SOLID
+						|| !matrix.isFreeFalling(nextVerticalRow, nextVerticalColumn)) {
+					this.setFreeFalling(matrix, row, column, false);
 				}
 
-				this.resetVelocity();
+				this.resetVelocity(matrix, row, column);
 
 			}
 
-			if (this.isFreeFalling()) {
-				if (sideways1 instanceof MovableSolid) {
-					setElementFreeFalling((MovableSolid) sideways1);
+			if (this.isFreeFalling(matrix, row, column)) {
+				if (sideways1 != null && sideways1.getKind() == ElementKinds.MOVABLE_SOLID) {
+					setElementFreeFalling(matrix, sidewaysRow, sideways1Column);
 
 				}
-				if (sideways2 instanceof MovableSolid) {
-					setElementFreeFalling((MovableSolid) sideways2);
+				if (sideways2 != null && sideways2.getKind() == ElementKinds.MOVABLE_SOLID) {
+					setElementFreeFalling(matrix, sidewaysRow, sideways2Column);
 
 				}
 			}
 
 		}
 
-	}
-
-	public void checkForDryElements() {
-		Element[] elementsBelow = PixelPhysicsGame.matrix.getAdjacentElements(this, false, false, true);
-
-		for (int i = 0; i < elementsBelow.length; i++) {
-			Element currentElement = elementsBelow[i];
-
-			if (this instanceof WetDirt && currentElement instanceof Sand) {
-				PixelPhysicsGame.matrix.setNewElement(currentElement, ElementTypes.WET_SAND);
-				PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.DIRT);
-				return;
-			}
-			if (this instanceof WetSand && currentElement instanceof Dirt) {
-				PixelPhysicsGame.matrix.setNewElement(currentElement, ElementTypes.WET_DIRT);
-				PixelPhysicsGame.matrix.setNewElement(this, ElementTypes.SAND);
-				return;
-			}
-		}
+		return matrix.getIndex(row, column);
 	}
 
 }
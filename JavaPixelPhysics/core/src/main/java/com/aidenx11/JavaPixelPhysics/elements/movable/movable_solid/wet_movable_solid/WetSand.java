@@ -1,13 +1,14 @@
 package com.aidenx11.JavaPixelPhysics.elements.movable.movable_solid.wet_movable_solid;
 
-import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor;
 import com.aidenx11.JavaPixelPhysics.color.CustomColor.ColorValues;
+import com.aidenx11.JavaPixelPhysics.elements.Reaction;
 
 public class WetSand extends WetMovableSolid {
 
 	public static ElementTypes type = ElementTypes.WET_SAND;
-	private static float acceleration = PixelPhysicsGame.GRAVITY_ACCELERATION - 0.05f;
+	private static float acceleration = CellularMatrix.GRAVITY_ACCELERATION - 0.05f;
 	private static float maxSpeed = 3f;
 	private static int density = 8;
 	private static float inertialResistance = 0.01f;
@@ -15,10 +16,13 @@ public class WetSand extends WetMovableSolid {
 	
 	public static CustomColor color = new CustomColor(ColorValues.WET_SAND, false);
 
-	public WetSand(int row, int column) {
-		super(type, row, column, color, false, -1, false, true, 0, false, 1f,
+	public WetSand() {
+		super(type, color, false, -1, false, true, 0, false, 1f,
 				acceleration, maxSpeed, density, false, inertialResistance, friction, -1);
 		super.setFreeFalling(true);
+
+		addReaction(new Reaction.Builder(ElementTypes.DIRT).directions(Reaction.BELOW)
+				.product(ElementTypes.WET_DIRT).selfProduct(ElementTypes.SAND).build());
 	}
 	
 }
@@ -251,7 +251,7 @@ public class MouseInput implements InputProcessor {
 			}
 
 			if (Gdx.input.getX() >= 0 && Gdx.input.getY() <= PixelPhysicsGame.SCREEN_HEIGHT) {
-				CellularMatrix.activateChunk((PixelPhysicsGame.SCREEN_HEIGHT - Gdx.input.getY()) / pixelSizeModifier,
+				matrix.activateChunk((PixelPhysicsGame.SCREEN_HEIGHT - Gdx.input.getY()) / pixelSizeModifier,
 						Gdx.input.getX() / pixelSizeModifier);
 			}
 			
@@ -265,7 +265,7 @@ public class MouseInput implements InputProcessor {
 				return;
 			}
 
-			int[][] points = CellularMatrix.traverseMatrix(mousePos.x, mousePos.y, lastMousePos.x, lastMousePos.y);
+			int[][] points = matrix.traverseMatrix(mousePos.x, mousePos.y, lastMousePos.x, lastMousePos.y);
 			if (points.length == 1) {
 				points[0][0] = (int) (mousePos.y / pixelSizeModifier);
 				points[0][1] = (int) (mousePos.x / pixelSizeModifier);
@@ -337,102 +337,102 @@ public class MouseInput implements InputProcessor {
 			top = 0;
 		}
 
-		if (top >= CellularMatrix.rows) {
-			top = CellularMatrix.rows - 1;
+		if (top >= matrix.getRows()) {
+			top = matrix.getRows() - 1;
 		}
 
 		if (bottom < 0) {
 			bottom = 0;
 		}
 
-		if (bottom >= CellularMatrix.rows) {
-			bottom = CellularMatrix.rows - 1;
+		if (bottom >= matrix.getRows()) {
+			bottom = matrix.getRows() - 1;
 		}
 
 		if (left < 0) {
 			left = 0;
 		}
 
-		if (left >= CellularMatrix.columns) {
-			left = CellularMatrix.columns - 1;
+		if (left >= matrix.getColumns()) {
+			left = matrix.getColumns() - 1;
 		}
 
 		if (right < 0) {
 			right = 0;
 		}
 
-		if (right >= CellularMatrix.columns) {
-			right = CellularMatrix.columns - 1;
+		if (right >= matrix.getColumns()) {
+			right = matrix.getColumns() - 1;
 		}
 
 		for (int rowCount = bottom; rowCount <= top; rowCount++) {
 			for (int colCount = left; colCount <= right; colCount++) {
 				if (insideCircle(row, column, radius, rowCount, colCount)) {
-					if (Math.random() > p) {
+					if (matrix.getRandom().nextFloat() > p) {
 						continue;
 					}
 					switch (type) {
 					case SAND:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Sand)) {
-							matrix.setElement(new Sand(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.SAND);
 						}
 						break;
 					case EMPTY:
-						matrix.setElement(new Empty(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.EMPTY);
 						break;
 					case WOOD:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Wood)) {
-							matrix.setElement(new Wood(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.WOOD);
 						}
 						break;
 					case SMOKE:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Smoke)) {
-							matrix.setElement(new Smoke(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.SMOKE);
 						}
 						break;
 					case FIRE:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Fire)) {
-							matrix.setElement(new Fire(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.FIRE);
 						}
 						break;
 					case WATER:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Water)) {
-							matrix.setElement(new Water(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.WATER);
 						}
 						break;
 					case LEAF:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Leaf)) {
-							matrix.setElement(new Leaf(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.LEAF);
 						}
 						break;
 					case DIRT:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Dirt)) {
-							matrix.setElement(new Dirt(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.DIRT);
 						}
 						break;
 					case STONE:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Stone)) {
-							matrix.setElement(new Stone(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.STONE);
 						}
 						break;
 					case LAVA:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Lava)) {
-							matrix.setElement(new Lava(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.LAVA);
 						}
 						break;
 					case OBSIDIAN:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Obsidian)) {
-							matrix.setElement(new Obsidian(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.OBSIDIAN);
 						}
 						break;
 					case STEEL:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Steel)) {
-							matrix.setElement(new Steel(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.STEEL);
 						}
 						break;
 					case VOID:
 						if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Void)) {
-							matrix.setElement(new Void(rowCount, colCount));
+							matrix.setNewElement(rowCount, colCount, ElementTypes.VOID);
 						}
 						break;
 					default:
@@ -501,7 +501,7 @@ public class MouseInput implements InputProcessor {
 		for (int colCount = column - colDifference - extraColOffset; colCount <= column + colDifference; colCount++) {
 			for (int rowCount = row - rowDifference - extraRowOffset; rowCount <= row + rowDifference; rowCount++) {
 
-				if (Math.random() > p) {
+				if (matrix.getRandom().nextFloat() > p) {
 					continue;
 				}
 
@@ -509,7 +509,7 @@ public class MouseInput implements InputProcessor {
 					continue;
 				}
 
-				if (rowCount >= CellularMatrix.rows) {
+				if (rowCount >= matrix.getRows()) {
 					continue;
 				}
 
@@ -517,69 +517,69 @@ public class MouseInput implements InputProcessor {
 					continue;
 				}
 
-				if (colCount >= CellularMatrix.columns) {
+				if (colCount >= matrix.getColumns()) {
 					continue;
 				}
 
 				switch (this.elementType) {
 				case SAND:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Sand)) {
-						matrix.setElement(new Sand(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.SAND);
 					}
 					break;
 				case EMPTY:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Empty)) {
-						matrix.setElement(new Empty(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.EMPTY);
 					}
 					break;
 				case WOOD:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Wood)) {
-						matrix.setElement(new Wood(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.WOOD);
 					}
 					break;
 				case FIRE:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Fire)) {
-						matrix.setElement(new Fire(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.FIRE);
 					}
 					break;
 				case LEAF:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Leaf)) {
-						matrix.setElement(new Leaf(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.LEAF);
 					}
 					break;
 				case WATER:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Water)) {
-						matrix.setElement(new Water(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.WATER);
 					}
 					break;
 				case DIRT:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Dirt)) {
-						matrix.setElement(new Dirt(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.DIRT);
 					}
 					break;
 				case STONE:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Stone)) {
-						matrix.setElement(new Stone(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.STONE);
 					}
 					break;
 				case LAVA:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Lava)) {
-						matrix.setElement(new Lava(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.LAVA);
 					}
 					break;
 				case OBSIDIAN:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Obsidian)) {
-						matrix.setElement(new Obsidian(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.OBSIDIAN);
 					}
 					break;
 				case STEEL:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Steel)) {
-						matrix.setElement(new Steel(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.STEEL);
 					}
 					break;
 				case VOID:
 					if (!(matrix.getElement(rowCount, colCount, false, false) instanceof Void)) {
-						matrix.setElement(new Void(rowCount, colCount));
+						matrix.setNewElement(rowCount, colCount, ElementTypes.VOID);
 					}
 					break;
 				case SMOKE:
@@ -621,7 +621,7 @@ public class MouseInput implements InputProcessor {
 	public boolean touchUp(int screenX, int screenY, int pointer, int button) {
 		if (brushType == BrushTypes.RECTANGLE) {
 
-			int[][] traversedMatrix = CellularMatrix.traverseMatrix(rectOriginX, rectOriginY, screenX,
+			int[][] traversedMatrix = matrix.traverseMatrix(rectOriginX, rectOriginY, screenX,
 					PixelPhysicsGame.SCREEN_HEIGHT - screenY);
 
 			int startRow = Math.min(traversedMatrix[0][0], traversedMatrix[traversedMatrix.length - 1][0]);
@@ -687,7 +687,9 @@ public class MouseInput implements InputProcessor {
 				}
 			}
 
-			drawRectangle(startRow, startCol, height, width, 1);
+			synchronized (matrix) {
+				drawRectangle(startRow, startCol, height, width, 1);
+			}
 
 		}
 		return false;
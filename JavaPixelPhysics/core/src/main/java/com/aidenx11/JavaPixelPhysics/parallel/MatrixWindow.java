@@ -0,0 +1,162 @@
+package com.aidenx11.JavaPixelPhysics.parallel;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.elements.Element;
+import com.aidenx11.JavaPixelPhysics.elements.Element.ElementTypes;
+import com.aidenx11.JavaPixelPhysics.elements.ElementDescriptor;
+
+/**
+ * View of a rectangular window of a CellularMatrix, used to update one tile of
+ * the matrix on its own thread. The window covers the tile and a margin around
+ * it. Cells outside of the window are reported as out of bounds, so an element
+ * being updated in the tile can never see, move into, or change a cell outside
+ * of the window.
+ *
+ * @author Aiden Schroeder
+ */
+class MatrixWindow extends CellularMatrix {
+
+	/** First row of the tile */
+	private final int tileFirstRow;
+
+	/** Row after the last row of the tile */
+	private final int tileLastRow;
+
+	/** First column of the tile */
+	private final int tileFirstColumn;
+
+	/** Column after the last column of the tile */
+	private final int tileLastColumn;
+
+	/** First row of the window */
+	private final int firstRow;
+
+	/** Row after the last row of the window */
+	private final int lastRow;
+
+	/** First column of the window */
+	private final int firstColumn;
+
+	/** Column after the last column of the window */
+	private final int lastColumn;
+
+	/**
+	 * Creates a window of the given matrix around the given tile. The window is
+	 * clipped to the bounds of the matrix.
+	 *
+	 * @param matrix          matrix to view
+	 * @param tileFirstRow    first row of the tile
+	 * @param tileLastRow     row after the last row of the tile
+	 * @param tileFirstColumn first column of the tile
+	 * @param tileLastColumn  column after the last column of the tile
+	 * @param margin          number of cells the window extends past each side
+	 *                        of the tile
+	 */
+	MatrixWindow(CellularMatrix matrix, int tileFirstRow, int tileLastRow, int tileFirstColumn, int tileLastColumn,
+			int margin) {
+		super(matrix);
+		this.tileFirstRow = tileFirstRow;
+		this.tileLastRow = tileLastRow;
+		this.tileFirstColumn = tileFirstColumn;
+		this.tileLastColumn = tileLastColumn;
+		this.firstRow = Math.max(0, tileFirstRow - margin);
+		this.lastRow = Math.min(matrix.getGrid().getRows(), tileLastRow + margin);
+		this.firstColumn = Math.max(0, tileFirstColumn - margin);
+		this.lastColumn = Math.min(matrix.getGrid().getColumns(), tileLastColumn + margin);
+	}
+
+	/**
+	 * Updates every cell of the tile whose element moves in the given vertical
+	 * direction.
+	 *
+	 * @param direction whether to update each row left to right
+	 * @param movesDown whether to update the elements that move down, or the ones
+	 *                  that do not
+	 */
+	void updateTile(boolean direction, boolean movesDown) {
+		this.updateRegion(tileFirstRow, tileLastRow, tileFirstColumn, tileLastColumn, direction, movesDown);
+	}
+
+	/**
+	 * Conducts one frame of heat between the cells of the tile
+	 */
+	void diffuseTile() {
+		this.diffuseHeat(tileFirstRow, tileLastRow, tileFirstColumn, tileLastColumn);
+	}
+
+	/**
+	 * Returns whether the given cell is inside of this window
+	 *
+	 * @param row    row of the cell
+	 * @param column column of the cell
+	 * @return true if the cell is inside of the window
+	 */
+	boolean contains(int row, int column) {
+		return row >= firstRow && row < lastRow && column >= firstColumn && column < lastColumn;
+	}
+
+	/**
+	 * Retrieves the element at the given row and column of the matrix, or null if
+	 * the cell is outside of this window.
+	 */
+	@Override
+	public Element getElement(int row, int column, boolean checkRow, boolean checkCol) {
+		if (!contains(row, column)) {
+			return null;
+		}
+		return super.getElement(row, column, false, false);
+	}
+
+	/**
+	 * Returns the descriptor of the type of the given cell, or null if the cell is
+	 * outside of this window.
+	 */
+	@Override
+	public ElementDescriptor getDescriptor(int row, int column) {
+		if (!contains(row, column)) {
+			return null;
+		}
+		return super.getDescriptor(row, column);
+	}
+
+	/**
+	 * Returns the type of the given cell, or null if the cell is outside of this
+	 * window.
+	 */
+	@Override
+	public ElementTypes getType(int row, int column) {
+		if (!contains(row, column)) {
+			return null;
+		}
+		return super.getType(row, column);
+	}
+
+	/**
+	 * Returns the type of the nearest cell at or below the given cell whose type is
+	 * in the given group, or null if there is none inside of this window.
+	 */
+	@Override
+	public ElementTypes findBelow(int row, int column, int group) {
+		if (!contains(row, column)) {
+			return null;
+		}
+		return this.findBelow(row, column, group, firstRow);
+	}
+
+	/**
+	 * Gets the elements adjacent to the given cell, leaving out any that are
+	 * outside of this window.
+	 */
+	@Override
+	public Element[] getAdjacentElements(int row, int col, boolean top, boolean sides, boolean bottom) {
+		Element[] adjacentElements = super.getAdjacentElements(row, col, top, sides, bottom);
+		for (int i = 0; i < adjacentElements.length; i++) {
+			if (adjacentElements[i] != null && !contains(row + CellularMatrix.adjacentRowOffsets[i],
+					col + CellularMatrix.adjacentColumnOffsets[i])) {
+				adjacentElements[i] = null;
+			}
+		}
+		return adjacentElements;
+	}
+
+}
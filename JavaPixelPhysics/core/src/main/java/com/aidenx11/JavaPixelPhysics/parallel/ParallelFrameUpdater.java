@@ -0,0 +1,245 @@
+package com.aidenx11.JavaPixelPhysics.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.aidenx11.JavaPixelPhysics.CellularMatrix;
+import com.aidenx11.JavaPixelPhysics.FrameUpdater;
+
+/**
+ * Updates a CellularMatrix on several threads at once using a checkerboard of
+ * tiles. The chunks of the matrix are grouped into square tiles, and the tiles
+ * are split into four phases in a 2x2 checkerboard pattern. The phases are
+ * updated one after another, and all tiles of the same phase are updated at the
+ * same time on a ForkJoinPool.
+ *
+ * Each tile is updated through a MatrixWindow covering the tile and a margin of
+ * MARGIN_CHUNKS chunks on every side. Tiles of the same phase are a full tile
+ * apart, so their windows never overlap and no two threads ever touch the same
+ * cell. Activating a cell can also activate the chunk just outside of its
+ * window, so tiles are made large enough to leave two chunks between the
+ * windows of the same phase. That way no two threads ever grow the dirty
+ * rectangle of the same chunk at once.
+ *
+ * Heat is conducted from the temperatures saved before any of it flows, so
+ * every tile conducts its heat at the same time instead of in phases.
+ *
+ * Every window has its own random number generator, which draws from the
+ * streams of the chunks of the matrix as it updates them. Each chunk is only
+ * ever updated by one window, so a seeded matrix updates the same way on any
+ * number of threads.
+ *
+ * This class uses threads and is not compiled for the web version of the game.
+ *
+ * @author Aiden Schroeder
+ */
+public class ParallelFrameUpdater implements FrameUpdater {
+
+	/** Number of chunks the window of a tile extends past each side of it */
+	public static final int MARGIN_CHUNKS = 2;
+
+	/** Smallest number of chunks along each side of a tile */
+	public static final int MIN_CHUNKS_PER_TILE = 2 * MARGIN_CHUNKS + 2;
+
+	/** Default number of chunks along each side of a tile */
+	public static final int DEFAULT_CHUNKS_PER_TILE = MIN_CHUNKS_PER_TILE;
+
+	/** Pool that tiles are updated on */
+	private final ForkJoinPool pool;
+
+	/** Number of chunks along each side of a tile */
+	private final int chunksPerTile;
+
+	/** Matrix the tiles were last created for */
+	private CellularMatrix matrix;
+
+	/** Number of rows the tiles were last created for */
+	private int rows;
+
+	/** Number of columns the tiles were last created for */
+	private int columns;
+
+	/** Windows of the tiles in each of the four phases */
+	private MatrixWindow[][] phases;
+
+	/** Windows of every tile */
+	private MatrixWindow[] tiles;
+
+	/**
+	 * Creates an updater with the given number of threads and the default tile
+	 * size.
+	 *
+	 * @param threads number of threads to update tiles on
+	 */
+	public ParallelFrameUpdater(int threads) {
+		this(threads, DEFAULT_CHUNKS_PER_TILE);
+	}
+
+	/**
+	 * Creates an updater with the given number of threads and tile size.
+	 *
+	 * @param threads       number of threads to update tiles on
+	 * @param chunksPerTile number of chunks along each side of a tile
+	 */
+	public ParallelFrameUpdater(int threads, int chunksPerTile) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be at least 1: " + threads);
+		}
+		if (chunksPerTile < MIN_CHUNKS_PER_TILE) {
+			throw new IllegalArgumentException(
+					"chunksPerTile must be at least " + MIN_CHUNKS_PER_TILE + ": " + chunksPerTile);
+		}
+		this.pool = new ForkJoinPool(threads);
+		this.chunksPerTile = chunksPerTile;
+	}
+
+	@Override
+	public void updateFrame(CellularMatrix matrix, boolean direction) {
+		this.checkTiles(matrix);
+
+		for (int i = 0; i < phases.length; i++) {
+			pool.invoke(new TileUpdate(phases[i], 0, phases[i].length, direction, true));
+		}
+		for (int i = 0; i < phases.length; i++) {
+			pool.invoke(new TileUpdate(phases[i], 0, phases[i].length, direction, false));
+		}
+	}
+
+	@Override
+	public void diffuseHeat(CellularMatrix matrix) {
+		this.checkTiles(matrix);
+		pool.invoke(new TileDiffusion(tiles, 0, tiles.length));
+	}
+
+	/**
+	 * Splits the given matrix into tiles, unless the tiles were already created
+	 * for it at its current size.
+	 *
+	 * @param matrix matrix about to be updated
+	 */
+	private void checkTiles(CellularMatrix matrix) {
+		if (matrix != this.matrix || matrix.getGrid().getRows() != rows
+				|| matrix.getGrid().getColumns() != columns) {
+			this.createTiles(matrix);
+		}
+	}
+
+	/**
+	 * @return the number of threads tiles are updated on
+	 */
+	public int getThreads() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Stops the threads of this updater. The updater cannot be used afterwards.
+	 */
+	public void dispose() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Splits the given matrix into tiles and sorts them into the four phases of
+	 * the checkerboard.
+	 *
+	 * @param matrix matrix to split
+	 */
+	private void createTiles(CellularMatrix matrix) {
+		this.matrix = matrix;
+		this.rows = matrix.getGrid().getRows();
+		this.columns = matrix.getGrid().getColumns();
+
+		int tileSize = chunksPerTile * matrix.getChunkSize();
+		int margin = MARGIN_CHUNKS * matrix.getChunkSize();
+
+		List<List<MatrixWindow>> tilesOfPhase = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			tilesOfPhase.add(new ArrayList<>());
+		}
+		List<MatrixWindow> allTiles = new ArrayList<>();
+
+		for (int tileRow = 0; tileRow * tileSize < rows; tileRow++) {
+			for (int tileColumn = 0; tileColumn * tileSize < columns; tileColumn++) {
+				int firstRow = tileRow * tileSize;
+				int firstColumn = tileColumn * tileSize;
+				int phase = (tileRow % 2) * 2 + (tileColumn % 2);
+				MatrixWindow tile = new MatrixWindow(matrix, firstRow, Math.min(firstRow + tileSize, rows),
+						firstColumn, Math.min(firstColumn + tileSize, columns), margin);
+				tilesOfPhase.get(phase).add(tile);
+				allTiles.add(tile);
+			}
+		}
+
+		phases = new MatrixWindow[4][];
+		for (int i = 0; i < tilesOfPhase.size(); i++) {
+			phases[i] = tilesOfPhase.get(i).toArray(new MatrixWindow[0]);
+		}
+		tiles = allTiles.toArray(new MatrixWindow[0]);
+	}
+
+	/**
+	 * Updates a range of the tiles of one phase, splitting the range in half until
+	 * each task updates a single tile.
+	 */
+	private static class TileUpdate extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final MatrixWindow[] tiles;
+		private final int from;
+		private final int to;
+		private final boolean direction;
+		private final boolean movesDown;
+
+		TileUpdate(MatrixWindow[] tiles, int from, int to, boolean direction, boolean movesDown) {
+			this.tiles = tiles;
+			this.from = from;
+			this.to = to;
+			this.direction = direction;
+			this.movesDown = movesDown;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				tiles[from].updateTile(direction, movesDown);
+			} else if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new TileUpdate(tiles, from, middle, direction, movesDown),
+						new TileUpdate(tiles, middle, to, direction, movesDown));
+			}
+		}
+	}
+
+	/**
+	 * Conducts heat in a range of the tiles, splitting the range in half until
+	 * each task conducts a single tile.
+	 */
+	private static class TileDiffusion extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final MatrixWindow[] tiles;
+		private final int from;
+		private final int to;
+
+		TileDiffusion(MatrixWindow[] tiles, int from, int to) {
+			this.tiles = tiles;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				tiles[from].diffuseTile();
+			} else if (to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new TileDiffusion(tiles, from, middle), new TileDiffusion(tiles, middle, to));
+			}
+		}
+	}
+
+}
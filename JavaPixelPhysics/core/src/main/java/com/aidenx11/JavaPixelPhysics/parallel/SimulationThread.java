@@ -0,0 +1,119 @@
+package com.aidenx11.JavaPixelPhysics.parallel;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.aidenx11.JavaPixelPhysics.SimulationLoop;
+
+/**
+ * Runs the ticks of the simulation on a thread of its own, at a fixed number of
+ * ticks per second no matter how fast frames are drawn. Each tick is scheduled
+ * a fixed time after the one before it, so a tick that runs long is made up for
+ * by starting the next ones sooner. If the thread falls more than MAX_LAG_TICKS
+ * behind, the ticks it missed are dropped instead, so the simulation slows down
+ * rather than trying to catch up forever.
+ *
+ * This class uses threads and is not compiled for the web version of the game.
+ *
+ * @author Aiden Schroeder
+ */
+public class SimulationThread implements SimulationLoop {
+
+	/** Default number of ticks run each second */
+	public static final int DEFAULT_TICKS_PER_SECOND = 60;
+
+	/** Number of ticks the thread can fall behind before the missed ones are dropped */
+	public static final int MAX_LAG_TICKS = 5;
+
+	/** Time between the start of each tick, in nanoseconds */
+	private volatile long tickNanos;
+
+	/** Thread the ticks run on, or null if the loop is not running */
+	private Thread thread;
+
+	/** Whether the thread should keep running ticks */
+	private volatile boolean running;
+
+	/**
+	 * Creates a loop that runs DEFAULT_TICKS_PER_SECOND ticks each second
+	 */
+	public SimulationThread() {
+		this(DEFAULT_TICKS_PER_SECOND);
+	}
+
+	/**
+	 * Creates a loop that runs the given number of ticks each second
+	 *
+	 * @param ticksPerSecond number of ticks to run each second
+	 */
+	public SimulationThread(int ticksPerSecond) {
+		setTicksPerSecond(ticksPerSecond);
+	}
+
+	/**
+	 * @return the number of ticks run each second
+	 */
+	public int getTicksPerSecond() {
+		return (int) Math.round(1_000_000_000.0 / tickNanos);
+	}
+
+	/**
+	 * Sets the number of ticks run each second. Takes effect from the next tick.
+	 *
+	 * @param ticksPerSecond number of ticks to run each second
+	 */
+	public void setTicksPerSecond(int ticksPerSecond) {
+		if (ticksPerSecond <= 0) {
+			throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+		}
+		tickNanos = 1_000_000_000L / ticksPerSecond;
+	}
+
+	@Override
+	public synchronized void start(Runnable tick) {
+		if (thread != null) {
+			throw new IllegalStateException("The simulation thread is already running");
+		}
+		running = true;
+		thread = new Thread(() -> run(tick), "Simulation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (thread == null) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(thread);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+	}
+
+	/**
+	 * Runs the given tick at the set rate until the loop is stopped
+	 *
+	 * @param tick runs one tick of the simulation
+	 */
+	private void run(Runnable tick) {
+		long next = System.nanoTime();
+		while (running) {
+			tick.run();
+
+			long period = tickNanos;
+			next += period;
+			long now = System.nanoTime();
+			if (now - next > MAX_LAG_TICKS * period) {
+				next = now;
+			}
+			while (running && (now = System.nanoTime()) - next < 0) {
+				LockSupport.parkNanos(next - now);
+			}
+		}
+	}
+
+}
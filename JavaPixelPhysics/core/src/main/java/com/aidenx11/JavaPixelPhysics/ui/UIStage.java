@@ -10,6 +10,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Slider;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
@@ -48,6 +49,10 @@ public class UIStage extends Stage {
 	public static TextButton steelToolButton;
 	public static TextButton voidToolButton;
 	public static TextButton pauseButton;
+	public static TextButton turboButton;
+
+	/** Shows how many ticks of the simulation run each second */
+	public static Label ticksPerSecondLabel;
 
 	public static TextButton moveTablesButton;
 
@@ -63,6 +68,9 @@ public class UIStage extends Stage {
 
 	boolean brushTypeTableMoved = false;
 
+	/** Ticks per second shown by the label, or -1 if nothing is shown yet */
+	private int shownTicksPerSecond = -1;
+
 	/**
 	 * Constructs the UI by initializing and placing all buttons and sliders.
 	 * 
@@ -78,6 +86,7 @@ public class UIStage extends Stage {
 
 		Table elementTable = new Table();
 		Table brushTypeTable = new Table();
+		Table simulationTable = new Table();
 
 		skinButton = new Skin(Gdx.files.internal("skin/uiskin.json"));
 
@@ -112,7 +121,9 @@ public class UIStage extends Stage {
 		clearCanvasButton.addListener(new ClickListener() {
 			@Override
 			public void clicked(InputEvent event, float x, float y) {
-				matrix.clear();
+				synchronized (matrix) {
+					matrix.clear();
+				}
 			}
 		});
 
@@ -285,7 +296,9 @@ public class UIStage extends Stage {
 				if (PixelPhysicsGame.isPaused) {
 					pauseButton.setText("Pause");
 					PixelPhysicsGame.isPaused = false;
-					CellularMatrix.resetChunks();
+					synchronized (matrix) {
+						matrix.resetChunks();
+					}
 				} else {
 					pauseButton.setText("Resume");
 					PixelPhysicsGame.isPaused = true;
@@ -294,6 +307,16 @@ public class UIStage extends Stage {
 			}
 		});
 
+		turboButton = new TextButton("Turbo", skinButton, "default");
+		turboButton.addListener(new ClickListener() {
+			public void clicked(InputEvent event, float x, float y) {
+				PixelPhysicsGame.turbo = !PixelPhysicsGame.turbo;
+				resetButtonColors();
+			}
+		});
+
+		ticksPerSecondLabel = new Label("", skinButton, "default");
+
 //		moveTablesButton = new TextButton("test", skinButton, "default");
 //		moveTablesButton.setPosition(100f, 100f);
 //		moveTablesButton.addListener(new ClickListener() {
@@ -354,20 +377,39 @@ public class UIStage extends Stage {
 		brushTypeTable.row();
 		brushTypeTable.add(canvasColorButton).minWidth(75f).pad(2f);
 		brushTypeTable.row();
-		brushTypeTable.add(pauseButton).minWidth(65f).pad(2f);
+		brushTypeTable.add(simulationTable);
+
+		simulationTable.add(pauseButton).minWidth(65f).pad(2f);
+		simulationTable.add(turboButton).pad(2f);
 
 		resetButtonColors();
 
 		brushTypeTable.setPosition(Gdx.graphics.getWidth() - PixelPhysicsGame.uiOffset + 65, 85f);
 		elementTable.setPosition(Gdx.graphics.getWidth() - PixelPhysicsGame.uiOffset / 2 + 15,
 				Gdx.graphics.getHeight() - 215f);
+		ticksPerSecondLabel.setPosition(Gdx.graphics.getWidth() - PixelPhysicsGame.uiOffset + 12,
+				Gdx.graphics.getHeight() - 22f);
 		this.addActor(brushTypeTable);
 		this.addActor(elementTable);
 		this.addActor(brushSizeSlider);
+		this.addActor(ticksPerSecondLabel);
 
 //		this.addActor(moveTablesButton);
 	}
 
+	/**
+	 * Updates the ticks per second shown by the label, then acts as a Stage does
+	 */
+	@Override
+	public void act(float delta) {
+		int ticksPerSecond = PixelPhysicsGame.tickCounter.getTicksPerSecond();
+		if (ticksPerSecond != shownTicksPerSecond) {
+			ticksPerSecondLabel.setText(ticksPerSecond + " TPS");
+			shownTicksPerSecond = ticksPerSecond;
+		}
+		super.act(delta);
+	}
+
 	/**
 	 * Resets the color of all buttons in the UI to their defaults, and to red if
 	 * the button is selected.
@@ -456,6 +498,11 @@ public class UIStage extends Stage {
 			} else {
 				pauseButton.setColor(Color.WHITE);
 			}
+			if (PixelPhysicsGame.turbo) {
+				turboButton.setColor(Color.RED);
+			} else {
+				turboButton.setColor(Color.WHITE);
+			}
 		} else {
 			canvasColorButton.setColor(Color.NAVY);
 			if (mouse.getElementType() != ElementTypes.DIRT) {
@@ -539,6 +586,11 @@ public class UIStage extends Stage {
 			} else {
 				pauseButton.setColor(Color.GRAY);
 			}
+			if (PixelPhysicsGame.turbo) {
+				turboButton.setColor(Color.RED);
+			} else {
+				turboButton.setColor(Color.GRAY);
+			}
 		}
 		System.gc();
 	}
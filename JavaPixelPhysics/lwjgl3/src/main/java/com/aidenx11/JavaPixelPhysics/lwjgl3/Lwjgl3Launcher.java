@@ -2,17 +2,54 @@ package com.aidenx11.JavaPixelPhysics.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.aidenx11.JavaPixelPhysics.FrameUpdater;
 import com.aidenx11.JavaPixelPhysics.PixelPhysicsGame;
+import com.aidenx11.JavaPixelPhysics.SimulationLoop;
+import com.aidenx11.JavaPixelPhysics.parallel.ParallelFrameUpdater;
+import com.aidenx11.JavaPixelPhysics.parallel.SimulationThread;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
+    /**
+     * System property holding the number of threads used to update the matrix.
+     * Defaults to the number of available processors; 1 updates the matrix on
+     * the render thread.
+     */
+    public static final String THREADS_PROPERTY = "pixelphysics.threads";
+
+    /**
+     * System property that, when true, draws the matrix with a shader that looks
+     * up the palette of each cell on the GPU.
+     */
+    public static final String PALETTE_PROPERTY = "pixelphysics.palette";
+
+    /**
+     * System property holding the number of ticks the simulation runs each
+     * second on a thread of its own. Defaults to 60; 0 updates the matrix on the
+     * render thread once before drawing each frame.
+     */
+    public static final String TICKS_PROPERTY = "pixelphysics.tps";
+
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
+        PixelPhysicsGame.paletteRendering = Boolean.getBoolean(PALETTE_PROPERTY);
         createApplication();
     }
 
     private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new PixelPhysicsGame(), getDefaultConfiguration());
+        return new Lwjgl3Application(new PixelPhysicsGame(createFrameUpdater(), createSimulationLoop()), getDefaultConfiguration());
+    }
+
+    private static FrameUpdater createFrameUpdater() {
+        int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+        if (threads <= 1) return null;
+        return new ParallelFrameUpdater(threads);
+    }
+
+    private static SimulationLoop createSimulationLoop() {
+        int ticksPerSecond = Integer.getInteger(TICKS_PROPERTY, SimulationThread.DEFAULT_TICKS_PER_SECOND);
+        if (ticksPerSecond <= 0) return null;
+        return new SimulationThread(ticksPerSecond);
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {